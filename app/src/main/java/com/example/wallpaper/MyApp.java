@@ -2,6 +2,7 @@ package com.example.wallpaper;
 
 import android.app.Application;
 
+import com.example.wallpaper.data.network.ConnectionPrewarmer;
 import com.example.wallpaper.ui.common.ThemePreferenceManager;
 
 import javax.inject.Inject;
@@ -14,6 +15,9 @@ public class MyApp extends Application {
     @Inject
     ThemePreferenceManager themePreferenceManager;
     
+    @Inject
+    ConnectionPrewarmer connectionPrewarmer;
+    
     @Override
     public void onCreate() {
         super.onCreate();
@@ -21,5 +25,10 @@ public class MyApp extends Application {
         if (themePreferenceManager != null) {
             themePreferenceManager.initializeTheme();
         }
+        
+        // Open the Wallhaven connections while the first screen is being laid out
+        if (connectionPrewarmer != null) {
+            connectionPrewarmer.prewarm();
+        }
     }
 }
@@ -6,12 +6,24 @@ import androidx.room.RoomDatabase;
 import android.content.Context;
 
 import com.example.wallpaper.data.database.dao.FavoriteDao;
+import com.example.wallpaper.data.database.dao.FeedDao;
+import com.example.wallpaper.data.database.dao.PopularTagDao;
+import com.example.wallpaper.data.database.dao.WallpaperDetailDao;
 import com.example.wallpaper.data.database.entity.FavoriteEntity;
+import com.example.wallpaper.data.database.entity.FeedItemEntity;
+import com.example.wallpaper.data.database.entity.FeedPageEntity;
+import com.example.wallpaper.data.database.entity.FeedStateEntity;
+import com.example.wallpaper.data.database.entity.PopularTagEntity;
+import com.example.wallpaper.data.database.entity.WallpaperDetailEntity;
 
 @Database(
-    entities = {FavoriteEntity.class},
-    version = 1
+    entities = {FavoriteEntity.class, PopularTagEntity.class, WallpaperDetailEntity.class,
+            FeedPageEntity.class, FeedItemEntity.class, FeedStateEntity.class},
+    version = 4
 )
 public abstract class AppDatabase extends RoomDatabase {
     public abstract FavoriteDao favoriteDao();
+    public abstract PopularTagDao popularTagDao();
+    public abstract WallpaperDetailDao wallpaperDetailDao();
+    public abstract FeedDao feedDao();
 }
@@ -0,0 +1,83 @@
+package com.example.wallpaper.data.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Schema migrations for {@link AppDatabase}. Favorites must survive every upgrade,
+ * so each version bump adds a migration here instead of a destructive fallback.
+ */
+public final class Migrations {
+
+    private Migrations() {}
+
+    /**
+     * Adds the popular tags cache.
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `popular_tags` ("
+                    + "`tag_id` INTEGER NOT NULL, "
+                    + "`position` INTEGER NOT NULL, "
+                    + "`name` TEXT, "
+                    + "`alias` TEXT, "
+                    + "`category_id` INTEGER NOT NULL, "
+                    + "`category` TEXT, "
+                    + "`purity` TEXT, "
+                    + "`created_at` INTEGER, "
+                    + "`fetched_at` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`tag_id`))");
+        }
+    };
+
+    /**
+     * Adds the persistent tier of the wallpaper detail cache.
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `wallpaper_details` ("
+                    + "`wallpaper_id` TEXT NOT NULL, "
+                    + "`json` TEXT, "
+                    + "`complete` INTEGER NOT NULL, "
+                    + "`updated_at` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`wallpaper_id`))");
+        }
+    };
+
+    /**
+     * Adds the offline search page store.
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `feed_pages` ("
+                    + "`feed_key` TEXT NOT NULL, "
+                    + "`page` INTEGER NOT NULL, "
+                    + "`last_page` INTEGER NOT NULL, "
+                    + "`fetched_at` INTEGER NOT NULL, "
+                    + "`expires_at` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`feed_key`, `page`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `feed_items` ("
+                    + "`feed_key` TEXT NOT NULL, "
+                    + "`page` INTEGER NOT NULL, "
+                    + "`item_index` INTEGER NOT NULL, "
+                    + "`wallpaper_id` TEXT, "
+                    + "`json` TEXT, "
+                    + "PRIMARY KEY(`feed_key`, `page`, `item_index`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `feed_state` ("
+                    + "`feed_key` TEXT NOT NULL, "
+                    + "`scroll_position` INTEGER NOT NULL, "
+                    + "`updated_at` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`feed_key`))");
+        }
+    };
+
+    public static final Migration[] ALL = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4
+    };
+}
@@ -0,0 +1,83 @@
+package com.example.wallpaper.data.database.dao;
+
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.wallpaper.data.database.entity.FeedItemEntity;
+import com.example.wallpaper.data.database.entity.FeedPageEntity;
+import com.example.wallpaper.data.database.entity.FeedStateEntity;
+
+import java.util.List;
+
+@Dao
+public interface FeedDao {
+    
+    // Keyed by item offset, so a saved scroll position can be used as the initial key
+    @Query("SELECT * FROM feed_items WHERE feed_key = :feedKey ORDER BY page ASC, item_index ASC")
+    PagingSource<Integer, FeedItemEntity> pagingSource(String feedKey);
+    
+    @Query("SELECT * FROM feed_pages WHERE feed_key = :feedKey AND page = :page")
+    FeedPageEntity getPage(String feedKey, int page);
+    
+    @Query("SELECT * FROM feed_pages WHERE feed_key = :feedKey ORDER BY page DESC LIMIT 1")
+    FeedPageEntity getLastPage(String feedKey);
+    
+    @Query("SELECT wallpaper_id FROM feed_items WHERE feed_key = :feedKey AND page = :page ORDER BY item_index ASC")
+    List<String> getWallpaperIds(String feedKey, int page);
+    
+    @Query("SELECT * FROM feed_state WHERE feed_key = :feedKey")
+    FeedStateEntity getState(String feedKey);
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertPage(FeedPageEntity page);
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertItems(List<FeedItemEntity> items);
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertState(FeedStateEntity state);
+    
+    @Query("UPDATE feed_pages SET expires_at = :expiresAt WHERE feed_key = :feedKey")
+    void extendExpiry(String feedKey, long expiresAt);
+    
+    @Query("DELETE FROM feed_pages WHERE feed_key = :feedKey AND page >= :fromPage")
+    void deletePagesFrom(String feedKey, int fromPage);
+    
+    @Query("DELETE FROM feed_items WHERE feed_key = :feedKey AND page >= :fromPage")
+    void deleteItemsFrom(String feedKey, int fromPage);
+    
+    @Query("DELETE FROM feed_pages WHERE expires_at <= :now")
+    void deleteExpiredPages(long now);
+    
+    @Query("DELETE FROM feed_items WHERE NOT EXISTS (SELECT 1 FROM feed_pages "
+            + "WHERE feed_pages.feed_key = feed_items.feed_key AND feed_pages.page = feed_items.page)")
+    void deleteOrphanItems();
+    
+    @Query("DELETE FROM feed_state WHERE feed_key NOT IN (SELECT feed_key FROM feed_pages)")
+    void deleteOrphanStates();
+    
+    @Transaction
+    default void clearFrom(String feedKey, int fromPage) {
+        deleteItemsFrom(feedKey, fromPage);
+        deletePagesFrom(feedKey, fromPage);
+    }
+    
+    // Later pages were fetched against the old page, so they are dropped with it
+    @Transaction
+    default void replacePage(FeedPageEntity page, List<FeedItemEntity> items) {
+        clearFrom(page.getFeedKey(), page.getPage());
+        upsertPage(page);
+        insertItems(items);
+    }
+    
+    @Transaction
+    default void prune(long now) {
+        deleteExpiredPages(now);
+        deleteOrphanItems();
+        deleteOrphanStates();
+    }
+}
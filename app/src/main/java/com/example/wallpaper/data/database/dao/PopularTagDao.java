@@ -0,0 +1,31 @@
+package com.example.wallpaper.data.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.wallpaper.data.database.entity.PopularTagEntity;
+
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Single;
+
+@Dao
+public interface PopularTagDao {
+    
+    @Query("SELECT * FROM popular_tags ORDER BY position ASC")
+    Single<List<PopularTagEntity>> getAll();
+    
+    @Insert
+    void insertAll(List<PopularTagEntity> tags);
+    
+    @Query("DELETE FROM popular_tags")
+    void deleteAll();
+    
+    @Transaction
+    default void replaceAll(List<PopularTagEntity> tags) {
+        deleteAll();
+        insertAll(tags);
+    }
+}
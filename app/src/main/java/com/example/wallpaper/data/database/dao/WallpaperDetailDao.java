@@ -0,0 +1,29 @@
+package com.example.wallpaper.data.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.wallpaper.data.database.entity.WallpaperDetailEntity;
+
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Maybe;
+
+@Dao
+public interface WallpaperDetailDao {
+    
+    @Query("SELECT * FROM wallpaper_details WHERE wallpaper_id = :wallpaperId")
+    Maybe<WallpaperDetailEntity> getById(String wallpaperId);
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(WallpaperDetailEntity detail);
+    
+    // Seeded rows never replace a complete detail
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertIfAbsent(List<WallpaperDetailEntity> details);
+    
+    @Query("DELETE FROM wallpaper_details WHERE updated_at < :before")
+    void deleteOlderThan(long before);
+}
@@ -0,0 +1,39 @@
+package com.example.wallpaper.data.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(tableName = "feed_items", primaryKeys = {"feed_key", "page", "item_index"})
+@Data
+@Builder
+@NoArgsConstructor
+public class FeedItemEntity {
+    @NonNull
+    @ColumnInfo(name = "feed_key")
+    private String feedKey;
+    
+    private int page;
+    
+    @ColumnInfo(name = "item_index")
+    private int itemIndex; // position within the page
+    
+    @ColumnInfo(name = "wallpaper_id")
+    private String wallpaperId;
+    
+    private String json; // NetworkWallhavenWallpaper as returned by search
+    
+    @Ignore
+    public FeedItemEntity(@NonNull String feedKey, int page, int itemIndex, String wallpaperId, String json) {
+        this.feedKey = feedKey;
+        this.page = page;
+        this.itemIndex = itemIndex;
+        this.wallpaperId = wallpaperId;
+        this.json = json;
+    }
+}
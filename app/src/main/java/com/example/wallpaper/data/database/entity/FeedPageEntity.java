@@ -0,0 +1,40 @@
+package com.example.wallpaper.data.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(tableName = "feed_pages", primaryKeys = {"feed_key", "page"})
+@Data
+@Builder
+@NoArgsConstructor
+public class FeedPageEntity {
+    @NonNull
+    @ColumnInfo(name = "feed_key")
+    private String feedKey; // WallhavenSearchKey feed, shared by every page
+    
+    private int page;
+    
+    @ColumnInfo(name = "last_page")
+    private int lastPage;
+    
+    @ColumnInfo(name = "fetched_at")
+    private long fetchedAt; // timestamp in milliseconds
+    
+    @ColumnInfo(name = "expires_at")
+    private long expiresAt; // timestamp in milliseconds
+    
+    @Ignore
+    public FeedPageEntity(@NonNull String feedKey, int page, int lastPage, long fetchedAt, long expiresAt) {
+        this.feedKey = feedKey;
+        this.page = page;
+        this.lastPage = lastPage;
+        this.fetchedAt = fetchedAt;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.wallpaper.data.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(tableName = "feed_state")
+@Data
+@Builder
+@NoArgsConstructor
+public class FeedStateEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "feed_key")
+    private String feedKey;
+    
+    @ColumnInfo(name = "scroll_position")
+    private int scrollPosition; // index of the first visible wallpaper
+    
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt; // timestamp in milliseconds
+    
+    @Ignore
+    public FeedStateEntity(@NonNull String feedKey, int scrollPosition, long updatedAt) {
+        this.feedKey = feedKey;
+        this.scrollPosition = scrollPosition;
+        this.updatedAt = updatedAt;
+    }
+}
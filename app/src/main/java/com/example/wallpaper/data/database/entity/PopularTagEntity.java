@@ -0,0 +1,83 @@
+package com.example.wallpaper.data.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(tableName = "popular_tags")
+@Data
+@Builder
+@NoArgsConstructor
+public class PopularTagEntity {
+    @PrimaryKey
+    @ColumnInfo(name = "tag_id")
+    private long tagId;
+    
+    private int position; // order on the popular tags page
+    
+    private String name;
+    
+    private String alias;
+    
+    @ColumnInfo(name = "category_id")
+    private long categoryId;
+    
+    private String category;
+    
+    private String purity;
+    
+    @ColumnInfo(name = "created_at")
+    private Long createdAt; // timestamp in milliseconds
+    
+    @ColumnInfo(name = "fetched_at")
+    private long fetchedAt; // when the list was downloaded, in milliseconds
+    
+    @Ignore
+    public PopularTagEntity(long tagId, int position, String name, String alias, long categoryId,
+                            String category, String purity, Long createdAt, long fetchedAt) {
+        this.tagId = tagId;
+        this.position = position;
+        this.name = name;
+        this.alias = alias;
+        this.categoryId = categoryId;
+        this.category = category;
+        this.purity = purity;
+        this.createdAt = createdAt;
+        this.fetchedAt = fetchedAt;
+    }
+    
+    public static PopularTagEntity fromNetwork(NetworkWallhavenTag tag, int position, long fetchedAt) {
+        return PopularTagEntity.builder()
+                .tagId(tag.getId())
+                .position(position)
+                .name(tag.getName())
+                .alias(tag.getAlias())
+                .categoryId(tag.getCategoryId())
+                .category(tag.getCategory())
+                .purity(tag.getPurity())
+                .createdAt(tag.getCreatedAt() != null ? tag.getCreatedAt().toEpochMilli() : null)
+                .fetchedAt(fetchedAt)
+                .build();
+    }
+    
+    public NetworkWallhavenTag toNetwork() {
+        return new NetworkWallhavenTag(
+                tagId,
+                name,
+                alias,
+                categoryId,
+                category,
+                purity,
+                createdAt != null ? Instant.ofEpochMilli(createdAt) : null
+        );
+    }
+}
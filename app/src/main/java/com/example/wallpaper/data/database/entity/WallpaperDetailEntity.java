@@ -0,0 +1,37 @@
+package com.example.wallpaper.data.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(tableName = "wallpaper_details")
+@Data
+@Builder
+@NoArgsConstructor
+public class WallpaperDetailEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "wallpaper_id")
+    private String wallpaperId;
+    
+    private String json; // NetworkWallhavenWallpaper as returned by the API
+    
+    private boolean complete; // false when seeded from search results without tags and uploader
+    
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt; // timestamp in milliseconds
+    
+    @Ignore
+    public WallpaperDetailEntity(@NonNull String wallpaperId, String json, boolean complete, long updatedAt) {
+        this.wallpaperId = wallpaperId;
+        this.json = json;
+        this.complete = complete;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.wallpaper.data.image;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+
+/**
+ * Glide memory cache that counts lookups. Glide looks resources up by removing
+ * them from the cache, so every remove is a hit or a miss.
+ */
+public class CountingMemoryCache extends LruResourceCache {
+
+    private long hitCount;
+    private long missCount;
+
+    public CountingMemoryCache(long size) {
+        super(size);
+    }
+
+    @Nullable
+    @Override
+    public synchronized Resource<?> remove(@NonNull Key key) {
+        Resource<?> resource = super.remove(key);
+        if (resource != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return resource;
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+}
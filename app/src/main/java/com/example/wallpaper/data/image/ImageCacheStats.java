@@ -0,0 +1,47 @@
+package com.example.wallpaper.data.image;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+
+import java.util.Locale;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Read-only view over Glide's memory cache and bitmap pool counters. A high pool
+ * miss rate means bitmaps are allocated while scrolling, which shows up as GC
+ * churn and dropped frames.
+ */
+@Singleton
+public class ImageCacheStats {
+
+    private volatile CountingMemoryCache memoryCache;
+    private volatile LruBitmapPool bitmapPool;
+
+    @Inject
+    public ImageCacheStats() {
+    }
+
+    /**
+     * Called by {@link WallpaperGlideModule} once Glide is built.
+     */
+    void attach(CountingMemoryCache memoryCache, LruBitmapPool bitmapPool) {
+        this.memoryCache = memoryCache;
+        this.bitmapPool = bitmapPool;
+    }
+
+    @Override
+    public String toString() {
+        CountingMemoryCache memoryCache = this.memoryCache;
+        LruBitmapPool bitmapPool = this.bitmapPool;
+        if (memoryCache == null || bitmapPool == null) {
+            return "Glide not initialized";
+        }
+        return String.format(Locale.US,
+                "memory hits=%d misses=%d size=%d/%d pool hits=%d misses=%d evictions=%d size=%d/%d",
+                memoryCache.hitCount(), memoryCache.missCount(),
+                memoryCache.getCurrentSize(), memoryCache.getMaxSize(),
+                bitmapPool.hitCount(), bitmapPool.missCount(), bitmapPool.evictionCount(),
+                bitmapPool.getCurrentSize(), bitmapPool.getMaxSize());
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.wallpaper.data.image;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import com.example.wallpaper.di.NetworkModule;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Full-resolution originals on disk, one file per wallpaper id. Viewing, cropping
+ * and saving all read from here, so whichever of them needs the original first
+ * downloads it and the others find it. Concurrent requests for the same id share
+ * one download. The least recently used originals are deleted once the store
+ * grows past its byte budget.
+ */
+@Singleton
+public class OriginalImageStore {
+
+    private static final String DIR = "originals";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // A handful of 8K originals
+    private static final long MAX_BYTES = 150L * 1024 * 1024;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // Temp files this old were left by a process that died while storing
+    private static final long STALE_TEMP_MS = 60 * 60 * 1000L;
+
+    private final File dir;
+    private final OkHttpClient okHttpClient;
+    private final Map<String, Single<File>> downloads = new HashMap<>();
+    // Trims list and delete files; fetch() is called on the main thread and must
+    // never wait for that, so they do not hold this instance's monitor
+    private final Object trimLock = new Object();
+
+    @Inject
+    public OriginalImageStore(@ApplicationContext Context context,
+                              @Named(NetworkModule.IMAGE_CLIENT) OkHttpClient okHttpClient) {
+        this.dir = new File(context.getCacheDir(), DIR);
+        this.okHttpClient = okHttpClient;
+    }
+
+    /**
+     * The stored original, or null if it has not been downloaded. Touches disk, so
+     * call it off the main thread.
+     */
+    @Nullable
+    public File get(String id) {
+        File file = fileOf(id);
+        if (!file.isFile()) return null;
+        // Marks it as recently used
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * The stored original, downloaded from the URL first if needed. The download
+     * finishes and is stored even if every subscriber is gone by then.
+     */
+    public synchronized Single<File> fetch(String id, String url) {
+        String key = keyOf(id);
+        Single<File> download = downloads.get(key);
+        if (download != null) return download;
+
+        download = Single.fromCallable(() -> {
+                    File stored = get(id);
+                    return stored != null ? stored : download(id, url);
+                })
+                .subscribeOn(Schedulers.io())
+                .doFinally(() -> finished(key))
+                .cache();
+        downloads.put(key, download);
+        return download;
+    }
+
+    /**
+     * Stores an original that was downloaded in parts, e.g. by a ranged download.
+     * The parts are joined in order and left for the caller to delete.
+     */
+    public File put(String id, List<File> parts) throws IOException {
+        File temp = tempOf(id);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            byte[] buffer = new byte[BUFFER_BYTES];
+            for (File part : parts) {
+                try (InputStream in = new FileInputStream(part)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        return publish(id, temp);
+    }
+
+    private File download(String id, String url) throws IOException {
+        Request request = new Request.Builder().url(url).build();
+        File temp = tempOf(id);
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code() + " for " + url);
+            }
+
+            long written = 0;
+            try (InputStream in = body.byteStream(); OutputStream out = new FileOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_BYTES];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    written += read;
+                }
+            }
+            if (body.contentLength() >= 0 && written != body.contentLength()) {
+                throw new IOException("Got " + written + " of " + body.contentLength() + " bytes for " + url);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        return publish(id, temp);
+    }
+
+    // Only complete files ever carry the final name
+    private File publish(String id, File temp) throws IOException {
+        File file = fileOf(id);
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot store " + file);
+        }
+        Schedulers.io().scheduleDirect(this::trim);
+        return file;
+    }
+
+    private synchronized void finished(String key) {
+        downloads.remove(key);
+    }
+
+    // Deletes least recently used originals until the store fits its budget
+    private void trim() {
+        synchronized (trimLock) {
+            trimLocked();
+        }
+    }
+
+    private void trimLocked() {
+        File[] temps = dir.listFiles((directory, name) -> name.endsWith(TEMP_SUFFIX));
+        if (temps != null) {
+            long now = System.currentTimeMillis();
+            for (File temp : temps) {
+                if (now - temp.lastModified() > STALE_TEMP_MS) temp.delete();
+            }
+        }
+
+        File[] files = dir.listFiles((directory, name) -> !name.endsWith(TEMP_SUFFIX));
+        if (files == null) return;
+
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= MAX_BYTES) return;
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        // The newest file is the one just stored and always stays
+        for (int i = 0; i < files.length - 1 && total > MAX_BYTES; i++) {
+            long length = files[i].length();
+            if (files[i].delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private File fileOf(String id) {
+        return new File(dir, keyOf(id));
+    }
+
+    private File tempOf(String id) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        // Unique, a save and a view may store the same original at the same time
+        return File.createTempFile(keyOf(id) + "-", TEMP_SUFFIX, dir);
+    }
+
+    private static String keyOf(String id) {
+        return id.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
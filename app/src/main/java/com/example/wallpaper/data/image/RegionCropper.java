@@ -0,0 +1,75 @@
+package com.example.wallpaper.data.image;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Crops from the source image rather than from the preview the user cropped on.
+ * The crop rectangle is mapped from preview to source coordinates and only that
+ * region is decoded, subsampled during decode to about the target size and then
+ * scaled to it exactly. Memory holds the preview and the result, never the
+ * full-resolution source.
+ * Everything here is in upright coordinates: the source decoder applies the
+ * image's EXIF orientation, so the preview, the crop rectangle and the cropped
+ * bitmap all show the image the way it is meant to be seen.
+ */
+public class RegionCropper {
+
+    private final TiledImageDecoder source;
+    private final int previewWidth;
+    private final int previewHeight;
+
+    /**
+     * @param source  decoder of the full-resolution image
+     * @param preview the bitmap the crop rectangle refers to, a subsampled copy of the
+     *                upright source as decoded by {@link TiledImageDecoder#decodeAll(int)}
+     */
+    public RegionCropper(TiledImageDecoder source, Bitmap preview) {
+        this.source = source;
+        this.previewWidth = preview.getWidth();
+        this.previewHeight = preview.getHeight();
+    }
+
+    /**
+     * The preview rectangle in upright source pixels, clipped to the image.
+     */
+    public Rect toSource(Rect previewRect) {
+        float scaleX = (float) source.getWidth() / previewWidth;
+        float scaleY = (float) source.getHeight() / previewHeight;
+        Rect sourceRect = new Rect(
+                Math.round(previewRect.left * scaleX),
+                Math.round(previewRect.top * scaleY),
+                Math.round(previewRect.right * scaleX),
+                Math.round(previewRect.bottom * scaleY));
+        sourceRect.intersect(0, 0, source.getWidth(), source.getHeight());
+        return sourceRect;
+    }
+
+    /**
+     * Decodes the cropped region at no more than the target size. Crops smaller
+     * than the target are returned at their source size, scaling them up is left
+     * to whoever shows them. Blocks, call it off the main thread.
+     *
+     * @param previewRect crop rectangle in preview coordinates
+     */
+    @Nullable
+    public Bitmap crop(Rect previewRect, int targetWidth, int targetHeight) {
+        Rect region = toSource(previewRect);
+        if (region.isEmpty()) return null;
+
+        // Comes back upright, so the scaled size below is computed on upright sides
+        float scale = Math.min(1f, Math.min((float) targetWidth / region.width(), (float) targetHeight / region.height()));
+        Bitmap decoded = source.decodeRegion(region, TiledImageDecoder.sampleSizeFor(scale));
+        if (decoded == null) return null;
+
+        int width = Math.max(1, Math.round(region.width() * scale));
+        int height = Math.max(1, Math.round(region.height() * scale));
+        if (decoded.getWidth() <= width && decoded.getHeight() <= height) return decoded;
+
+        Bitmap scaled = Bitmap.createScaledBitmap(decoded, width, height, true);
+        if (scaled != decoded) decoded.recycle();
+        return scaled;
+    }
+}
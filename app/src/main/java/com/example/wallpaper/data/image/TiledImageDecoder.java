@@ -0,0 +1,251 @@
+package com.example.wallpaper.data.image;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Matrix;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes parts of an image file at a chosen subsampling, so an 8K wallpaper never
+ * has to be in memory at full resolution. Tile bitmaps are taken from Glide's
+ * bitmap pool when one of the right size is there.
+ * BitmapRegionDecoder ignores EXIF orientation, e.g. of camera photos, so this
+ * applies it itself: sizes and regions are in the upright image, and each region
+ * is mapped to the stored pixels and its decoded bitmap rotated upright.
+ * Calls block and must not run on the main thread.
+ */
+public class TiledImageDecoder implements Closeable {
+
+    private final ParcelFileDescriptor descriptor;
+    private final BitmapRegionDecoder decoder;
+    private final BitmapPool bitmapPool;
+    // Stored to upright pixels and back, null when the image is stored upright
+    @Nullable
+    private final Matrix orientation;
+    @Nullable
+    private final Matrix inverse;
+    private final int width;
+    private final int height;
+    private boolean closed;
+
+    private TiledImageDecoder(ParcelFileDescriptor descriptor, BitmapRegionDecoder decoder, BitmapPool bitmapPool,
+                              int exifOrientation) {
+        this.descriptor = descriptor;
+        this.decoder = decoder;
+        this.bitmapPool = bitmapPool;
+
+        RectF bounds = new RectF(0, 0, decoder.getWidth(), decoder.getHeight());
+        this.orientation = orientationMatrix(exifOrientation);
+        if (orientation != null) {
+            orientation.mapRect(bounds);
+            // Moved back to the origin, so upright coordinates start at 0 as well
+            orientation.postTranslate(-bounds.left, -bounds.top);
+            bounds.offsetTo(0, 0);
+            this.inverse = new Matrix();
+            orientation.invert(inverse);
+        } else {
+            this.inverse = null;
+        }
+        this.width = Math.round(bounds.width());
+        this.height = Math.round(bounds.height());
+    }
+
+    /**
+     * @param uri content or file URI of a JPEG, PNG or WebP image
+     * @throws IOException if the file cannot be opened or its format has no region decoder
+     */
+    public static TiledImageDecoder open(Context context, Uri uri, BitmapPool bitmapPool) throws IOException {
+        // Read from a stream of its own, the decoder must start at the file's beginning
+        int exifOrientation = readOrientation(context, uri);
+        ParcelFileDescriptor descriptor = context.getContentResolver().openFileDescriptor(uri, "r");
+        if (descriptor == null) throw new FileNotFoundException(uri.toString());
+        try {
+            BitmapRegionDecoder decoder = BitmapRegionDecoder.newInstance(descriptor.getFileDescriptor(), false);
+            return new TiledImageDecoder(descriptor, decoder, bitmapPool, exifOrientation);
+        } catch (IOException e) {
+            descriptor.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Width of the upright image.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Height of the upright image.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Largest power of two that still leaves the image at least as big as it is
+     * shown when fitted into the given size.
+     */
+    public int sampleSizeToFit(int targetWidth, int targetHeight) {
+        float fit = Math.min((float) targetWidth / width, (float) targetHeight / height);
+        return sampleSizeFor(fit);
+    }
+
+    /**
+     * Largest power of two sample size that keeps at least one decoded pixel per
+     * screen pixel at the given screen pixels per image pixel.
+     */
+    public static int sampleSizeFor(float scale) {
+        int sampleSize = 1;
+        while (scale * sampleSize * 2 <= 1f) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * The whole image at the given sample size, e.g. as a screen-sized base layer.
+     */
+    @Nullable
+    public Bitmap decodeAll(int sampleSize) {
+        return decodeRegion(new Rect(0, 0, width, height), sampleSize);
+    }
+
+    /**
+     * A region of the upright image in a new bitmap of its own. The region is
+     * clipped to the image bounds.
+     */
+    @Nullable
+    public Bitmap decodeRegion(Rect region, int sampleSize) {
+        return decodeRegion(region, sampleSize, false);
+    }
+
+    /**
+     * One tile of the upright image. The region is clipped to the image bounds.
+     */
+    @Nullable
+    public Bitmap decodeTile(Rect region, int sampleSize) {
+        return decodeRegion(region, sampleSize, true);
+    }
+
+    // BitmapRegionDecoder locks internally, this also keeps close() out of a running decode
+    private synchronized Bitmap decodeRegion(Rect region, int sampleSize, boolean reuse) {
+        if (closed || !region.intersect(0, 0, width, height)) return null;
+
+        Bitmap decoded = decodeStored(toStored(region), sampleSize, reuse);
+        if (decoded == null || orientation == null) return decoded;
+
+        // Only the rotation and flip apply to the bitmap, it is placed at its own origin
+        Bitmap upright = Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), orientation, false);
+        if (upright != decoded) {
+            if (reuse) {
+                bitmapPool.put(decoded);
+            } else {
+                decoded.recycle();
+            }
+        }
+        return upright;
+    }
+
+    // Upright region in stored pixels
+    private Rect toStored(Rect region) {
+        if (inverse == null) return region;
+        RectF stored = new RectF(region);
+        inverse.mapRect(stored);
+        Rect result = new Rect();
+        stored.round(result);
+        return result;
+    }
+
+    private Bitmap decodeStored(Rect region, int sampleSize, boolean reuse) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        if (reuse) {
+            // Rounded up, the decoder may produce one pixel more than the plain division
+            int decodedWidth = (region.width() + sampleSize - 1) / sampleSize;
+            int decodedHeight = (region.height() + sampleSize - 1) / sampleSize;
+            options.inBitmap = bitmapPool.getDirty(decodedWidth, decodedHeight, Bitmap.Config.ARGB_8888);
+            options.inMutable = true;
+        }
+
+        try {
+            return decoder.decodeRegion(region, options);
+        } catch (IllegalArgumentException e) {
+            // The pooled bitmap did not fit the decoded region after all
+            if (options.inBitmap == null) throw e;
+            bitmapPool.put(options.inBitmap);
+            options.inBitmap = null;
+            return decoder.decodeRegion(region, options);
+        }
+    }
+
+    private static int readOrientation(Context context, Uri uri) {
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            if (in == null) return ExifInterface.ORIENTATION_NORMAL;
+            return new ExifInterface(in).getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException e) {
+            // No readable EXIF, shown as stored
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    // Same transforms Glide applies when it decodes the whole image
+    @Nullable
+    private static Matrix orientationMatrix(int exifOrientation) {
+        Matrix matrix = new Matrix();
+        switch (exifOrientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.setScale(-1, 1);
+                return matrix;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.setRotate(180);
+                return matrix;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.setScale(1, -1);
+                return matrix;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.setRotate(90);
+                matrix.postScale(-1, 1);
+                return matrix;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.setRotate(90);
+                return matrix;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.setRotate(-90);
+                matrix.postScale(-1, 1);
+                return matrix;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.setRotate(-90);
+                return matrix;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        decoder.recycle();
+        try {
+            descriptor.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.wallpaper.data.image;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.integration.okhttp3.OkHttpUrlLoader;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.module.AppGlideModule;
+import com.example.wallpaper.di.NetworkModule;
+
+import java.io.InputStream;
+
+import javax.inject.Named;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.EntryPointAccessors;
+import dagger.hilt.components.SingletonComponent;
+import okhttp3.OkHttpClient;
+
+/**
+ * Sizes Glide's caches for a wallpaper app and loads images through the shared
+ * OkHttp connection pool. The memory cache and bitmap pool are a share of the
+ * app's memory class, halved on low-RAM devices.
+ */
+@GlideModule
+public class WallpaperGlideModule extends AppGlideModule {
+
+    private static final float MEMORY_CACHE_SHARE = 0.15f;
+    private static final float BITMAP_POOL_SHARE = 0.10f;
+    private static final String DISK_CACHE_DIR = "image_cache";
+    private static final long DISK_CACHE_SIZE = 200L * 1024 * 1024;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        long memoryClassBytes = activityManager.getMemoryClass() * 1024L * 1024L;
+        float scale = activityManager.isLowRamDevice() ? 0.5f : 1f;
+
+        CountingMemoryCache memoryCache = new CountingMemoryCache((long) (memoryClassBytes * MEMORY_CACHE_SHARE * scale));
+        LruBitmapPool bitmapPool = new LruBitmapPool((long) (memoryClassBytes * BITMAP_POOL_SHARE * scale));
+        builder.setMemoryCache(memoryCache)
+                .setBitmapPool(bitmapPool)
+                .setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_SIZE))
+                .setLogLevel(Log.ERROR);
+
+        entryPoint(context).imageCacheStats().attach(memoryCache, bitmapPool);
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.replace(GlideUrl.class, InputStream.class,
+                new OkHttpUrlLoader.Factory(entryPoint(context).imageOkHttpClient()));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+
+    private static GlideEntryPoint entryPoint(Context context) {
+        return EntryPointAccessors.fromApplication(context.getApplicationContext(), GlideEntryPoint.class);
+    }
+
+    /**
+     * Glide creates the module itself, so its dependencies come from Hilt this way.
+     */
+    @EntryPoint
+    @InstallIn(SingletonComponent.class)
+    public interface GlideEntryPoint {
+        @Named(NetworkModule.IMAGE_CLIENT)
+        OkHttpClient imageOkHttpClient();
+
+        ImageCacheStats imageCacheStats();
+    }
+}
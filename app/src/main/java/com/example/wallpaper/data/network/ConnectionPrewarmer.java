@@ -0,0 +1,165 @@
+package com.example.wallpaper.data.network;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.wallpaper.di.NetworkModule;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import dagger.Lazy;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Opens connections to the Wallhaven hosts at startup so the first search and the
+ * first images do not pay for DNS, TCP and TLS. The connections land in the shared
+ * OkHttp pool; the setup time measured here is what the first real request saves.
+ */
+@Singleton
+public class ConnectionPrewarmer {
+
+    private static final String TAG = "ConnectionPrewarmer";
+
+    // API and tags pages, full images, thumbnails
+    static final List<String> HOSTS = Arrays.asList("wallhaven.cc", "w.wallhaven.cc", "th.wallhaven.cc");
+
+    private final Lazy<OkHttpClient> okHttpClient;
+    private final AtomicBoolean started = new AtomicBoolean();
+    // Host to setup time in milliseconds, in the order the hosts finished
+    private final Map<String, Long> savedMs = new LinkedHashMap<>();
+
+    @Inject
+    public ConnectionPrewarmer(@Named(NetworkModule.IMAGE_CLIENT) Lazy<OkHttpClient> okHttpClient) {
+        this.okHttpClient = okHttpClient;
+    }
+
+    /**
+     * Starts warming up in the background. Only the first call does anything.
+     */
+    public void prewarm() {
+        if (!started.compareAndSet(false, true)) return;
+
+        // Building the client touches the disk cache, keep that off the main thread too
+        Schedulers.io().scheduleDirect(() -> {
+            // The image client has no rate limiter, so HEAD requests spend no tokens.
+            // Its timing listener is swapped out to keep them out of the timings.
+            OkHttpClient client = okHttpClient.get().newBuilder()
+                    .eventListenerFactory(call -> new SetupTimer(call.request().url().host()))
+                    .build();
+
+            for (String host : HOSTS) {
+                Request request = new Request.Builder()
+                        .url("https://" + host + "/")
+                        .head()
+                        .build();
+                client.newCall(request).enqueue(new Callback() {
+                    @Override
+                    public void onResponse(@NonNull Call call, @NonNull Response response) {
+                        // Any status will do, the connection stays in the pool
+                        response.close();
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                        Log.d(TAG, "Pre-warming " + host + " failed: " + e.getMessage());
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Total DNS and connection setup time taken off the first requests so far.
+     */
+    public synchronized long getSavedMillis() {
+        long total = 0;
+        for (long ms : savedMs.values()) {
+            total += ms;
+        }
+        return total;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        if (savedMs.isEmpty()) return "nothing pre-warmed";
+
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Long> entry : savedMs.entrySet()) {
+            if (builder.length() > 0) builder.append(", ");
+            builder.append(String.format(Locale.US, "%s %dms", entry.getKey(), entry.getValue()));
+        }
+        return builder.toString();
+    }
+
+    private synchronized void report(String host, long dnsNanos, long connectNanos) {
+        long dnsMs = TimeUnit.NANOSECONDS.toMillis(dnsNanos);
+        long connectMs = TimeUnit.NANOSECONDS.toMillis(connectNanos);
+        savedMs.put(host, dnsMs + connectMs);
+        Log.d(TAG, String.format(Locale.US, "Pre-warmed %s: dns=%dms connect+tls=%dms", host, dnsMs, connectMs));
+    }
+
+    /**
+     * Measures how long the warm-up request spent setting up its connection.
+     */
+    private class SetupTimer extends EventListener {
+        private final String host;
+        private long dnsStart;
+        private long dnsNanos;
+        private long connectStart;
+        private long connectNanos;
+
+        SetupTimer(String host) {
+            this.host = host;
+        }
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+            dnsNanos = System.nanoTime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                               @NonNull Proxy proxy, Protocol protocol) {
+            connectNanos = System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void callEnd(@NonNull Call call) {
+            // Zero when a pooled connection was already there
+            report(host, dnsNanos, connectNanos);
+        }
+    }
+}
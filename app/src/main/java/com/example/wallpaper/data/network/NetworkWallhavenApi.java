@@ -1,14 +1,21 @@
 package com.example.wallpaper.data.network;
 
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaperResponse;
+import com.example.wallpaper.data.network.ratelimit.RequestPriorityTag;
 
-import org.jsoup.nodes.Document;
+import java.util.List;
+
+import okhttp3.ResponseBody;
 
 import retrofit2.Call;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
+import retrofit2.http.Tag;
 
 public interface NetworkWallhavenApi {
     // Document: https://wallhaven.cc/help/api#search
@@ -25,15 +32,38 @@ public interface NetworkWallhavenApi {
             @Query("colors") String colors,
             @Query("ratios") String ratios,
             @Query("page") Integer page,
-            @Query("seed") String seed
+            @Query("seed") String seed,
+            @Header("Cache-Control") String cacheControl,
+            @Tag RequestPriorityTag priorityTag
+    );
+
+    // Same as search, but the body is left unread for StreamingWallpapersDecoder
+    @Streaming
+    @GET("search")
+    Call<ResponseBody> searchStreaming(
+            @Query("q") String query,
+            @Query("categories") String categories,
+            @Query("purity") String purity,
+            @Query("sorting") String sorting,
+            @Query("order") String order,
+            @Query("topRange") String topRange,
+            @Query("atleast") String atleast,
+            @Query("resolutions") String resolutions,
+            @Query("colors") String colors,
+            @Query("ratios") String ratios,
+            @Query("page") Integer page,
+            @Query("seed") String seed,
+            @Tag RequestPriorityTag priorityTag
     );
 
     // Document: http://wallhaven.cc/help/api#wallpapers 
     @GET("w/{id}")
     Call<NetworkWallhavenWallpaperResponse> wallpaper(
-            @Path("id") String id
+            @Path("id") String id,
+            @Tag RequestPriorityTag priorityTag
     );
 
+    // Parsed from HTML by PopularTagsConverterFactory
     @GET("https://wallhaven.cc/tags/popular")
-    Call<Document> popularTags();
+    Call<List<NetworkWallhavenTag>> popularTags(@Tag RequestPriorityTag priorityTag);
 }
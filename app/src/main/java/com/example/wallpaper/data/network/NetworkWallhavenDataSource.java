@@ -1,22 +1,26 @@
 package com.example.wallpaper.data.network;
 
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaperResponse;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.example.wallpaper.data.network.ratelimit.RequestPriority;
+import com.example.wallpaper.data.network.ratelimit.RequestPriorityTag;
 import com.example.wallpaper.model.Purity;
 import com.example.wallpaper.model.search.WallhavenCategory;
 import com.example.wallpaper.model.search.WallhavenFilters;
 import com.example.wallpaper.model.search.WallhavenRatio;
 import com.example.wallpaper.model.search.WallhavenSearch;
+import com.example.wallpaper.model.search.WallhavenSearchUtils;
 
 import android.util.Size;
 
-import org.jsoup.nodes.Document;
-
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
+import okhttp3.CacheControl;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 
 /**
@@ -36,6 +40,14 @@ public class NetworkWallhavenDataSource {
      * Search for wallpapers using WallhavenSearch parameters.
      */
     public Call<NetworkWallhavenWallpapersResponse> search(WallhavenSearch search, Integer page) {
+        return search(search, page, false, RequestPriority.USER);
+    }
+    
+    /**
+     * Search for wallpapers on the given rate-limit lane, optionally bypassing the HTTP cache.
+     */
+    public Call<NetworkWallhavenWallpapersResponse> search(WallhavenSearch search, Integer page,
+                                                           boolean forceRefresh, RequestPriority priority) {
         WallhavenFilters filters = search.getFilters();
         
         return networkWallhavenApi.search(
@@ -50,7 +62,32 @@ public class NetworkWallhavenDataSource {
                 colorToHexString(filters.getColors()),
                 ratiosToString(filters.getRatios()),
                 page,
-                filters.getSeed()
+                filters.getSeed(),
+                forceRefresh ? CacheControl.FORCE_NETWORK.toString() : null,
+                new RequestPriorityTag(priority)
+        );
+    }
+    
+    /**
+     * Search for wallpapers without decoding the body, so items can be read as they arrive.
+     */
+    public Call<ResponseBody> searchStreaming(WallhavenSearch search, Integer page) {
+        WallhavenFilters filters = search.getFilters();
+        
+        return networkWallhavenApi.searchStreaming(
+                search.getApiQueryString(),
+                toCategoryString(filters.getCategories()),
+                toPurityString(filters.getPurity()),
+                filters.getSorting().getValue(),
+                filters.getOrder().getValue(),
+                filters.getTopRange().getValue(),
+                sizeToString(filters.getAtleast()),
+                resolutionsToString(filters.getResolutions()),
+                colorToHexString(filters.getColors()),
+                ratiosToString(filters.getRatios()),
+                page,
+                filters.getSeed(),
+                new RequestPriorityTag(RequestPriority.USER)
         );
     }
     
@@ -58,14 +95,14 @@ public class NetworkWallhavenDataSource {
      * Get a specific wallpaper by ID.
      */
     public Call<NetworkWallhavenWallpaperResponse> wallpaper(String wallpaperWallhavenId) {
-        return networkWallhavenApi.wallpaper(wallpaperWallhavenId);
+        return networkWallhavenApi.wallpaper(wallpaperWallhavenId, new RequestPriorityTag(RequestPriority.USER));
     }
     
     /**
-     * Get popular tags document.
+     * Get popular tags parsed from the tags page.
      */
-    public Call<Document> popularTags() {
-        return networkWallhavenApi.popularTags();
+    public Call<List<NetworkWallhavenTag>> popularTags() {
+        return networkWallhavenApi.popularTags(new RequestPriorityTag(RequestPriority.USER));
     }
     
     // Utility methods for converting Java objects to API strings
@@ -97,15 +134,13 @@ public class NetworkWallhavenDataSource {
     }
     
     /**
-     * Converts set of resolutions to comma-separated string.
+     * Converts set of resolutions to a sorted comma-separated string.
      */
     private String resolutionsToString(Set<Size> resolutions) {
         if (resolutions == null || resolutions.isEmpty()) {
             return null;
         }
-        return resolutions.stream()
-                .map(this::sizeToString)
-                .collect(Collectors.joining(","));
+        return String.join(",", WallhavenSearchUtils.canonicalResolutions(resolutions));
     }
     
     /**
@@ -125,14 +160,12 @@ public class NetworkWallhavenDataSource {
     }
     
     /**
-     * Converts set of ratios to comma-separated string without spaces.
+     * Converts set of ratios to a sorted comma-separated string without spaces.
      */
     private String ratiosToString(Set<WallhavenRatio> ratios) {
         if (ratios == null || ratios.isEmpty()) {
             return null;
         }
-        return ratios.stream()
-                .map(ratio -> ratio.toRatioString().replace(" ", ""))
-                .collect(Collectors.joining(","));
+        return String.join(",", WallhavenSearchUtils.canonicalRatios(ratios));
     }
 }
@@ -0,0 +1,59 @@
+package com.example.wallpaper.data.network;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+import com.example.wallpaper.data.repository.util.WallhavenTagsDocumentParser;
+import com.example.wallpaper.data.repository.util.WallhavenTagsStreamParser;
+import com.squareup.moshi.Types;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import org.jsoup.Jsoup;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Converts the popular tags HTML page into tags on the OkHttp thread.
+ * The streaming parser reads a peek of the body, so when it gives up the untouched
+ * body is still available for the Jsoup fallback.
+ */
+public class PopularTagsConverterFactory extends Converter.Factory {
+
+    private static final Type TAG_LIST = Types.newParameterizedType(List.class, NetworkWallhavenTag.class);
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(
+            Type type,
+            Annotation[] annotations,
+            Retrofit retrofit
+    ) {
+        if (Types.equals(type, TAG_LIST)) {
+            return PopularTagsBodyConverter.INSTANCE;
+        }
+        return null;
+    }
+
+    static class PopularTagsBodyConverter implements Converter<ResponseBody, List<NetworkWallhavenTag>> {
+        static final PopularTagsBodyConverter INSTANCE = new PopularTagsBodyConverter();
+
+        @Override
+        public List<NetworkWallhavenTag> convert(ResponseBody value) throws IOException {
+            try {
+                BufferedSource source = value.source();
+                List<NetworkWallhavenTag> tags = WallhavenTagsStreamParser.parsePopularTags(source.peek());
+                if (tags != null) {
+                    return tags;
+                }
+                return WallhavenTagsDocumentParser.parsePopularTags(Jsoup.parse(value.string()));
+            } catch (RuntimeException e) {
+                throw new IOException("Error parsing popular tags: " + e.getMessage(), e);
+            } finally {
+                value.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.wallpaper.data.network;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenMeta;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.Moshi;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import okio.BufferedSource;
+
+/**
+ * Decodes a search response straight from the body, handing each wallpaper to the
+ * listener as soon as its object has been read instead of after the whole page.
+ */
+@Singleton
+public class StreamingWallpapersDecoder {
+
+    private static final JsonReader.Options RESPONSE_KEYS = JsonReader.Options.of("data", "meta");
+
+    private final JsonAdapter<NetworkWallhavenWallpaper> wallpaperAdapter;
+    private final JsonAdapter<NetworkWallhavenMeta> metaAdapter;
+
+    @Inject
+    public StreamingWallpapersDecoder(Moshi moshi) {
+        this.wallpaperAdapter = moshi.adapter(NetworkWallhavenWallpaper.class);
+        this.metaAdapter = moshi.adapter(NetworkWallhavenMeta.class);
+    }
+
+    /**
+     * Reads the whole response, calling the listener on the calling thread for every
+     * wallpaper in order. Returns the complete page once the body is consumed.
+     */
+    public NetworkWallhavenWallpapersResponse decode(BufferedSource source, ItemListener listener) throws IOException {
+        JsonReader reader = JsonReader.of(source);
+        List<NetworkWallhavenWallpaper> data = new ArrayList<>();
+        NetworkWallhavenMeta meta = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(RESPONSE_KEYS)) {
+                case 0:
+                    if (reader.peek() == JsonReader.Token.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        NetworkWallhavenWallpaper wallpaper = wallpaperAdapter.fromJson(reader);
+                        if (wallpaper != null) {
+                            data.add(wallpaper);
+                            listener.onItem(wallpaper);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                case 1:
+                    meta = metaAdapter.fromJson(reader);
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        return new NetworkWallhavenWallpapersResponse(data, meta);
+    }
+
+    public interface ItemListener {
+        void onItem(NetworkWallhavenWallpaper wallpaper);
+    }
+}
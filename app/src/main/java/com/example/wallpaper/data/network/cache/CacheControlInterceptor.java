@@ -0,0 +1,73 @@
+package com.example.wallpaper.data.network.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network interceptor that rewrites Cache-Control on Wallhaven responses so the
+ * on-disk HTTP cache can serve them. Each endpoint gets its own freshness window.
+ */
+public class CacheControlInterceptor implements Interceptor {
+
+    static final int SEARCH_MAX_AGE_SECONDS = (int) TimeUnit.MINUTES.toSeconds(5);
+    static final int WALLPAPER_MAX_AGE_SECONDS = (int) TimeUnit.DAYS.toSeconds(7);
+    static final int POPULAR_TAGS_MAX_AGE_SECONDS = (int) TimeUnit.DAYS.toSeconds(1);
+
+    @Inject
+    public CacheControlInterceptor() {
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!"GET".equals(request.method()) || !response.isSuccessful()) {
+            return response;
+        }
+
+        int maxAge = maxAgeFor(request.url());
+        if (maxAge <= 0) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", "public, max-age=" + maxAge)
+                .build();
+    }
+
+    /**
+     * Returns the freshness window for the given URL, or 0 if it should not be cached.
+     */
+    static int maxAgeFor(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        int size = segments.size();
+
+        // api/v1/search
+        if (size >= 1 && "search".equals(segments.get(size - 1))) {
+            return SEARCH_MAX_AGE_SECONDS;
+        }
+
+        // api/v1/w/{id}
+        if (size >= 2 && "w".equals(segments.get(size - 2))) {
+            return WALLPAPER_MAX_AGE_SECONDS;
+        }
+
+        // tags/popular
+        if (size >= 2 && "tags".equals(segments.get(size - 2)) && "popular".equals(segments.get(size - 1))) {
+            return POPULAR_TAGS_MAX_AGE_SECONDS;
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.wallpaper.data.network.cache;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import okhttp3.Cache;
+
+/**
+ * Read-only view over the OkHttp response cache counters, used to tune the
+ * per-endpoint freshness windows.
+ */
+@Singleton
+public class HttpCacheStats {
+
+    private static final String TAG = "HttpCacheStats";
+
+    private final Cache cache;
+
+    @Inject
+    public HttpCacheStats(Cache cache) {
+        this.cache = cache;
+    }
+
+    public int getRequestCount() {
+        return cache.requestCount();
+    }
+
+    public int getHitCount() {
+        return cache.hitCount();
+    }
+
+    public int getNetworkCount() {
+        return cache.networkCount();
+    }
+
+    public float getHitRate() {
+        int requests = cache.requestCount();
+        return requests == 0 ? 0f : (float) cache.hitCount() / requests;
+    }
+
+    public long getSize() {
+        try {
+            return cache.size();
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    public long getMaxSize() {
+        return cache.maxSize();
+    }
+
+    public void log() {
+        Log.d(TAG, toString());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "requests=%d hits=%d network=%d hitRate=%.2f size=%d/%d",
+                getRequestCount(), getHitCount(), getNetworkCount(), getHitRate(), getSize(), getMaxSize());
+    }
+}
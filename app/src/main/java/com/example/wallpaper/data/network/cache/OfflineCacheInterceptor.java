@@ -0,0 +1,81 @@
+package com.example.wallpaper.data.network.cache;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application interceptor that falls back to stale cache entries when the device
+ * is offline or the network request fails.
+ */
+public class OfflineCacheInterceptor implements Interceptor {
+
+    private static final int MAX_STALE_DAYS = 7;
+
+    private static final CacheControl FORCE_STALE_CACHE = new CacheControl.Builder()
+            .onlyIfCached()
+            .maxStale(MAX_STALE_DAYS, TimeUnit.DAYS)
+            .build();
+
+    private final ConnectivityManager connectivityManager;
+
+    @Inject
+    public OfflineCacheInterceptor(@ApplicationContext Context context) {
+        this.connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+
+        if (!isNetworkAvailable()) {
+            return chain.proceed(forceStaleCache(request));
+        }
+
+        try {
+            return chain.proceed(request);
+        } catch (IOException e) {
+            // The network is reachable but the call failed; a stale page beats an error
+            Response cached = chain.proceed(forceStaleCache(request));
+            if (cached.isSuccessful()) {
+                return cached;
+            }
+            cached.close();
+            throw e;
+        }
+    }
+
+    private Request forceStaleCache(Request request) {
+        return request.newBuilder()
+                .cacheControl(FORCE_STALE_CACHE)
+                .build();
+    }
+
+    private boolean isNetworkAvailable() {
+        if (connectivityManager == null) {
+            return true;
+        }
+        Network network = connectivityManager.getActiveNetwork();
+        if (network == null) {
+            return false;
+        }
+        NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(network);
+        return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+}
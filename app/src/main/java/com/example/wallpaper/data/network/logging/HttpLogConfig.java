@@ -0,0 +1,34 @@
+package com.example.wallpaper.data.network.logging;
+
+/**
+ * Settings for {@link SampledHttpLoggingInterceptor}, taken from the build type.
+ */
+public class HttpLogConfig {
+
+    private final boolean enabled;
+    private final int sampleEvery;
+    private final long maxBodyBytes;
+
+    /**
+     * @param enabled      whether HTTP traffic is logged at all
+     * @param sampleEvery  log one call out of this many, 1 logs every call
+     * @param maxBodyBytes bytes of a text body to log, 0 logs only the request and status lines
+     */
+    public HttpLogConfig(boolean enabled, int sampleEvery, long maxBodyBytes) {
+        this.enabled = enabled;
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.maxBodyBytes = Math.max(0L, maxBodyBytes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    public long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+}
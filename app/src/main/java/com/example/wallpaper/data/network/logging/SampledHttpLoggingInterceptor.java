@@ -0,0 +1,68 @@
+package com.example.wallpaper.data.network.logging;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Logs a sample of the calls with at most {@link HttpLogConfig#getMaxBodyBytes()}
+ * of their response body. Only that prefix is peeked, so the rest of the body still
+ * streams to the caller and large or binary responses cost nothing to log.
+ */
+public class SampledHttpLoggingInterceptor implements Interceptor {
+
+    private static final String TAG = "OkHttp";
+
+    private final HttpLogConfig config;
+    private final AtomicLong calls = new AtomicLong();
+
+    public SampledHttpLoggingInterceptor(HttpLogConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (calls.getAndIncrement() % config.getSampleEvery() != 0) {
+            return chain.proceed(request);
+        }
+
+        Log.d(TAG, "--> " + request.method() + " " + request.url());
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            Log.d(TAG, "<-- HTTP FAILED: " + e);
+            throw e;
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        String source = response.networkResponse() == null ? ", cache" : "";
+        Log.d(TAG, "<-- " + response.code() + " " + response.message() + " " + request.url()
+                + " (" + tookMs + "ms" + source + ")");
+
+        ResponseBody body = response.body();
+        if (config.getMaxBodyBytes() > 0 && body != null && isText(body.contentType())) {
+            long cap = config.getMaxBodyBytes();
+            ResponseBody prefix = response.peekBody(cap);
+            String suffix = prefix.contentLength() >= cap ? " [first " + cap + " bytes]" : "";
+            Log.d(TAG, prefix.string() + suffix);
+        }
+        return response;
+    }
+
+    private static boolean isText(MediaType contentType) {
+        if (contentType == null) return false;
+        String subtype = contentType.subtype();
+        return "text".equals(contentType.type()) || subtype.contains("json") || subtype.contains("xml");
+    }
+}
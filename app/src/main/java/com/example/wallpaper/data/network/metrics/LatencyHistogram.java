@@ -0,0 +1,106 @@
+package com.example.wallpaper.data.network.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-bucket latency histogram in milliseconds. Percentiles are reported as the
+ * upper bound of the bucket they fall in, which is precise enough to see where
+ * the time goes at a constant memory cost.
+ */
+public class LatencyHistogram {
+
+    // Upper bounds in milliseconds, the last bucket takes everything above
+    static final long[] BOUNDS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    private final long[] counts = new long[BOUNDS_MS.length + 1];
+    private long count;
+    private long sumMs;
+    private long maxMs;
+
+    public synchronized void record(long durationNanos) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(Math.max(0L, durationNanos));
+        counts[bucketOf(ms)]++;
+        count++;
+        sumMs += ms;
+        maxMs = Math.max(maxMs, ms);
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(counts.clone(), count, sumMs, maxMs);
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        count = 0;
+        sumMs = 0;
+        maxMs = 0;
+    }
+
+    private static int bucketOf(long ms) {
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            if (ms <= BOUNDS_MS[i]) return i;
+        }
+        return BOUNDS_MS.length;
+    }
+
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sumMs;
+        private final long maxMs;
+
+        Snapshot(long[] counts, long count, long sumMs, long maxMs) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMs = sumMs;
+            this.maxMs = maxMs;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMaxMs() {
+            return maxMs;
+        }
+
+        public long getMeanMs() {
+            return count == 0 ? 0 : sumMs / count;
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile, e.g. 0.9 for p90.
+         */
+        public long percentileMs(double percentile) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i < BOUNDS_MS.length ? Math.min(BOUNDS_MS[i], maxMs) : maxMs;
+                }
+            }
+            return maxMs;
+        }
+
+        /**
+         * Count of the bucket at the index, see {@link #bucketLabel}.
+         */
+        public long countInBucket(int index) {
+            return counts[index];
+        }
+
+        public static int bucketsSize() {
+            return BOUNDS_MS.length + 1;
+        }
+
+        public static String bucketLabel(int index) {
+            return index < BOUNDS_MS.length
+                    ? "<=" + BOUNDS_MS[index]
+                    : ">" + BOUNDS_MS[BOUNDS_MS.length - 1];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.wallpaper.data.network.metrics;
+
+import java.util.List;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Groups of requests that network timings are aggregated by.
+ */
+public enum NetworkEndpoint {
+    SEARCH("search"),
+    WALLPAPER("w/{id}"),
+    POPULAR_TAGS("tags/popular"),
+    IMAGE("images"),
+    OTHER("other");
+
+    private final String label;
+
+    NetworkEndpoint(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static NetworkEndpoint of(HttpUrl url) {
+        String host = url.host();
+        // Full images come from w.wallhaven.cc, thumbnails from th.wallhaven.cc
+        if (host.startsWith("w.") || host.startsWith("th.")) {
+            return IMAGE;
+        }
+
+        List<String> segments = url.pathSegments();
+        int size = segments.size();
+        // api/v1/search
+        if (size >= 1 && "search".equals(segments.get(size - 1))) {
+            return SEARCH;
+        }
+        // api/v1/w/{id}
+        if (size >= 2 && "w".equals(segments.get(size - 2))) {
+            return WALLPAPER;
+        }
+        // tags/popular
+        if (size >= 2 && "tags".equals(segments.get(size - 2)) && "popular".equals(segments.get(size - 1))) {
+            return POPULAR_TAGS;
+        }
+        return OTHER;
+    }
+}
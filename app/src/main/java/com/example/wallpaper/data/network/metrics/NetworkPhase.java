@@ -0,0 +1,25 @@
+package com.example.wallpaper.data.network.metrics;
+
+/**
+ * Stages of a call that are timed separately.
+ */
+public enum NetworkPhase {
+    DNS("dns"),
+    CONNECT("connect"),
+    TLS("tls"),
+    REQUEST("request"),
+    // From the request being sent to the response headers starting to arrive
+    TTFB("ttfb"),
+    BODY("body"),
+    TOTAL("total");
+
+    private final String label;
+
+    NetworkPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
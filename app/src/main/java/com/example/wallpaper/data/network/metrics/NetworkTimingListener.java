@@ -0,0 +1,151 @@
+package com.example.wallpaper.data.network.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+/**
+ * Times the phases of one call and records them in {@link NetworkTimings}.
+ * Phases that did not happen, e.g. DNS and connect on a pooled connection or
+ * everything after a cache hit, are not recorded.
+ */
+public class NetworkTimingListener extends EventListener {
+
+    // System.nanoTime() can be any value, so unset marks need their own sentinel
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final NetworkTimings timings;
+    private final NetworkEndpoint endpoint;
+
+    private long callStart = NOT_STARTED;
+    private long dnsStart = NOT_STARTED;
+    private long connectStart = NOT_STARTED;
+    private long secureConnectStart = NOT_STARTED;
+    private long requestStart = NOT_STARTED;
+    private long requestEnd = NOT_STARTED;
+    private long responseBodyStart = NOT_STARTED;
+
+    NetworkTimingListener(NetworkTimings timings, NetworkEndpoint endpoint) {
+        this.timings = timings;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+        record(NetworkPhase.DNS, dnsStart);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, Handshake handshake) {
+        record(NetworkPhase.TLS, secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                           @NonNull Proxy proxy, Protocol protocol) {
+        // Includes the TLS handshake
+        record(NetworkPhase.CONNECT, connectStart);
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        if (requestStart == NOT_STARTED) return;
+        timings.record(endpoint, NetworkPhase.REQUEST, requestEnd - requestStart);
+        record(NetworkPhase.TTFB, requestEnd);
+        // A follow-up request of the same call is timed on its own
+        requestStart = NOT_STARTED;
+    }
+
+    @Override
+    public void responseBodyStart(@NonNull Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        record(NetworkPhase.BODY, responseBodyStart);
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        record(NetworkPhase.TOTAL, callStart);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        timings.recordFailure(endpoint);
+    }
+
+    private void record(NetworkPhase phase, long start) {
+        if (start == NOT_STARTED) return;
+        timings.record(endpoint, phase, System.nanoTime() - start);
+    }
+
+    /**
+     * Creates a listener per call, classified by the URL it was created for.
+     */
+    @Singleton
+    public static class Factory implements EventListener.Factory {
+
+        private final NetworkTimings timings;
+
+        @Inject
+        public Factory(NetworkTimings timings) {
+            this.timings = timings;
+        }
+
+        @NonNull
+        @Override
+        public EventListener create(@NonNull Call call) {
+            return new NetworkTimingListener(timings, NetworkEndpoint.of(call.request().url()));
+        }
+    }
+}
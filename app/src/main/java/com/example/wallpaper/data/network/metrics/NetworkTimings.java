@@ -0,0 +1,135 @@
+package com.example.wallpaper.data.network.metrics;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * In-process latency histograms per endpoint and call phase, filled by
+ * {@link NetworkTimingListener}. Nothing is persisted; the numbers cover the
+ * current process only.
+ */
+@Singleton
+public class NetworkTimings {
+
+    private final Map<NetworkEndpoint, Map<NetworkPhase, LatencyHistogram>> histograms =
+            new EnumMap<>(NetworkEndpoint.class);
+    private final Map<NetworkEndpoint, AtomicLong> failures = new EnumMap<>(NetworkEndpoint.class);
+
+    @Inject
+    public NetworkTimings() {
+        // Filled up front so recording never has to change the maps
+        for (NetworkEndpoint endpoint : NetworkEndpoint.values()) {
+            Map<NetworkPhase, LatencyHistogram> phases = new EnumMap<>(NetworkPhase.class);
+            for (NetworkPhase phase : NetworkPhase.values()) {
+                phases.put(phase, new LatencyHistogram());
+            }
+            histograms.put(endpoint, phases);
+            failures.put(endpoint, new AtomicLong());
+        }
+    }
+
+    public void record(NetworkEndpoint endpoint, NetworkPhase phase, long durationNanos) {
+        histograms.get(endpoint).get(phase).record(durationNanos);
+    }
+
+    public void recordFailure(NetworkEndpoint endpoint) {
+        failures.get(endpoint).incrementAndGet();
+    }
+
+    public LatencyHistogram.Snapshot snapshot(NetworkEndpoint endpoint, NetworkPhase phase) {
+        return histograms.get(endpoint).get(phase).snapshot();
+    }
+
+    public void reset() {
+        for (NetworkEndpoint endpoint : NetworkEndpoint.values()) {
+            for (LatencyHistogram histogram : histograms.get(endpoint).values()) {
+                histogram.reset();
+            }
+            failures.get(endpoint).set(0);
+        }
+    }
+
+    /**
+     * All histograms as JSON, keyed by endpoint and then phase. Endpoints that saw
+     * no calls are left out.
+     */
+    public String toJson() {
+        try {
+            JSONObject root = new JSONObject();
+            for (NetworkEndpoint endpoint : NetworkEndpoint.values()) {
+                LatencyHistogram.Snapshot total = snapshot(endpoint, NetworkPhase.TOTAL);
+                long failed = failures.get(endpoint).get();
+                if (total.getCount() == 0 && failed == 0) continue;
+
+                JSONObject phases = new JSONObject();
+                for (NetworkPhase phase : NetworkPhase.values()) {
+                    LatencyHistogram.Snapshot snapshot = snapshot(endpoint, phase);
+                    if (snapshot.getCount() > 0) {
+                        phases.put(phase.getLabel(), toJson(snapshot));
+                    }
+                }
+
+                JSONObject json = new JSONObject();
+                json.put("calls", total.getCount());
+                json.put("failures", failed);
+                json.put("phases", phases);
+                root.put(endpoint.getLabel(), json);
+            }
+            return root.toString(2);
+        } catch (JSONException e) {
+            return "{}";
+        }
+    }
+
+    private static JSONObject toJson(LatencyHistogram.Snapshot snapshot) throws JSONException {
+        JSONObject buckets = new JSONObject();
+        for (int i = 0; i < LatencyHistogram.Snapshot.bucketsSize(); i++) {
+            long count = snapshot.countInBucket(i);
+            if (count > 0) {
+                buckets.put(LatencyHistogram.Snapshot.bucketLabel(i), count);
+            }
+        }
+
+        JSONObject json = new JSONObject();
+        json.put("count", snapshot.getCount());
+        json.put("mean_ms", snapshot.getMeanMs());
+        json.put("p50_ms", snapshot.percentileMs(0.5));
+        json.put("p90_ms", snapshot.percentileMs(0.9));
+        json.put("p99_ms", snapshot.percentileMs(0.99));
+        json.put("max_ms", snapshot.getMaxMs());
+        json.put("buckets", buckets);
+        return json;
+    }
+
+    /**
+     * Short human-readable summary: p50/p90 per phase for every endpoint with calls.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (NetworkEndpoint endpoint : NetworkEndpoint.values()) {
+            LatencyHistogram.Snapshot total = snapshot(endpoint, NetworkPhase.TOTAL);
+            long failed = failures.get(endpoint).get();
+            if (total.getCount() == 0 && failed == 0) continue;
+
+            builder.append(String.format(Locale.US, "%s: %d calls, %d failed%n",
+                    endpoint.getLabel(), total.getCount(), failed));
+            for (NetworkPhase phase : NetworkPhase.values()) {
+                LatencyHistogram.Snapshot snapshot = snapshot(endpoint, phase);
+                if (snapshot.getCount() == 0) continue;
+                builder.append(String.format(Locale.US, "  %-8s p50=%dms p90=%dms max=%dms (n=%d)%n",
+                        phase.getLabel(), snapshot.percentileMs(0.5), snapshot.percentileMs(0.9),
+                        snapshot.getMaxMs(), snapshot.getCount()));
+            }
+        }
+        return builder.length() == 0 ? "No calls recorded" : builder.toString().trim();
+    }
+}
@@ -9,9 +9,9 @@ import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 public class InstantJsonAdapter {
-    private static final DateTimeFormatter WALLHAVEN_FORMATTER = 
+    private static final DateTimeFormatter WALLHAVEN_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    
+
     @ToJson
     public String toJson(Instant value) {
         return value.toString();
@@ -19,6 +19,10 @@ public class InstantJsonAdapter {
 
     @FromJson
     public Instant fromJson(String json) {
+        // ISO-8601 as written by toJson, e.g. responses stored in Room
+        if (json.endsWith("Z")) {
+            return Instant.parse(json);
+        }
         try {
             // Parse the Wallhaven format "2025-06-08 12:50:35" as UTC
             LocalDateTime localDateTime = LocalDateTime.parse(json, WALLHAVEN_FORMATTER);
@@ -0,0 +1,53 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenMeta;
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+import com.example.wallpaper.data.network.model.NetworkWallhavenThumbs;
+import com.example.wallpaper.data.network.model.NetworkWallhavenUploader;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaperResponse;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Provides hand-written adapters for the Wallhaven network models so Moshi never falls
+ * back to its reflective ClassJsonAdapter. Moshi codegen only supports Kotlin classes,
+ * so these follow the shape of its generated adapters instead.
+ * Instant and NetworkWallhavenMetaQuery fields still go through InstantJsonAdapter and
+ * NetworkWallhavenMetaQuerySerializer.
+ */
+public final class NetworkWallhavenJsonAdapterFactory implements JsonAdapter.Factory {
+
+    @Override
+    public JsonAdapter<?> create(Type type, Set<? extends Annotation> annotations, Moshi moshi) {
+        if (!annotations.isEmpty()) return null;
+
+        if (type == NetworkWallhavenWallpapersResponse.class) {
+            return new NetworkWallhavenWallpapersResponseJsonAdapter(moshi).nullSafe();
+        }
+        if (type == NetworkWallhavenWallpaperResponse.class) {
+            return new NetworkWallhavenWallpaperResponseJsonAdapter(moshi).nullSafe();
+        }
+        if (type == NetworkWallhavenWallpaper.class) {
+            return new NetworkWallhavenWallpaperJsonAdapter(moshi).nullSafe();
+        }
+        if (type == NetworkWallhavenMeta.class) {
+            return new NetworkWallhavenMetaJsonAdapter(moshi).nullSafe();
+        }
+        if (type == NetworkWallhavenTag.class) {
+            return new NetworkWallhavenTagJsonAdapter(moshi).nullSafe();
+        }
+        if (type == NetworkWallhavenThumbs.class) {
+            return new NetworkWallhavenThumbsJsonAdapter(moshi).nullSafe();
+        }
+        if (type == NetworkWallhavenUploader.class) {
+            return new NetworkWallhavenUploaderJsonAdapter(moshi).nullSafe();
+        }
+        return null;
+    }
+}
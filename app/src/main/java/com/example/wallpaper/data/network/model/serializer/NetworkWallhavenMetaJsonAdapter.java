@@ -0,0 +1,79 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenMeta;
+import com.example.wallpaper.data.network.model.NetworkWallhavenMetaQuery;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+
+import java.io.IOException;
+
+final class NetworkWallhavenMetaJsonAdapter extends JsonAdapter<NetworkWallhavenMeta> {
+
+    private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+            "current_page", "last_page", "per_page", "total", "query", "seed");
+
+    private final JsonAdapter<String> stringAdapter;
+    // Delegates to NetworkWallhavenMetaQuerySerializer
+    private final JsonAdapter<NetworkWallhavenMetaQuery> queryAdapter;
+
+    NetworkWallhavenMetaJsonAdapter(Moshi moshi) {
+        this.stringAdapter = moshi.adapter(String.class);
+        this.queryAdapter = moshi.adapter(NetworkWallhavenMetaQuery.class);
+    }
+
+    @Override
+    public NetworkWallhavenMeta fromJson(JsonReader reader) throws IOException {
+        NetworkWallhavenMeta meta = new NetworkWallhavenMeta();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(OPTIONS)) {
+                case 0:
+                    meta.setCurrentPage(reader.nextInt());
+                    break;
+                case 1:
+                    meta.setLastPage(reader.nextInt());
+                    break;
+                case 2:
+                    // Wallhaven sends per_page as a string, nextInt accepts both
+                    meta.setPerPage(reader.nextInt());
+                    break;
+                case 3:
+                    meta.setTotal(reader.nextInt());
+                    break;
+                case 4:
+                    meta.setQuery(queryAdapter.fromJson(reader));
+                    break;
+                case 5:
+                    meta.setSeed(stringAdapter.fromJson(reader));
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return meta;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, NetworkWallhavenMeta value) throws IOException {
+        writer.beginObject();
+        writer.name("current_page").value(value.getCurrentPage());
+        writer.name("last_page").value(value.getLastPage());
+        writer.name("per_page").value(value.getPerPage());
+        writer.name("total").value(value.getTotal());
+        writer.name("query");
+        queryAdapter.toJson(writer, value.getQuery());
+        writer.name("seed");
+        stringAdapter.toJson(writer, value.getSeed());
+        writer.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdapter(NetworkWallhavenMeta)";
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+
+import java.io.IOException;
+import java.time.Instant;
+
+final class NetworkWallhavenTagJsonAdapter extends JsonAdapter<NetworkWallhavenTag> {
+
+    private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+            "id", "name", "alias", "category_id", "category", "purity", "created_at");
+
+    private final JsonAdapter<String> stringAdapter;
+    private final JsonAdapter<Instant> instantAdapter;
+
+    NetworkWallhavenTagJsonAdapter(Moshi moshi) {
+        this.stringAdapter = moshi.adapter(String.class);
+        this.instantAdapter = moshi.adapter(Instant.class);
+    }
+
+    @Override
+    public NetworkWallhavenTag fromJson(JsonReader reader) throws IOException {
+        NetworkWallhavenTag tag = new NetworkWallhavenTag();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(OPTIONS)) {
+                case 0:
+                    tag.setId(reader.nextLong());
+                    break;
+                case 1:
+                    tag.setName(stringAdapter.fromJson(reader));
+                    break;
+                case 2:
+                    tag.setAlias(stringAdapter.fromJson(reader));
+                    break;
+                case 3:
+                    tag.setCategoryId(reader.nextLong());
+                    break;
+                case 4:
+                    tag.setCategory(stringAdapter.fromJson(reader));
+                    break;
+                case 5:
+                    tag.setPurity(stringAdapter.fromJson(reader));
+                    break;
+                case 6:
+                    tag.setCreatedAt(instantAdapter.fromJson(reader));
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return tag;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, NetworkWallhavenTag value) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(value.getId());
+        writer.name("name");
+        stringAdapter.toJson(writer, value.getName());
+        writer.name("alias");
+        stringAdapter.toJson(writer, value.getAlias());
+        writer.name("category_id").value(value.getCategoryId());
+        writer.name("category");
+        stringAdapter.toJson(writer, value.getCategory());
+        writer.name("purity");
+        stringAdapter.toJson(writer, value.getPurity());
+        writer.name("created_at");
+        instantAdapter.toJson(writer, value.getCreatedAt());
+        writer.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdapter(NetworkWallhavenTag)";
+    }
+}
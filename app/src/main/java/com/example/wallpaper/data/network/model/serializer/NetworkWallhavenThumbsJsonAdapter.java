@@ -0,0 +1,62 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenThumbs;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+
+import java.io.IOException;
+
+final class NetworkWallhavenThumbsJsonAdapter extends JsonAdapter<NetworkWallhavenThumbs> {
+
+    private static final JsonReader.Options OPTIONS = JsonReader.Options.of("large", "original", "small");
+
+    private final JsonAdapter<String> stringAdapter;
+
+    NetworkWallhavenThumbsJsonAdapter(Moshi moshi) {
+        this.stringAdapter = moshi.adapter(String.class);
+    }
+
+    @Override
+    public NetworkWallhavenThumbs fromJson(JsonReader reader) throws IOException {
+        NetworkWallhavenThumbs thumbs = new NetworkWallhavenThumbs();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(OPTIONS)) {
+                case 0:
+                    thumbs.setLarge(stringAdapter.fromJson(reader));
+                    break;
+                case 1:
+                    thumbs.setOriginal(stringAdapter.fromJson(reader));
+                    break;
+                case 2:
+                    thumbs.setSmall(stringAdapter.fromJson(reader));
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return thumbs;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, NetworkWallhavenThumbs value) throws IOException {
+        writer.beginObject();
+        writer.name("large");
+        stringAdapter.toJson(writer, value.getLarge());
+        writer.name("original");
+        stringAdapter.toJson(writer, value.getOriginal());
+        writer.name("small");
+        stringAdapter.toJson(writer, value.getSmall());
+        writer.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdapter(NetworkWallhavenThumbs)";
+    }
+}
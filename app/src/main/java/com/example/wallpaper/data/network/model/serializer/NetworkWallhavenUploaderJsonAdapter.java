@@ -0,0 +1,66 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenUploader;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+
+import java.io.IOException;
+import java.util.Map;
+
+final class NetworkWallhavenUploaderJsonAdapter extends JsonAdapter<NetworkWallhavenUploader> {
+
+    private static final JsonReader.Options OPTIONS = JsonReader.Options.of("username", "group", "avatar");
+
+    private final JsonAdapter<String> stringAdapter;
+    private final JsonAdapter<Map<String, String>> avatarAdapter;
+
+    NetworkWallhavenUploaderJsonAdapter(Moshi moshi) {
+        this.stringAdapter = moshi.adapter(String.class);
+        this.avatarAdapter = moshi.adapter(Types.newParameterizedType(Map.class, String.class, String.class));
+    }
+
+    @Override
+    public NetworkWallhavenUploader fromJson(JsonReader reader) throws IOException {
+        NetworkWallhavenUploader uploader = new NetworkWallhavenUploader();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(OPTIONS)) {
+                case 0:
+                    uploader.setUsername(stringAdapter.fromJson(reader));
+                    break;
+                case 1:
+                    uploader.setGroup(stringAdapter.fromJson(reader));
+                    break;
+                case 2:
+                    uploader.setAvatar(avatarAdapter.fromJson(reader));
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return uploader;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, NetworkWallhavenUploader value) throws IOException {
+        writer.beginObject();
+        writer.name("username");
+        stringAdapter.toJson(writer, value.getUsername());
+        writer.name("group");
+        stringAdapter.toJson(writer, value.getGroup());
+        writer.name("avatar");
+        avatarAdapter.toJson(writer, value.getAvatar());
+        writer.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdapter(NetworkWallhavenUploader)";
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+import com.example.wallpaper.data.network.model.NetworkWallhavenThumbs;
+import com.example.wallpaper.data.network.model.NetworkWallhavenUploader;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+final class NetworkWallhavenWallpaperJsonAdapter extends JsonAdapter<NetworkWallhavenWallpaper> {
+
+    private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+            "id", "url", "short_url", "uploader", "views", "favorites", "source", "purity",
+            "category", "dimension_x", "dimension_y", "resolution", "ratio", "file_size",
+            "file_type", "created_at", "colors", "path", "thumbs", "tags");
+
+    private final JsonAdapter<String> stringAdapter;
+    private final JsonAdapter<Instant> instantAdapter;
+    private final JsonAdapter<List<String>> stringListAdapter;
+    private final JsonAdapter<NetworkWallhavenUploader> uploaderAdapter;
+    private final JsonAdapter<NetworkWallhavenThumbs> thumbsAdapter;
+    private final JsonAdapter<List<NetworkWallhavenTag>> tagListAdapter;
+
+    NetworkWallhavenWallpaperJsonAdapter(Moshi moshi) {
+        this.stringAdapter = moshi.adapter(String.class);
+        this.instantAdapter = moshi.adapter(Instant.class);
+        this.stringListAdapter = moshi.adapter(Types.newParameterizedType(List.class, String.class));
+        this.uploaderAdapter = moshi.adapter(NetworkWallhavenUploader.class);
+        this.thumbsAdapter = moshi.adapter(NetworkWallhavenThumbs.class);
+        this.tagListAdapter = moshi.adapter(Types.newParameterizedType(List.class, NetworkWallhavenTag.class));
+    }
+
+    @Override
+    public NetworkWallhavenWallpaper fromJson(JsonReader reader) throws IOException {
+        NetworkWallhavenWallpaper wallpaper = new NetworkWallhavenWallpaper();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(OPTIONS)) {
+                case 0:
+                    wallpaper.setId(stringAdapter.fromJson(reader));
+                    break;
+                case 1:
+                    wallpaper.setUrl(stringAdapter.fromJson(reader));
+                    break;
+                case 2:
+                    wallpaper.setShortUrl(stringAdapter.fromJson(reader));
+                    break;
+                case 3:
+                    wallpaper.setUploader(uploaderAdapter.fromJson(reader));
+                    break;
+                case 4:
+                    wallpaper.setViews(reader.nextInt());
+                    break;
+                case 5:
+                    wallpaper.setFavorites(reader.nextInt());
+                    break;
+                case 6:
+                    wallpaper.setSource(stringAdapter.fromJson(reader));
+                    break;
+                case 7:
+                    wallpaper.setPurity(stringAdapter.fromJson(reader));
+                    break;
+                case 8:
+                    wallpaper.setCategory(stringAdapter.fromJson(reader));
+                    break;
+                case 9:
+                    wallpaper.setDimensionX(reader.nextInt());
+                    break;
+                case 10:
+                    wallpaper.setDimensionY(reader.nextInt());
+                    break;
+                case 11:
+                    wallpaper.setResolution(stringAdapter.fromJson(reader));
+                    break;
+                case 12:
+                    // Wallhaven sends the ratio as a string, nextDouble accepts both
+                    wallpaper.setRatio((float) reader.nextDouble());
+                    break;
+                case 13:
+                    wallpaper.setFileSize(reader.nextLong());
+                    break;
+                case 14:
+                    wallpaper.setFileType(stringAdapter.fromJson(reader));
+                    break;
+                case 15:
+                    wallpaper.setCreatedAt(instantAdapter.fromJson(reader));
+                    break;
+                case 16:
+                    wallpaper.setColors(stringListAdapter.fromJson(reader));
+                    break;
+                case 17:
+                    wallpaper.setPath(stringAdapter.fromJson(reader));
+                    break;
+                case 18:
+                    wallpaper.setThumbs(thumbsAdapter.fromJson(reader));
+                    break;
+                case 19:
+                    wallpaper.setTags(tagListAdapter.fromJson(reader));
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return wallpaper;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, NetworkWallhavenWallpaper value) throws IOException {
+        writer.beginObject();
+        writer.name("id");
+        stringAdapter.toJson(writer, value.getId());
+        writer.name("url");
+        stringAdapter.toJson(writer, value.getUrl());
+        writer.name("short_url");
+        stringAdapter.toJson(writer, value.getShortUrl());
+        writer.name("uploader");
+        uploaderAdapter.toJson(writer, value.getUploader());
+        writer.name("views").value(value.getViews());
+        writer.name("favorites").value(value.getFavorites());
+        writer.name("source");
+        // getSource() is the favorites source, the field is exposed as getSourceUrl()
+        stringAdapter.toJson(writer, value.getSourceUrl());
+        writer.name("purity");
+        stringAdapter.toJson(writer, value.getPurity());
+        writer.name("category");
+        stringAdapter.toJson(writer, value.getCategory());
+        writer.name("dimension_x").value(value.getDimensionX());
+        writer.name("dimension_y").value(value.getDimensionY());
+        writer.name("resolution");
+        stringAdapter.toJson(writer, value.getResolution());
+        writer.name("ratio").value(value.getRatio());
+        writer.name("file_size").value(value.getFileSize());
+        writer.name("file_type");
+        stringAdapter.toJson(writer, value.getFileType());
+        writer.name("created_at");
+        instantAdapter.toJson(writer, value.getCreatedAt());
+        writer.name("colors");
+        stringListAdapter.toJson(writer, value.getColors());
+        writer.name("path");
+        stringAdapter.toJson(writer, value.getPath());
+        writer.name("thumbs");
+        thumbsAdapter.toJson(writer, value.getThumbs());
+        writer.name("tags");
+        tagListAdapter.toJson(writer, value.getTags());
+        writer.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdapter(NetworkWallhavenWallpaper)";
+    }
+}
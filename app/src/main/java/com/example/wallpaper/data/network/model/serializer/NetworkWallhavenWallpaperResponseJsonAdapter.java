@@ -0,0 +1,50 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaperResponse;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+
+import java.io.IOException;
+
+final class NetworkWallhavenWallpaperResponseJsonAdapter extends JsonAdapter<NetworkWallhavenWallpaperResponse> {
+
+    private static final JsonReader.Options OPTIONS = JsonReader.Options.of("data");
+
+    private final JsonAdapter<NetworkWallhavenWallpaper> dataAdapter;
+
+    NetworkWallhavenWallpaperResponseJsonAdapter(Moshi moshi) {
+        this.dataAdapter = moshi.adapter(NetworkWallhavenWallpaper.class);
+    }
+
+    @Override
+    public NetworkWallhavenWallpaperResponse fromJson(JsonReader reader) throws IOException {
+        NetworkWallhavenWallpaperResponse response = new NetworkWallhavenWallpaperResponse();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.selectName(OPTIONS) == 0) {
+                response.setData(dataAdapter.fromJson(reader));
+            } else {
+                reader.skipName();
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, NetworkWallhavenWallpaperResponse value) throws IOException {
+        writer.beginObject();
+        writer.name("data");
+        dataAdapter.toJson(writer, value.getData());
+        writer.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdapter(NetworkWallhavenWallpaperResponse)";
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenMeta;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+
+import java.io.IOException;
+import java.util.List;
+
+final class NetworkWallhavenWallpapersResponseJsonAdapter extends JsonAdapter<NetworkWallhavenWallpapersResponse> {
+
+    private static final JsonReader.Options OPTIONS = JsonReader.Options.of("data", "meta");
+
+    private final JsonAdapter<List<NetworkWallhavenWallpaper>> dataAdapter;
+    private final JsonAdapter<NetworkWallhavenMeta> metaAdapter;
+
+    NetworkWallhavenWallpapersResponseJsonAdapter(Moshi moshi) {
+        this.dataAdapter = moshi.adapter(Types.newParameterizedType(List.class, NetworkWallhavenWallpaper.class));
+        this.metaAdapter = moshi.adapter(NetworkWallhavenMeta.class);
+    }
+
+    @Override
+    public NetworkWallhavenWallpapersResponse fromJson(JsonReader reader) throws IOException {
+        NetworkWallhavenWallpapersResponse response = new NetworkWallhavenWallpapersResponse();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(OPTIONS)) {
+                case 0:
+                    response.setData(dataAdapter.fromJson(reader));
+                    break;
+                case 1:
+                    response.setMeta(metaAdapter.fromJson(reader));
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, NetworkWallhavenWallpapersResponse value) throws IOException {
+        writer.beginObject();
+        writer.name("data");
+        dataAdapter.toJson(writer, value.getData());
+        writer.name("meta");
+        metaAdapter.toJson(writer, value.getMeta());
+        writer.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdapter(NetworkWallhavenWallpapersResponse)";
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.wallpaper.data.network.progress;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Reports the download progress of responses whose URL has a registered
+ * {@link ProgressListener}. Other responses pass through untouched.
+ * Listeners are keyed by the URL of the original request, so redirects still
+ * report to the listener of the URL that was asked for.
+ */
+@Singleton
+public class ProgressInterceptor implements Interceptor {
+
+    private final Map<String, ProgressListener> listeners = new ConcurrentHashMap<>();
+
+    @Inject
+    public ProgressInterceptor() {
+    }
+
+    public void register(String url, ProgressListener listener) {
+        listeners.put(key(url), listener);
+    }
+
+    /**
+     * Removes the listener only if it is still the one registered for the URL, a
+     * second screen may have registered its own for the same URL since.
+     */
+    public void unregister(String url, ProgressListener listener) {
+        listeners.remove(key(url), listener);
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        ProgressListener listener = listeners.get(chain.request().url().toString());
+        if (listener == null || response.body() == null) return response;
+
+        return response.newBuilder()
+                .body(new ProgressResponseBody(response.body(), listener))
+                .build();
+    }
+
+    // OkHttp normalizes URLs, so registered ones are normalized the same way
+    private static String key(String url) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        return httpUrl != null ? httpUrl.toString() : url;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.wallpaper.data.network.progress;
+
+/**
+ * Receives the download progress of a response body. Called on the OkHttp thread
+ * reading the body.
+ */
+public interface ProgressListener {
+    /**
+     * @param bytesRead     bytes of the body read so far
+     * @param contentLength length of the body, or -1 if the server did not say
+     * @param done          whether the whole body has been read
+     */
+    void onProgress(long bytesRead, long contentLength, boolean done);
+}
@@ -0,0 +1,71 @@
+package com.example.wallpaper.data.network.progress;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Passes a response body through while counting the bytes read from it.
+ */
+class ProgressResponseBody extends ResponseBody {
+
+    // Report at most once per percent, or per 64 KiB without a length, so a fast
+    // download does not flood the listener
+    private static final int STEPS = 100;
+    private static final long UNKNOWN_LENGTH_STEP_BYTES = 64 * 1024;
+
+    private final ResponseBody body;
+    private final ProgressListener listener;
+    private BufferedSource source;
+
+    ProgressResponseBody(ResponseBody body, ProgressListener listener) {
+        this.body = body;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return body.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+        return body.contentLength();
+    }
+
+    @NonNull
+    @Override
+    public BufferedSource source() {
+        if (source == null) {
+            source = Okio.buffer(new ForwardingSource(body.source()) {
+                private long bytesRead;
+                private long lastStep = -1;
+
+                @Override
+                public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    long contentLength = body.contentLength();
+                    boolean done = read == -1;
+                    if (!done) bytesRead += read;
+
+                    long step = contentLength > 0
+                            ? bytesRead * STEPS / contentLength
+                            : bytesRead / UNKNOWN_LENGTH_STEP_BYTES;
+                    if (done || step != lastStep) {
+                        lastStep = step;
+                        listener.onProgress(bytesRead, contentLength, done);
+                    }
+                    return read;
+                }
+            });
+        }
+        return source;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.wallpaper.data.network.ratelimit;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network interceptor that spends a rate-limit token for every API request that
+ * actually reaches Wallhaven (cache hits never get here) and pauses the
+ * scheduler when the server answers 429. Only /api/v1/ is limited; pages like
+ * the scraped popular tags are outside the API budget and go straight through.
+ */
+public class RateLimitInterceptor implements Interceptor {
+
+    static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final long DEFAULT_RETRY_AFTER_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final RateLimitScheduler scheduler;
+
+    @Inject
+    public RateLimitInterceptor(RateLimitScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isApiCall(request.url())) {
+            return chain.proceed(request);
+        }
+
+        RequestPriorityTag tag = request.tag(RequestPriorityTag.class);
+        if (tag == null) {
+            tag = new RequestPriorityTag(RequestPriority.USER);
+        }
+
+        scheduler.acquire(tag, chain.call());
+        Response response = chain.proceed(request);
+
+        if (response.code() == HTTP_TOO_MANY_REQUESTS) {
+            scheduler.pause(retryAfterMillis(response));
+        }
+        return response;
+    }
+
+    // api/v1/...
+    static boolean isApiCall(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        return segments.size() >= 2 && "api".equals(segments.get(0)) && "v1".equals(segments.get(1));
+    }
+
+    /**
+     * Reads Retry-After as delta-seconds or an HTTP date.
+     */
+    static long retryAfterMillis(Response response) {
+        String value = response.header("Retry-After");
+        if (value == null) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            if (date == null) {
+                return DEFAULT_RETRY_AFTER_MS;
+            }
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+    }
+}
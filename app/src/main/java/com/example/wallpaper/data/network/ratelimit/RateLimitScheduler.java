@@ -0,0 +1,132 @@
+package com.example.wallpaper.data.network.ratelimit;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import okhttp3.Call;
+
+/**
+ * Token bucket shared by every Wallhaven API call.
+ * Wallhaven throttles at about 45 requests per minute, so the bucket holds
+ * {@value #BUCKET_CAPACITY} tokens and refills the rest of the minute's budget.
+ * User requests may spend any token; prefetch and background requests only run
+ * when no higher lane is waiting and a reserve is left for the user.
+ */
+@Singleton
+public class RateLimitScheduler {
+
+    private static final int REQUESTS_PER_MINUTE = 45;
+    private static final int BUCKET_CAPACITY = 8;
+    private static final double REFILL_PER_NANO =
+            (REQUESTS_PER_MINUTE - BUCKET_CAPACITY) / (double) TimeUnit.MINUTES.toNanos(1);
+
+    // Tokens kept back for the user lane
+    private static final int USER_RESERVE = 3;
+
+    // Deferred lanes hold a dispatcher slot while waiting, so cap them
+    private static final int MAX_DEFERRED_WAITERS = 2;
+    private static final long MAX_DEFERRED_WAIT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long MAX_WAIT_SLICE_MS = 250;
+
+    private final int[] waiting = new int[RequestPriority.values().length];
+    private double tokens = BUCKET_CAPACITY;
+    private long lastRefillNanos = System.nanoTime();
+    private long pausedUntilNanos = lastRefillNanos;
+
+    @Inject
+    public RateLimitScheduler() {
+    }
+
+    /**
+     * Blocks until the call may go out on its lane.
+     *
+     * @throws IOException if the call is canceled, or a deferred call cannot get a
+     *                     token in time
+     */
+    public synchronized void acquire(RequestPriorityTag tag, Call call) throws IOException {
+        RequestPriority lane = tag.getPriority();
+        if (lane != RequestPriority.USER && deferredWaiters() >= MAX_DEFERRED_WAITERS) {
+            throw new IOException("Rate limit budget busy, dropping " + lane + " request");
+        }
+
+        long deadline = System.nanoTime() + MAX_DEFERRED_WAIT_NANOS;
+        waiting[lane.ordinal()]++;
+        try {
+            while (true) {
+                if (call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+
+                // A user request may have joined this call since it was queued
+                RequestPriority current = tag.getPriority();
+                if (current != lane) {
+                    waiting[lane.ordinal()]--;
+                    lane = current;
+                    waiting[lane.ordinal()]++;
+                }
+
+                long now = System.nanoTime();
+                refill(now);
+                if (now >= pausedUntilNanos && canTake(lane)) {
+                    tokens -= 1;
+                    return;
+                }
+
+                if (lane != RequestPriority.USER && now >= deadline) {
+                    throw new IOException("Rate limit budget exhausted, dropping " + lane + " request");
+                }
+
+                wait(Math.max(1, Math.min(MAX_WAIT_SLICE_MS, millisUntilNextToken(now))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rate limit");
+        } finally {
+            waiting[lane.ordinal()]--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Stops all lanes for the given time and empties the bucket, used on HTTP 429.
+     */
+    public synchronized void pause(long millis) {
+        long now = System.nanoTime();
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + TimeUnit.MILLISECONDS.toNanos(millis));
+        tokens = 0;
+        lastRefillNanos = pausedUntilNanos;
+        notifyAll();
+    }
+
+    private boolean canTake(RequestPriority lane) {
+        for (RequestPriority higher : RequestPriority.values()) {
+            if (higher.isHigherThan(lane) && waiting[higher.ordinal()] > 0) {
+                return false;
+            }
+        }
+        int reserve = lane == RequestPriority.USER ? 0 : USER_RESERVE;
+        return tokens >= 1 + reserve;
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefillNanos) return;
+        tokens = Math.min(BUCKET_CAPACITY, tokens + (now - lastRefillNanos) * REFILL_PER_NANO);
+        lastRefillNanos = now;
+    }
+
+    private long millisUntilNextToken(long now) {
+        if (now < pausedUntilNanos) {
+            return TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - now);
+        }
+        double missing = Math.max(0, 1 - (tokens - Math.floor(tokens)));
+        return TimeUnit.NANOSECONDS.toMillis((long) (missing / REFILL_PER_NANO));
+    }
+
+    private int deferredWaiters() {
+        return waiting[RequestPriority.PREFETCH.ordinal()] + waiting[RequestPriority.BACKGROUND.ordinal()];
+    }
+}
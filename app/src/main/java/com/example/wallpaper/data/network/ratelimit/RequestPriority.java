@@ -0,0 +1,14 @@
+package com.example.wallpaper.data.network.ratelimit;
+
+/**
+ * Scheduling lanes for Wallhaven API requests, highest priority first.
+ */
+public enum RequestPriority {
+    USER,
+    PREFETCH,
+    BACKGROUND;
+
+    public boolean isHigherThan(RequestPriority other) {
+        return ordinal() < other.ordinal();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.wallpaper.data.network.ratelimit;
+
+/**
+ * OkHttp request tag carrying the scheduling lane of a call.
+ * The lane can only be raised, e.g. when a user request joins an in-flight prefetch.
+ */
+public class RequestPriorityTag {
+
+    private volatile RequestPriority priority;
+
+    public RequestPriorityTag(RequestPriority priority) {
+        this.priority = priority;
+    }
+
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    public synchronized void promote(RequestPriority priority) {
+        if (priority.isHigherThan(this.priority)) {
+            this.priority = priority;
+        }
+    }
+}
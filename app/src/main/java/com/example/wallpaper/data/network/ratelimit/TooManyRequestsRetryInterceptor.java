@@ -0,0 +1,50 @@
+package com.example.wallpaper.data.network.ratelimit;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application interceptor that retries user-lane requests after a 429 once the
+ * scheduler's Retry-After pause is over. Deferred lanes give up instead so they
+ * never compete with the retry.
+ */
+public class TooManyRequestsRetryInterceptor implements Interceptor {
+
+    private static final int MAX_RETRIES = 2;
+    private static final long MAX_RETRY_AFTER_MS = TimeUnit.SECONDS.toMillis(20);
+
+    @Inject
+    public TooManyRequestsRetryInterceptor() {
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        int attempt = 0;
+        while (response.code() == RateLimitInterceptor.HTTP_TOO_MANY_REQUESTS
+                && attempt < MAX_RETRIES
+                // Only the API has a pause to wait out, anything else would go again at once
+                && RateLimitInterceptor.isApiCall(request.url())
+                && isUserRequest(request)
+                && RateLimitInterceptor.retryAfterMillis(response) <= MAX_RETRY_AFTER_MS) {
+            attempt++;
+            response.close();
+            // The network interceptor waits out the pause before this goes out
+            response = chain.proceed(request);
+        }
+        return response;
+    }
+
+    private boolean isUserRequest(Request request) {
+        RequestPriorityTag tag = request.tag(RequestPriorityTag.class);
+        return tag == null || tag.getPriority() == RequestPriority.USER;
+    }
+}
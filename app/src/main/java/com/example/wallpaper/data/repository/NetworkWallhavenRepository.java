@@ -1,45 +1,170 @@
 package com.example.wallpaper.data.repository;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import com.example.wallpaper.data.network.NetworkWallhavenDataSource;
+import com.example.wallpaper.data.network.StreamingWallpapersDecoder;
 import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaperResponse;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
-import com.example.wallpaper.data.repository.util.WallhavenTagsDocumentParser;
+import com.example.wallpaper.data.network.ratelimit.RequestPriority;
+import com.example.wallpaper.data.repository.util.EarlyItemBatcher;
+import com.example.wallpaper.data.repository.util.InFlightCallRegistry;
+import com.example.wallpaper.data.repository.util.WallpaperDetailCache;
 import com.example.wallpaper.model.search.WallhavenSearch;
 
-import org.jsoup.nodes.Document;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
 
+import java.io.IOException;
 import java.util.List;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
-import retrofit2.Callback;
 import retrofit2.Response;
 
+/**
+ * Wallhaven API calls. Every call returns a handle; disposing it cancels the HTTP
+ * request unless another caller still shares it, and its callback is not called
+ * after that.
+ */
 @Singleton
 public class NetworkWallhavenRepository {
     
     private final NetworkWallhavenDataSource networkWallhavenDataSource;
+    private final InFlightCallRegistry inFlightCallRegistry;
+    private final StreamingWallpapersDecoder streamingWallpapersDecoder;
+    private final WallpaperDetailCache wallpaperDetailCache;
+    // Copy shared responses, so no caller sees another one's changes
+    private final JsonAdapter<NetworkWallhavenWallpapersResponse> wallpapersAdapter;
+    private final JsonAdapter<NetworkWallhavenWallpaperResponse> wallpaperAdapter;
+    private final JsonAdapter<List<NetworkWallhavenTag>> tagsAdapter;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     
     @Inject
-    public NetworkWallhavenRepository(NetworkWallhavenDataSource networkWallhavenDataSource) {
+    public NetworkWallhavenRepository(NetworkWallhavenDataSource networkWallhavenDataSource,
+                                      InFlightCallRegistry inFlightCallRegistry,
+                                      StreamingWallpapersDecoder streamingWallpapersDecoder,
+                                      WallpaperDetailCache wallpaperDetailCache,
+                                      Moshi moshi) {
         this.networkWallhavenDataSource = networkWallhavenDataSource;
+        this.inFlightCallRegistry = inFlightCallRegistry;
+        this.streamingWallpapersDecoder = streamingWallpapersDecoder;
+        this.wallpaperDetailCache = wallpaperDetailCache;
+        this.wallpapersAdapter = moshi.adapter(NetworkWallhavenWallpapersResponse.class);
+        this.wallpaperAdapter = moshi.adapter(NetworkWallhavenWallpaperResponse.class);
+        this.tagsAdapter = moshi.adapter(Types.newParameterizedType(List.class, NetworkWallhavenTag.class));
+    }
+    
+    public Disposable searchWallpapers(
+            WallhavenSearch search,
+            Integer page,
+            WallpapersCallback callback
+    ) {
+        return enqueueSearch(search, page, false, RequestPriority.USER, callback);
+    }
+    
+    /**
+     * Same as {@link #searchWallpapers} but skips the memo and the HTTP cache, and
+     * never shares a call that started before it.
+     */
+    public Disposable refreshWallpapers(
+            WallhavenSearch search,
+            Integer page,
+            WallpapersCallback callback
+    ) {
+        return enqueueSearch(search, page, true, RequestPriority.USER, callback);
     }
     
-    public void searchWallpapers(
+    /**
+     * Same as {@link #searchWallpapers} but on the prefetch lane, which yields to user
+     * requests and may be dropped when the rate limit budget is low.
+     */
+    public Disposable prefetchWallpapers(
             WallhavenSearch search,
             Integer page,
             WallpapersCallback callback
     ) {
-        Call<NetworkWallhavenWallpapersResponse> call = networkWallhavenDataSource.search(search, page);
+        return enqueueSearch(search, page, false, RequestPriority.PREFETCH, callback);
+    }
+    
+    /**
+     * Same as {@link #searchWallpapers} but decodes the body as it arrives and reports
+     * wallpapers through {@link WallpapersCallback#onItems} before the page completes.
+     * Used for the first page of a feed, where time to the first thumbnail matters.
+     */
+    public Disposable streamWallpapers(
+            WallhavenSearch search,
+            Integer page,
+            WallpapersCallback callback
+    ) {
+        Call<ResponseBody> call = networkWallhavenDataSource.searchStreaming(search, page);
+        // Cancelling the call makes the blocking read below fail, and the checks keep
+        // that failure and any batch still queued on the main thread from being delivered
+        Disposable handle = Disposable.fromAction(call::cancel);
         
-        call.enqueue(new Callback<NetworkWallhavenWallpapersResponse>() {
+        Schedulers.io().scheduleDirect(() -> {
+            try {
+                Response<ResponseBody> response = call.execute();
+                if (!response.isSuccessful() || response.body() == null) {
+                    if (response.errorBody() != null) {
+                        response.errorBody().close();
+                    }
+                    mainHandler.post(() -> {
+                        if (!handle.isDisposed()) {
+                            callback.onError("Failed to fetch wallpapers: " + response.message());
+                        }
+                    });
+                    return;
+                }
+                
+                try (ResponseBody body = response.body()) {
+                    EarlyItemBatcher<NetworkWallhavenWallpaper> batcher = new EarlyItemBatcher<>(items -> {
+                        if (!handle.isDisposed()) callback.onItems(items);
+                    });
+                    NetworkWallhavenWallpapersResponse result =
+                            streamingWallpapersDecoder.decode(body.source(), batcher::add);
+                    batcher.flush();
+                    mainHandler.post(() -> {
+                        wallpaperDetailCache.seed(result.getData());
+                        if (!handle.isDisposed()) callback.onSuccess(result);
+                    });
+                }
+            } catch (IOException | RuntimeException e) {
+                // Also covers JsonDataException and anything the decoder or batcher
+                // throws, which would otherwise end on the io thread with no callback
+                mainHandler.post(() -> {
+                    if (!handle.isDisposed()) callback.onError("Network error: " + e.getMessage());
+                });
+            }
+        });
+        return handle;
+    }
+    
+    private Disposable enqueueSearch(
+            WallhavenSearch search,
+            Integer page,
+            boolean forceRefresh,
+            RequestPriority priority,
+            WallpapersCallback callback
+    ) {
+        Call<NetworkWallhavenWallpapersResponse> call = networkWallhavenDataSource.search(search, page, forceRefresh, priority);
+        String key = "search " + search.toKey(page != null ? page : 1);
+        InFlightCallRegistry.Listener<NetworkWallhavenWallpapersResponse> listener = new InFlightCallRegistry.Listener<NetworkWallhavenWallpapersResponse>() {
             @Override
-            public void onResponse(Call<NetworkWallhavenWallpapersResponse> call, 
-                                 Response<NetworkWallhavenWallpapersResponse> response) {
+            public void onResponse(Response<NetworkWallhavenWallpapersResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
+                    wallpaperDetailCache.seed(response.body().getData());
                     callback.onSuccess(response.body());
                 } else {
                     callback.onError("Failed to fetch wallpapers: " + response.message());
@@ -47,20 +172,23 @@ public class NetworkWallhavenRepository {
             }
             
             @Override
-            public void onFailure(Call<NetworkWallhavenWallpapersResponse> call, Throwable t) {
+            public void onFailure(Throwable t) {
                 callback.onError("Network error: " + t.getMessage());
             }
-        });
+        };
+        return forceRefresh
+                ? inFlightCallRegistry.refresh(key, call, wallpapersAdapter, listener)
+                : inFlightCallRegistry.enqueue(key, call, wallpapersAdapter, listener);
     }
     
-    public void getWallpaper(String id, WallpaperCallback callback) {
+    public Disposable getWallpaper(String id, WallpaperCallback callback) {
         Call<NetworkWallhavenWallpaperResponse> call = networkWallhavenDataSource.wallpaper(id);
         
-        call.enqueue(new Callback<NetworkWallhavenWallpaperResponse>() {
+        return inFlightCallRegistry.enqueue(InFlightCallRegistry.keyOf(call), call, wallpaperAdapter, new InFlightCallRegistry.Listener<NetworkWallhavenWallpaperResponse>() {
             @Override
-            public void onResponse(Call<NetworkWallhavenWallpaperResponse> call,
-                                 Response<NetworkWallhavenWallpaperResponse> response) {
+            public void onResponse(Response<NetworkWallhavenWallpaperResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
+                    wallpaperDetailCache.put(response.body().getData());
                     callback.onSuccess(response.body());
                 } else {
                     callback.onError("Failed to fetch wallpaper: " + response.message());
@@ -68,32 +196,66 @@ public class NetworkWallhavenRepository {
             }
             
             @Override
-            public void onFailure(Call<NetworkWallhavenWallpaperResponse> call, Throwable t) {
+            public void onFailure(Throwable t) {
                 callback.onError("Network error: " + t.getMessage());
             }
         });
     }
     
-    public void getPopularTags(PopularTagsCallback callback) {
-        Call<Document> call = networkWallhavenDataSource.popularTags();
+    /**
+     * Delivers the cached detail first if there is one, then refreshes it from w/{id}
+     * unless it is already complete and fresh, so onSuccess may be called twice.
+     * Errors are only reported when nothing was cached.
+     * Disposing the returned handle cancels the refresh.
+     */
+    public Disposable getWallpaperDetails(String id, WallpaperCallback callback) {
+        // Holds the cache read and then the refresh; a refresh added after dispose is
+        // cancelled right away
+        CompositeDisposable handle = new CompositeDisposable();
+        handle.add(wallpaperDetailCache.get(id)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        entry -> {
+                            callback.onSuccess(new NetworkWallhavenWallpaperResponse(entry.getWallpaper()));
+                            if (!entry.isFreshAndComplete()) {
+                                handle.add(getWallpaper(id, quietly(callback)));
+                            }
+                        },
+                        throwable -> handle.add(getWallpaper(id, callback)),
+                        () -> handle.add(getWallpaper(id, callback))
+                ));
+        return handle;
+    }
+    
+    private static WallpaperCallback quietly(WallpaperCallback callback) {
+        return new WallpaperCallback() {
+            @Override
+            public void onSuccess(NetworkWallhavenWallpaperResponse response) {
+                callback.onSuccess(response);
+            }
+            
+            @Override
+            public void onError(String error) {
+                // The cached detail is already on screen
+            }
+        };
+    }
+    
+    public Disposable getPopularTags(PopularTagsCallback callback) {
+        Call<List<NetworkWallhavenTag>> call = networkWallhavenDataSource.popularTags();
 
-        call.enqueue(new Callback<Document>() {
+        return inFlightCallRegistry.enqueue(InFlightCallRegistry.keyOf(call), call, tagsAdapter, new InFlightCallRegistry.Listener<List<NetworkWallhavenTag>>() {
             @Override
-            public void onResponse(Call<Document> call, Response<Document> response) {
+            public void onResponse(Response<List<NetworkWallhavenTag>> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    try {
-                        List<NetworkWallhavenTag> tags = WallhavenTagsDocumentParser.parsePopularTags(response.body());
-                        callback.onSuccess(tags);
-                    } catch (Exception e) {
-                        callback.onError("Error parsing popular tags: " + e.getMessage());
-                    }
+                    callback.onSuccess(response.body());
                 } else {
                     callback.onError("Failed to fetch popular tags: " + response.message());
                 }
             }
 
             @Override
-            public void onFailure(Call<Document> call, Throwable t) {
+            public void onFailure(Throwable t) {
                 callback.onError("Network error: " + t.getMessage());
             }
         });
@@ -103,6 +265,13 @@ public class NetworkWallhavenRepository {
     public interface WallpapersCallback {
         void onSuccess(NetworkWallhavenWallpapersResponse response);
         void onError(String error);
+        
+        /**
+         * Wallpapers of a streamed page that is still being read, in order.
+         * onSuccess still delivers the complete page afterwards.
+         */
+        default void onItems(List<NetworkWallhavenWallpaper> items) {
+        }
     }
     
     public interface WallpaperCallback {
@@ -0,0 +1,133 @@
+package com.example.wallpaper.data.repository;
+
+import android.util.Log;
+
+import com.example.wallpaper.data.database.dao.PopularTagDao;
+import com.example.wallpaper.data.database.entity.PopularTagEntity;
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Stale-while-revalidate store for the popular tags header.
+ * The last downloaded list is served from Room right away and only re-fetched in
+ * the background once it is older than the configured TTL.
+ */
+@Singleton
+public class PopularTagsRepository {
+    
+    public static final String TTL_MS = "popular_tags_ttl_ms";
+    private static final String TAG = "PopularTagsRepository";
+    
+    private final PopularTagDao popularTagDao;
+    private final NetworkWallhavenRepository networkWallhavenRepository;
+    private final long ttlMs;
+    
+    @Inject
+    public PopularTagsRepository(PopularTagDao popularTagDao,
+                                 NetworkWallhavenRepository networkWallhavenRepository,
+                                 @Named(TTL_MS) long ttlMs) {
+        this.popularTagDao = popularTagDao;
+        this.networkWallhavenRepository = networkWallhavenRepository;
+        this.ttlMs = ttlMs;
+    }
+    
+    /**
+     * Delivers the stored tags first, then fresh ones if the stored list was stale or
+     * missing, so onSuccess may be called twice. Errors are only reported when there
+     * was nothing stored to show. Disposing the returned handle cancels the download.
+     */
+    public Disposable getPopularTags(NetworkWallhavenRepository.PopularTagsCallback callback) {
+        CompositeDisposable handle = new CompositeDisposable();
+        handle.add(popularTagDao.getAll()
+            .subscribeOn(Schedulers.io())
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(
+                entities -> {
+                    if (entities.isEmpty()) {
+                        handle.add(fetch(callback, false));
+                        return;
+                    }
+                    
+                    callback.onSuccess(toNetwork(entities));
+                    if (isStale(entities.get(0))) {
+                        handle.add(fetch(callback, true));
+                    }
+                },
+                throwable -> {
+                    Log.w(TAG, "Reading stored popular tags failed", throwable);
+                    handle.add(fetch(callback, false));
+                }
+            ));
+        return handle;
+    }
+    
+    /**
+     * Downloads the tags regardless of age, e.g. for pull-to-refresh.
+     */
+    public Disposable refreshPopularTags(NetworkWallhavenRepository.PopularTagsCallback callback) {
+        return fetch(callback, false);
+    }
+    
+    private Disposable fetch(NetworkWallhavenRepository.PopularTagsCallback callback, boolean hasStoredTags) {
+        return networkWallhavenRepository.getPopularTags(new NetworkWallhavenRepository.PopularTagsCallback() {
+            @Override
+            public void onSuccess(List<NetworkWallhavenTag> tags) {
+                callback.onSuccess(tags);
+                if (!tags.isEmpty()) {
+                    store(tags);
+                }
+            }
+            
+            @Override
+            public void onError(String error) {
+                if (hasStoredTags) {
+                    // Keep showing the stored list, it is retried on the next launch
+                    Log.w(TAG, "Revalidating popular tags failed: " + error);
+                } else {
+                    callback.onError(error);
+                }
+            }
+        });
+    }
+    
+    private void store(List<NetworkWallhavenTag> tags) {
+        long fetchedAt = System.currentTimeMillis();
+        List<PopularTagEntity> entities = new ArrayList<>(tags.size());
+        for (int i = 0; i < tags.size(); i++) {
+            entities.add(PopularTagEntity.fromNetwork(tags.get(i), i, fetchedAt));
+        }
+        
+        Completable.fromAction(() -> popularTagDao.replaceAll(entities))
+            .subscribeOn(Schedulers.io())
+            .subscribe(
+                () -> {
+                },
+                throwable -> Log.w(TAG, "Storing popular tags failed", throwable)
+            );
+    }
+    
+    private boolean isStale(PopularTagEntity entity) {
+        long age = System.currentTimeMillis() - entity.getFetchedAt();
+        return age < 0 || age > ttlMs;
+    }
+    
+    private static List<NetworkWallhavenTag> toNetwork(List<PopularTagEntity> entities) {
+        List<NetworkWallhavenTag> tags = new ArrayList<>(entities.size());
+        for (PopularTagEntity entity : entities) {
+            tags.add(entity.toNetwork());
+        }
+        return tags;
+    }
+}
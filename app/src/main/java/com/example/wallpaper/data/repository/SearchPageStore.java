@@ -0,0 +1,205 @@
+package com.example.wallpaper.data.repository;
+
+import android.util.Log;
+
+import androidx.paging.PagingSource;
+
+import com.example.wallpaper.data.database.dao.FeedDao;
+import com.example.wallpaper.data.database.entity.FeedItemEntity;
+import com.example.wallpaper.data.database.entity.FeedPageEntity;
+import com.example.wallpaper.data.database.entity.FeedStateEntity;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.example.wallpaper.model.search.WallhavenSearch;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Offline store for the pages of a search feed, keyed by the search's feed key.
+ * Every page the user has scrolled through is kept for {@link #PAGE_TTL_MS} together
+ * with the scroll position. The feed is read back through a Room PagingSource, so a
+ * new screen shows the last feed at once and the remote mediator reconciles it.
+ */
+@Singleton
+public class SearchPageStore {
+
+    private static final String TAG = "SearchPageStore";
+    private static final long PAGE_TTL_MS = TimeUnit.HOURS.toMillis(24);
+
+    private final FeedDao feedDao;
+    private final JsonAdapter<NetworkWallhavenWallpaper> adapter;
+    // Writes must land in order, a new page 1 drops the pages saved before it.
+    // Reads share the thread so they see every write queued before them.
+    private final Scheduler scheduler = Schedulers.from(Executors.newSingleThreadExecutor());
+    private volatile boolean pruned;
+
+    @Inject
+    public SearchPageStore(FeedDao feedDao, Moshi moshi) {
+        this.feedDao = feedDao;
+        this.adapter = moshi.adapter(NetworkWallhavenWallpaper.class);
+    }
+
+    public PagingSource<Integer, FeedItemEntity> pagingSource(WallhavenSearch search) {
+        return feedDao.pagingSource(feedKey(search));
+    }
+
+    /**
+     * Decodes a stored item. An unreadable row comes back as a wallpaper with only
+     * its id, which the grid shows as a placeholder.
+     */
+    public NetworkWallhavenWallpaper decode(FeedItemEntity item) {
+        if (item.getJson() != null) {
+            try {
+                NetworkWallhavenWallpaper wallpaper = adapter.fromJson(item.getJson());
+                if (wallpaper != null) return wallpaper;
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Unreadable feed item " + item.getWallpaperId(), e);
+            }
+        }
+        NetworkWallhavenWallpaper stub = new NetworkWallhavenWallpaper();
+        stub.setId(item.getWallpaperId());
+        return stub;
+    }
+
+    /**
+     * The highest page stored for the feed. Completes empty if the feed is not stored.
+     */
+    public Maybe<FeedPageEntity> getLastStoredPage(WallhavenSearch search) {
+        String feedKey = feedKey(search);
+        return Maybe.fromCallable(() -> feedDao.getLastPage(feedKey))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Index of the first visible wallpaper when the feed was last left, or 0.
+     */
+    public Single<Integer> getScrollPosition(WallhavenSearch search) {
+        String feedKey = feedKey(search);
+        return Single.fromCallable(() -> {
+                    FeedStateEntity state = feedDao.getState(feedKey);
+                    return state != null ? Math.max(0, state.getScrollPosition()) : 0;
+                })
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Stores a page. Saving a page replaces it and every page after it, so saving
+     * page 1 starts the feed over.
+     */
+    public Completable storePage(WallhavenSearch search, int page, NetworkWallhavenWallpapersResponse response) {
+        String feedKey = feedKey(search);
+        int lastPage = response.getMeta() != null ? response.getMeta().getLastPage() : page;
+        List<NetworkWallhavenWallpaper> wallpapers = response.getData() != null
+                ? new ArrayList<>(response.getData())
+                : new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        return Completable.fromAction(() -> {
+                    feedDao.replacePage(new FeedPageEntity(feedKey, page, lastPage, now, now + PAGE_TTL_MS),
+                            toItems(feedKey, page, 0, wallpapers));
+                    if (!pruned) {
+                        pruned = true;
+                        feedDao.prune(System.currentTimeMillis());
+                    }
+                })
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Writes the first wallpapers of a streamed page 1 while the rest is still being
+     * read. The first batch clears the feed; {@link #storePage} completes it.
+     */
+    public Completable storeStreamedItems(WallhavenSearch search, int startIndex, List<NetworkWallhavenWallpaper> wallpapers) {
+        String feedKey = feedKey(search);
+        List<NetworkWallhavenWallpaper> copy = new ArrayList<>(wallpapers);
+
+        return Completable.fromAction(() -> {
+                    if (startIndex == 0) {
+                        feedDao.clearFrom(feedKey, 1);
+                    }
+                    feedDao.insertItems(toItems(feedKey, 1, startIndex, copy));
+                })
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Merges a freshly fetched page 1 into the stored feed. An unchanged page only
+     * extends the expiry. A changed page replaces the feed unless the user had
+     * scrolled past the first page of an unexpired feed, which is kept until an
+     * explicit refresh.
+     */
+    public Completable reconcileFirstPage(WallhavenSearch search, NetworkWallhavenWallpapersResponse response) {
+        String feedKey = feedKey(search);
+        List<NetworkWallhavenWallpaper> fresh = response.getData() != null ? response.getData() : new ArrayList<>();
+
+        return Single.fromCallable(() -> {
+                    long now = System.currentTimeMillis();
+                    FeedPageEntity stored = feedDao.getPage(feedKey, 1);
+                    if (stored == null || stored.getExpiresAt() <= now) return false;
+                    boolean unchanged = sameWallpapers(feedDao.getWallpaperIds(feedKey, 1), fresh);
+                    FeedStateEntity state = feedDao.getState(feedKey);
+                    boolean scrolledPast = state != null && state.getScrollPosition() >= fresh.size();
+                    if (unchanged || scrolledPast) {
+                        feedDao.extendExpiry(feedKey, now + PAGE_TTL_MS);
+                        return true;
+                    }
+                    return false;
+                })
+                .subscribeOn(scheduler)
+                .flatMapCompletable(keep -> keep ? Completable.complete() : storePage(search, 1, response));
+    }
+
+    /**
+     * Remembers the index of the first visible wallpaper of the feed.
+     */
+    public void saveScrollPosition(WallhavenSearch search, int position) {
+        if (position < 0) return;
+
+        String feedKey = feedKey(search);
+        long now = System.currentTimeMillis();
+        Completable.fromAction(() -> feedDao.upsertState(new FeedStateEntity(feedKey, position, now)))
+                .subscribeOn(scheduler)
+                .subscribe(
+                        () -> {
+                        },
+                        throwable -> Log.w(TAG, "Saving scroll position failed", throwable)
+                );
+    }
+
+    private List<FeedItemEntity> toItems(String feedKey, int page, int startIndex, List<NetworkWallhavenWallpaper> wallpapers) {
+        List<FeedItemEntity> items = new ArrayList<>(wallpapers.size());
+        for (int i = 0; i < wallpapers.size(); i++) {
+            NetworkWallhavenWallpaper wallpaper = wallpapers.get(i);
+            items.add(new FeedItemEntity(feedKey, page, startIndex + i, wallpaper.getId(), adapter.toJson(wallpaper)));
+        }
+        return items;
+    }
+
+    private static boolean sameWallpapers(List<String> storedIds, List<NetworkWallhavenWallpaper> fresh) {
+        if (storedIds.size() != fresh.size()) return false;
+        for (int i = 0; i < fresh.size(); i++) {
+            if (!Objects.equals(storedIds.get(i), fresh.get(i).getId())) return false;
+        }
+        return true;
+    }
+
+    private static String feedKey(WallhavenSearch search) {
+        return search.toKey(1).getFeed();
+    }
+}
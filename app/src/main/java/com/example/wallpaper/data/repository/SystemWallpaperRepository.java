@@ -0,0 +1,130 @@
+package com.example.wallpaper.data.repository;
+
+import android.app.WallpaperManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+
+import com.example.wallpaper.model.WallpaperApplyProgress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Sets the system wallpaper in the background. The bitmap is encoded once and the
+ * encoded bytes are streamed through {@link WallpaperManager#setStream}, so home and
+ * lock screen are set from the same payload in one call.
+ * Jobs belong to the app, not to the screen that started them: unsubscribing from
+ * the progress does not stop a wallpaper from being set.
+ */
+@Singleton
+public class SystemWallpaperRepository {
+
+    // Visually lossless for a photo and far quicker to write than the PNG setBitmap makes
+    private static final int JPEG_QUALITY = 95;
+    private static final int READ_CHUNK_BYTES = 16 * 1024;
+
+    private final WallpaperManager wallpaperManager;
+    // One wallpaper at a time, a second request waits for the first
+    private final Scheduler scheduler = Schedulers.from(Executors.newSingleThreadExecutor());
+
+    @Inject
+    public SystemWallpaperRepository(@ApplicationContext Context context) {
+        this.wallpaperManager = WallpaperManager.getInstance(context);
+    }
+
+    /**
+     * Starts setting the wallpaper right away.
+     *
+     * @param which {@link WallpaperManager#FLAG_SYSTEM}, {@link WallpaperManager#FLAG_LOCK} or both
+     * @return progress of the job, replaying the latest state to new subscribers;
+     * it completes after {@link WallpaperApplyProgress.Stage#DONE} and errors if
+     * the wallpaper could not be set
+     */
+    public Observable<WallpaperApplyProgress> apply(Bitmap bitmap, int which) {
+        BehaviorSubject<WallpaperApplyProgress> progress = BehaviorSubject.create();
+        scheduler.scheduleDirect(() -> {
+            try {
+                progress.onNext(new WallpaperApplyProgress(WallpaperApplyProgress.Stage.ENCODING, 0));
+                byte[] encoded = encode(bitmap);
+
+                progress.onNext(new WallpaperApplyProgress(WallpaperApplyProgress.Stage.WRITING, 0));
+                try (InputStream stream = new ProgressInputStream(new ByteArrayInputStream(encoded), encoded.length,
+                        percent -> progress.onNext(new WallpaperApplyProgress(WallpaperApplyProgress.Stage.WRITING, percent)))) {
+                    wallpaperManager.setStream(stream, null, true, which);
+                }
+
+                progress.onNext(new WallpaperApplyProgress(WallpaperApplyProgress.Stage.DONE, 100));
+                progress.onComplete();
+            } catch (IOException | RuntimeException e) {
+                progress.onError(e);
+            }
+        });
+        return progress.hide();
+    }
+
+    private static byte[] encode(Bitmap bitmap) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(bitmap.getWidth() * bitmap.getHeight() / 2);
+        if (!bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, output)) {
+            throw new IOException("Could not encode the wallpaper");
+        }
+        return output.toByteArray();
+    }
+
+    private interface PercentListener {
+        void onPercent(int percent);
+    }
+
+    /**
+     * Reports how much of the payload WallpaperManager has read, once per percent.
+     */
+    private static class ProgressInputStream extends FilterInputStream {
+        private final long total;
+        private final PercentListener listener;
+        private long read;
+        private int lastPercent;
+
+        ProgressInputStream(InputStream in, long total, PercentListener listener) {
+            super(in);
+            this.total = total;
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) advance(1);
+            return b;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, Math.min(length, READ_CHUNK_BYTES));
+            if (count > 0) advance(count);
+            return count;
+        }
+
+        private void advance(long count) {
+            read += count;
+            int percent = total > 0 ? (int) (read * 100 / total) : 0;
+            if (percent != lastPercent) {
+                lastPercent = percent;
+                listener.onPercent(percent);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.wallpaper.data.repository;
+
+import androidx.annotation.OptIn;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
+
+import com.example.wallpaper.data.database.entity.FeedItemEntity;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.repository.paging.WallhavenRemoteMediator;
+import com.example.wallpaper.model.search.WallhavenSearch;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * Paged Wallhaven feeds backed by {@link SearchPageStore}.
+ * Only a window of {@link #MAX_SIZE} wallpapers is held in memory; the rest of the
+ * feed stays in Room and is shown as placeholders until scrolled back into view.
+ */
+@Singleton
+public class WallhavenFeedRepository {
+
+    // Wallhaven serves 24 wallpapers per page
+    private static final int PAGE_SIZE = 24;
+    private static final int INITIAL_LOAD_SIZE = PAGE_SIZE * 2;
+    private static final int MAX_SIZE = PAGE_SIZE * 8;
+
+    private final NetworkWallhavenRepository repository;
+    private final SearchPageStore pageStore;
+    private final Executor decodeExecutor = Executors.newSingleThreadExecutor();
+
+    @Inject
+    public WallhavenFeedRepository(NetworkWallhavenRepository repository, SearchPageStore pageStore) {
+        this.repository = repository;
+        this.pageStore = pageStore;
+    }
+
+    /**
+     * Prepares the feed of a search, starting at the position it was last left at.
+     */
+    public Single<Feed> openFeed(WallhavenSearch search) {
+        return pageStore.getScrollPosition(search)
+                .onErrorReturnItem(0)
+                .map(position -> new Feed(search, position));
+    }
+
+    public final class Feed {
+        private final WallhavenSearch search;
+        private final int initialPosition;
+        private final WallhavenRemoteMediator mediator;
+
+        Feed(WallhavenSearch search, int initialPosition) {
+            this.search = search;
+            this.initialPosition = initialPosition;
+            this.mediator = new WallhavenRemoteMediator(search, repository, pageStore);
+        }
+
+        public WallhavenSearch getSearch() {
+            return search;
+        }
+
+        /**
+         * Index of the wallpaper the feed opens at.
+         */
+        public int getInitialPosition() {
+            return initialPosition;
+        }
+
+        @OptIn(markerClass = ExperimentalPagingApi.class)
+        public LiveData<PagingData<NetworkWallhavenWallpaper>> getPagingData() {
+            PagingConfig config = new PagingConfig(PAGE_SIZE, PAGE_SIZE, true, INITIAL_LOAD_SIZE, MAX_SIZE);
+            Pager<Integer, FeedItemEntity> pager = new Pager<>(config, initialPosition, mediator,
+                    () -> pageStore.pagingSource(search));
+            return Transformations.map(PagingLiveData.getLiveData(pager),
+                    data -> PagingDataTransforms.map(data, decodeExecutor, pageStore::decode));
+        }
+
+        /**
+         * Makes the next refresh of the adapter go to the network and replace the feed.
+         */
+        public void requestRefresh() {
+            mediator.forceNextRefresh();
+        }
+
+        public void saveScrollPosition(int position) {
+            pageStore.saveScrollPosition(search, position);
+        }
+
+        /**
+         * Aborts the network requests of the feed. Call when the feed is replaced or
+         * its screen is gone for good.
+         */
+        public void close() {
+            mediator.close();
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.wallpaper.data.repository;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Environment;
+import android.provider.MediaStore;
+import android.webkit.MimeTypeMap;
+
+import androidx.annotation.Nullable;
+
+import com.example.wallpaper.data.image.OriginalImageStore;
+import com.example.wallpaper.di.NetworkModule;
+import com.example.wallpaper.model.WallpaperDownloadProgress;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Saves original wallpapers to the device's pictures through MediaStore.
+ * An original the viewer or crop screen already downloaded is copied from the
+ * {@link OriginalImageStore}. Anything else is downloaded in parallel byte ranges
+ * into part files; the parts survive a failed or interrupted save, and the next
+ * save of the same wallpaper resumes them. The joined file goes into the store
+ * for the other screens. The saved size is checked against the size the API
+ * reported before the file is published.
+ * Like {@link SystemWallpaperRepository}, a save belongs to the app and keeps going
+ * when its subscriber goes away.
+ */
+@Singleton
+public class WallpaperDownloadRepository {
+
+    private static final String PARTS_DIR = "download_parts";
+    private static final String PICTURES_SUBDIR = "Wallhaven";
+    private static final String FILE_PREFIX = "wallhaven-";
+    private static final String DEFAULT_MIME_TYPE = "image/jpeg";
+    private static final int SEGMENTS = 4;
+    // Below this a single request is quicker than opening more streams
+    private static final long MIN_SEGMENTED_BYTES = 1024 * 1024;
+    private static final int ATTEMPTS_PER_SEGMENT = 3;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Context context;
+    private final OkHttpClient okHttpClient;
+    private final OriginalImageStore originalImageStore;
+    // One save at a time; its segments run on the segment pool
+    private final Scheduler scheduler = Schedulers.from(Executors.newSingleThreadExecutor());
+    private final ExecutorService segmentExecutor = Executors.newFixedThreadPool(SEGMENTS);
+
+    @Inject
+    public WallpaperDownloadRepository(@ApplicationContext Context context,
+                                       @Named(NetworkModule.IMAGE_CLIENT) OkHttpClient okHttpClient,
+                                       OriginalImageStore originalImageStore) {
+        this.context = context;
+        this.okHttpClient = okHttpClient;
+        this.originalImageStore = originalImageStore;
+    }
+
+    /**
+     * Starts saving right away.
+     *
+     * @param mimeType     the wallpaper's file type; taken from the URL when null
+     * @param expectedSize the wallpaper's file size in bytes; not checked when 0 or less
+     * @return progress of the save, replaying the latest state to new subscribers;
+     * it completes after {@link WallpaperDownloadProgress.Stage#DONE} and errors if
+     * the wallpaper could not be saved
+     */
+    public Observable<WallpaperDownloadProgress> save(String id, String url, @Nullable String mimeType, long expectedSize) {
+        BehaviorSubject<WallpaperDownloadProgress> progress = BehaviorSubject.create();
+        scheduler.scheduleDirect(() -> {
+            try {
+                String type = mimeType != null && !mimeType.isEmpty() ? mimeType : mimeTypeOf(url);
+                Uri saved = download(id, url, type, expectedSize, progress);
+                progress.onNext(new WallpaperDownloadProgress(WallpaperDownloadProgress.Stage.DONE, 0, -1, saved));
+                progress.onComplete();
+            } catch (Exception e) {
+                progress.onError(e);
+            }
+        });
+        return progress.hide();
+    }
+
+    private Uri download(String id, String url, String mimeType, long expectedSize,
+                         BehaviorSubject<WallpaperDownloadProgress> progress) throws IOException, InterruptedException {
+        String fileName = FILE_PREFIX + id + "." + extensionOf(mimeType);
+
+        File stored = originalImageStore.get(id);
+        if (stored != null && (expectedSize <= 0 || stored.length() == expectedSize)) {
+            return writeToMediaStore(fileName, mimeType, expectedSize, Collections.singletonList(stored), progress);
+        }
+
+        List<File> parts = downloadParts(id, url, progress);
+        try {
+            long length = 0;
+            for (File part : parts) {
+                length += part.length();
+            }
+            if (expectedSize > 0 && length != expectedSize) {
+                throw new IOException("Downloaded " + length + " bytes, expected " + expectedSize);
+            }
+            stored = originalImageStore.put(id, parts);
+        } finally {
+            // Complete or wrong, either way the parts are not resumed again
+            for (File part : parts) {
+                part.delete();
+            }
+        }
+        return writeToMediaStore(fileName, mimeType, expectedSize, Collections.singletonList(stored), progress);
+    }
+
+    private List<File> downloadParts(String id, String url, BehaviorSubject<WallpaperDownloadProgress> progress)
+            throws IOException, InterruptedException {
+        RangeSupport support = probe(url);
+        int count = support.acceptsRanges && support.length >= MIN_SEGMENTED_BYTES ? SEGMENTS : 1;
+
+        File dir = new File(context.getCacheDir(), PARTS_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+
+        // The length is part of the name so parts of a file that changed are never resumed
+        String prefix = id.replaceAll("[^A-Za-z0-9_-]", "_") + "-" + support.length;
+        ProgressReporter reporter = new ProgressReporter(progress, WallpaperDownloadProgress.Stage.DOWNLOADING, support.length);
+        List<Segment> segments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long start = support.length * i / count;
+            long end = support.length > 0 ? support.length * (i + 1) / count - 1 : -1;
+            File file = new File(dir, prefix + "." + i + ".part");
+            if (!support.acceptsRanges) {
+                // Nothing to resume from without ranges
+                file.delete();
+            }
+            reporter.add(file.length());
+            segments.add(new Segment(start, end, file, count == 1, support.acceptsRanges));
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (Segment segment : segments) {
+            futures.add(segmentExecutor.submit(() -> {
+                fetchSegment(url, segment, reporter);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            // The parts written so far stay for the next attempt
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+
+        List<File> files = new ArrayList<>();
+        for (Segment segment : segments) {
+            files.add(segment.file);
+        }
+        return files;
+    }
+
+    // One request for the first byte tells both the length and whether ranges work
+    private RangeSupport probe(String url) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .header("Range", "bytes=0-0")
+                .build();
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            if (response.code() == 206) {
+                // Content-Range: bytes 0-0/12345
+                String contentRange = response.header("Content-Range");
+                long length = -1;
+                if (contentRange != null && contentRange.contains("/")) {
+                    try {
+                        length = Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1).trim());
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+                return new RangeSupport(length, length > 0);
+            }
+            if (response.isSuccessful()) {
+                ResponseBody body = response.body();
+                return new RangeSupport(body != null ? body.contentLength() : -1, false);
+            }
+            throw new IOException("HTTP " + response.code() + " for " + url);
+        }
+    }
+
+    private void fetchSegment(String url, Segment segment, ProgressReporter reporter) throws IOException {
+        IOException failure = null;
+        for (int attempt = 0; attempt < ATTEMPTS_PER_SEGMENT; attempt++) {
+            if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException();
+            try {
+                fetchSegmentOnce(url, segment, reporter);
+                return;
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                // Retried from where the part file ends
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    private void fetchSegmentOnce(String url, Segment segment, ProgressReporter reporter) throws IOException {
+        long have = segment.file.length();
+        if (segment.end >= 0 && have >= segment.end - segment.start + 1) return;
+
+        Request.Builder request = new Request.Builder().url(url);
+        if (segment.ranged) {
+            request.header("Range", "bytes=" + (segment.start + have) + "-" + segment.end);
+        }
+        try (Response response = okHttpClient.newCall(request.build()).execute()) {
+            boolean append;
+            if (response.code() == 206) {
+                append = true;
+            } else if (response.code() == 200 && segment.whole) {
+                // The whole file again, the part starts over
+                append = false;
+                reporter.add(-have);
+            } else {
+                throw new IOException("HTTP " + response.code() + " for " + url);
+            }
+
+            ResponseBody body = response.body();
+            if (body == null) throw new IOException("Empty response for " + url);
+            try (InputStream in = body.byteStream();
+                 OutputStream out = new FileOutputStream(segment.file, append)) {
+                byte[] buffer = new byte[BUFFER_BYTES];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    reporter.add(read);
+                }
+            }
+        }
+    }
+
+    // Streams the parts into a new MediaStore entry, which is only published if the size is right
+    private Uri writeToMediaStore(String fileName, String mimeType, long expectedSize, List<File> parts,
+                                  BehaviorSubject<WallpaperDownloadProgress> progress) throws IOException {
+        long total = 0;
+        for (File part : parts) {
+            total += part.length();
+        }
+        ProgressReporter reporter = new ProgressReporter(progress, WallpaperDownloadProgress.Stage.WRITING, total);
+
+        ContentResolver resolver = context.getContentResolver();
+        ContentValues values = new ContentValues();
+        values.put(MediaStore.Images.Media.DISPLAY_NAME, fileName);
+        values.put(MediaStore.Images.Media.MIME_TYPE, mimeType);
+        Uri collection;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            values.put(MediaStore.Images.Media.RELATIVE_PATH, Environment.DIRECTORY_PICTURES + "/" + PICTURES_SUBDIR);
+            values.put(MediaStore.Images.Media.IS_PENDING, 1);
+            collection = MediaStore.Images.Media.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY);
+        } else {
+            File dir = new File(Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_PICTURES), PICTURES_SUBDIR);
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+            values.put(MediaStore.Images.Media.DATA, new File(dir, fileName).getAbsolutePath());
+            collection = MediaStore.Images.Media.EXTERNAL_CONTENT_URI;
+        }
+
+        Uri uri = resolver.insert(collection, values);
+        if (uri == null) throw new IOException("MediaStore refused " + fileName);
+        try {
+            long written = 0;
+            try (OutputStream out = resolver.openOutputStream(uri)) {
+                if (out == null) throw new IOException("Cannot write " + uri);
+                byte[] buffer = new byte[BUFFER_BYTES];
+                for (File part : parts) {
+                    try (InputStream in = new FileInputStream(part)) {
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                            written += read;
+                            reporter.add(read);
+                        }
+                    }
+                }
+            }
+            if (expectedSize > 0 && written != expectedSize) {
+                throw new IOException("Saved " + written + " bytes, expected " + expectedSize);
+            }
+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                values.clear();
+                values.put(MediaStore.Images.Media.IS_PENDING, 0);
+                resolver.update(uri, values, null, null);
+            }
+            return uri;
+        } catch (IOException | RuntimeException e) {
+            resolver.delete(uri, null, null);
+            throw e;
+        }
+    }
+
+    private static String mimeTypeOf(String url) {
+        String type = MimeTypeMap.getSingleton().getMimeTypeFromExtension(MimeTypeMap.getFileExtensionFromUrl(url));
+        return type != null ? type : DEFAULT_MIME_TYPE;
+    }
+
+    private static String extensionOf(String mimeType) {
+        String extension = MimeTypeMap.getSingleton().getExtensionFromMimeType(mimeType);
+        return extension != null ? extension : "jpg";
+    }
+
+    private static class RangeSupport {
+        final long length;
+        final boolean acceptsRanges;
+
+        RangeSupport(long length, boolean acceptsRanges) {
+            this.length = length;
+            this.acceptsRanges = acceptsRanges;
+        }
+    }
+
+    /**
+     * Byte range of the file, both ends inclusive; the end is -1 when the length is
+     * not known. Without ranges there is a single segment covering the whole file.
+     */
+    private static class Segment {
+        final long start;
+        final long end;
+        final File file;
+        final boolean whole;
+        final boolean ranged;
+
+        Segment(long start, long end, File file, boolean whole, boolean ranged) {
+            this.start = start;
+            this.end = end;
+            this.file = file;
+            this.whole = whole;
+            this.ranged = ranged;
+        }
+    }
+
+    /**
+     * Adds up the bytes of all segments and reports at most once per percent.
+     */
+    private static class ProgressReporter {
+        private final BehaviorSubject<WallpaperDownloadProgress> progress;
+        private final WallpaperDownloadProgress.Stage stage;
+        private final long total;
+        private long bytes;
+        private int lastPercent = -1;
+
+        ProgressReporter(BehaviorSubject<WallpaperDownloadProgress> progress, WallpaperDownloadProgress.Stage stage, long total) {
+            this.progress = progress;
+            this.stage = stage;
+            this.total = total;
+        }
+
+        synchronized void add(long count) {
+            bytes += count;
+            int percent = total > 0 ? (int) (bytes * 100 / total) : 0;
+            if (percent != lastPercent) {
+                lastPercent = percent;
+                progress.onNext(new WallpaperDownloadProgress(stage, bytes, total, null));
+            }
+        }
+    }
+}
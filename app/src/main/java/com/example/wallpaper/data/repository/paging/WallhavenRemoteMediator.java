@@ -0,0 +1,194 @@
+package com.example.wallpaper.data.repository.paging;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+import androidx.paging.rxjava3.RxRemoteMediator;
+
+import com.example.wallpaper.data.database.entity.FeedItemEntity;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.example.wallpaper.data.repository.NetworkWallhavenRepository;
+import com.example.wallpaper.data.repository.SearchPageStore;
+import com.example.wallpaper.model.search.WallhavenSearch;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.SingleEmitter;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+/**
+ * Fills the stored feed of one search from the Wallhaven API.
+ * The Room PagingSource shows whatever is stored right away; a refresh then checks
+ * page 1 against the network and appends fetch the page after the last stored one.
+ */
+@OptIn(markerClass = ExperimentalPagingApi.class)
+public class WallhavenRemoteMediator extends RxRemoteMediator<Integer, FeedItemEntity> {
+
+    private static final String TAG = "WallhavenRemoteMediator";
+
+    private final WallhavenSearch search;
+    private final NetworkWallhavenRepository repository;
+    private final SearchPageStore pageStore;
+    // Requests of the loads in progress, cancelled together when the feed is closed
+    private final CompositeDisposable calls = new CompositeDisposable();
+    private volatile boolean forceRefresh;
+
+    public WallhavenRemoteMediator(WallhavenSearch search, NetworkWallhavenRepository repository,
+                                   SearchPageStore pageStore) {
+        this.search = search;
+        this.repository = repository;
+        this.pageStore = pageStore;
+    }
+
+    /**
+     * Makes the next refresh bypass the memo and the HTTP cache and replace the
+     * stored feed, as pull-to-refresh expects.
+     */
+    public void forceNextRefresh() {
+        forceRefresh = true;
+    }
+
+    /**
+     * Cancels the requests still running for this feed, e.g. when a new search
+     * replaces it. Loads started afterwards fail right away.
+     */
+    public void close() {
+        calls.dispose();
+    }
+
+    @NonNull
+    @Override
+    public Single<MediatorResult> loadSingle(@NonNull LoadType loadType,
+                                             @NonNull PagingState<Integer, FeedItemEntity> state) {
+        Single<Boolean> load;
+        switch (loadType) {
+            case REFRESH:
+                load = refresh();
+                break;
+            case APPEND:
+                load = append();
+                break;
+            default:
+                // Feeds only grow at the end
+                return Single.just(new MediatorResult.Success(true));
+        }
+        return load
+                .map(endOfPaginationReached -> (MediatorResult) new MediatorResult.Success(endOfPaginationReached))
+                .onErrorReturn(MediatorResult.Error::new);
+    }
+
+    private Single<Boolean> refresh() {
+        if (forceRefresh) {
+            forceRefresh = false;
+            return fetch(callback -> repository.refreshWallpapers(search, 1, callback))
+                    .flatMap(response -> pageStore.storePage(search, 1, response)
+                            .toSingleDefault(isLastPage(response)));
+        }
+
+        return pageStore.getLastStoredPage(search)
+                .isEmpty()
+                .flatMap(empty -> {
+                    if (empty) {
+                        return streamFirstPage();
+                    }
+                    // Appends decide from the stored pages whether the feed goes on
+                    return fetch(callback -> repository.searchWallpapers(search, 1, callback))
+                            .flatMap(response -> pageStore.reconcileFirstPage(search, response)
+                                    .toSingleDefault(false));
+                });
+    }
+
+    private Single<Boolean> append() {
+        return pageStore.getLastStoredPage(search)
+                .flatMapSingle(last -> {
+                    if (last.getPage() >= last.getLastPage()) {
+                        return Single.just(true);
+                    }
+                    int next = last.getPage() + 1;
+                    // Appends run ahead of the user, so they go on the prefetch lane first
+                    // and only fall back to the user lane if the rate limiter dropped them
+                    return fetch(callback -> repository.prefetchWallpapers(search, next, callback))
+                            .onErrorResumeNext(t -> fetch(callback -> repository.searchWallpapers(search, next, callback)))
+                            .flatMap(response -> pageStore.storePage(search, next, response)
+                                    .toSingleDefault(isLastPage(response)));
+                })
+                .defaultIfEmpty(true);
+    }
+
+    /**
+     * Nothing is stored yet, so write the first wallpapers as they are decoded
+     * instead of waiting for the whole page.
+     */
+    private Single<Boolean> streamFirstPage() {
+        return Single.<NetworkWallhavenWallpapersResponse>create(emitter -> bind(emitter,
+                repository.streamWallpapers(search, 1, new NetworkWallhavenRepository.WallpapersCallback() {
+                    private int written;
+
+                    @Override
+                    public void onItems(List<NetworkWallhavenWallpaper> items) {
+                        int startIndex = written;
+                        written += items.size();
+                        pageStore.storeStreamedItems(search, startIndex, items)
+                                .subscribe(
+                                        () -> {
+                                        },
+                                        throwable -> Log.w(TAG, "Writing streamed wallpapers failed", throwable)
+                                );
+                    }
+
+                    @Override
+                    public void onSuccess(NetworkWallhavenWallpapersResponse response) {
+                        emitter.onSuccess(response);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        emitter.tryOnError(new IOException(error));
+                    }
+                })))
+                .flatMap(response -> pageStore.storePage(search, 1, response)
+                        .toSingleDefault(isLastPage(response)));
+    }
+
+    private Single<NetworkWallhavenWallpapersResponse> fetch(
+            Function<NetworkWallhavenRepository.WallpapersCallback, Disposable> request) {
+        return Single.create(emitter -> bind(emitter, request.apply(new NetworkWallhavenRepository.WallpapersCallback() {
+            @Override
+            public void onSuccess(NetworkWallhavenWallpapersResponse response) {
+                emitter.onSuccess(response);
+            }
+
+            @Override
+            public void onError(String error) {
+                emitter.tryOnError(new IOException(error));
+            }
+        })));
+    }
+
+    /**
+     * Ties a request to its load: Paging disposing the load, e.g. when the pager's
+     * scope is cancelled, cancels the request too.
+     */
+    private void bind(SingleEmitter<?> emitter, Disposable call) {
+        if (!calls.add(call)) {
+            emitter.tryOnError(new IOException("Feed closed"));
+            return;
+        }
+        emitter.setCancellable(() -> calls.remove(call));
+    }
+
+    private static boolean isLastPage(NetworkWallhavenWallpapersResponse response) {
+        if (response.getData() == null || response.getData().isEmpty()) return true;
+        return response.getMeta() == null
+                || response.getMeta().getCurrentPage() >= response.getMeta().getLastPage();
+    }
+}
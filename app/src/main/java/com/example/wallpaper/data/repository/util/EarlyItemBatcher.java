@@ -0,0 +1,48 @@
+package com.example.wallpaper.data.repository.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects items decoded on a background thread and posts them to the main thread.
+ * The first item goes out alone so the grid can start binding, the rest follow in
+ * small batches to keep adapter updates cheap.
+ */
+public class EarlyItemBatcher<T> {
+
+    private static final int BATCH_SIZE = 6;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Sink<T> sink;
+    private List<T> pending = new ArrayList<>();
+    private boolean firstSent;
+
+    public EarlyItemBatcher(Sink<T> sink) {
+        this.sink = sink;
+    }
+
+    public void add(T item) {
+        pending.add(item);
+        if (!firstSent || pending.size() >= BATCH_SIZE) {
+            firstSent = true;
+            flush();
+        }
+    }
+
+    /**
+     * Posts whatever is still buffered.
+     */
+    public void flush() {
+        if (pending.isEmpty()) return;
+        List<T> batch = pending;
+        pending = new ArrayList<>();
+        mainHandler.post(() -> sink.onItems(batch));
+    }
+
+    public interface Sink<T> {
+        void onItems(List<T> items);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.wallpaper.data.repository.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import com.example.wallpaper.data.network.ratelimit.RequestPriorityTag;
+import com.squareup.moshi.JsonAdapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.reactivex.rxjava3.disposables.Disposable;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Single-flight registry for Retrofit calls.
+ * Concurrent requests with the same key share one OkHttp call and the result is
+ * fanned out to every listener. Successful responses are memoized for a short
+ * window so an immediate repeat is answered without touching the network.
+ * A higher-priority caller joining a running call promotes that call's lane.
+ * Response bodies are mutable models, so each caller gets a copy of its own and
+ * the memo keeps one nobody else holds. Refreshes neither join nor memoize.
+ * Every caller gets a handle; disposing it stops its delivery, and once no caller
+ * is left waiting on a call the call itself is cancelled.
+ */
+@Singleton
+public class InFlightCallRegistry {
+
+    private static final int MEMO_SIZE = 16;
+    private static final long MEMO_TTL_MS = 10_000L;
+
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+    private final LruCache<String, MemoEntry> memo = new LruCache<>(MEMO_SIZE);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    @Inject
+    public InFlightCallRegistry() {
+    }
+
+    /**
+     * Builds a request key from the call's method and URL.
+     */
+    public static String keyOf(Call<?> call) {
+        return call.request().method() + " " + call.request().url();
+    }
+
+    /**
+     * Enqueues the call unless an identical one is already running or a fresh
+     * memoized response exists. The call is discarded unexecuted in those cases.
+     * Disposing the returned handle guarantees the listener is not called.
+     *
+     * @param adapter copies the response body for each caller
+     */
+    public <T> Disposable enqueue(String key, Call<T> call, JsonAdapter<T> adapter, Listener<T> listener) {
+        return enqueue(key, call, adapter, listener, true);
+    }
+
+    /**
+     * Sends the call even if an identical one is running or memoized, e.g. for
+     * pull-to-refresh: a call that started earlier may return what the refresh is
+     * meant to replace. Drops the memo for the key and does not memoize the result;
+     * later callers may still join the refresh while it runs.
+     */
+    public <T> Disposable refresh(String key, Call<T> call, JsonAdapter<T> adapter, Listener<T> listener) {
+        return enqueue(key, call, adapter, listener, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Disposable enqueue(String key, Call<T> call, JsonAdapter<T> adapter, Listener<T> listener,
+                                   boolean shared) {
+        InFlight running;
+        Registration<T> registration;
+        synchronized (this) {
+            if (shared) {
+                MemoEntry entry = memo.get(key);
+                if (entry != null) {
+                    if (!entry.isExpired()) {
+                        Response<T> response = copyOf((Response<T>) entry.response, adapter);
+                        Registration<T> memoized = new Registration<>(key, null, listener);
+                        mainHandler.post(() -> memoized.onResponse(response));
+                        return memoized;
+                    }
+                    memo.remove(key);
+                }
+
+                running = inFlight.get(key);
+                if (running != null) {
+                    registration = new Registration<>(key, running, listener);
+                    running.registrations.add(registration);
+                    promote(running.call, call);
+                    return registration;
+                }
+            } else {
+                memo.remove(key);
+            }
+
+            // A refresh replaces the running call as the one later callers join; the
+            // replaced call still delivers to the callers it already has
+            running = new InFlight(call, shared);
+            registration = new Registration<>(key, running, listener);
+            running.registrations.add(registration);
+            inFlight.put(key, running);
+        }
+
+        InFlight started = running;
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> ignored, Response<T> response) {
+                List<Registration<?>> registrations;
+                synchronized (InFlightCallRegistry.this) {
+                    // A call a refresh has replaced may be older than what the refresh returns
+                    boolean current = inFlight.get(key) == started;
+                    registrations = finish(key, started);
+                    if (started.memoize && current && response.isSuccessful() && response.body() != null) {
+                        memo.put(key, new MemoEntry(copyOf(response, adapter)));
+                    }
+                }
+                // The first caller takes the decoded body, every other one a copy
+                for (int i = 0; i < registrations.size(); i++) {
+                    Registration<T> waiting = (Registration<T>) registrations.get(i);
+                    waiting.onResponse(i == 0 ? response : copyOf(response, adapter));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> ignored, Throwable t) {
+                List<Registration<?>> registrations;
+                synchronized (InFlightCallRegistry.this) {
+                    registrations = finish(key, started);
+                }
+                for (Registration<?> waiting : registrations) {
+                    waiting.onFailure(t);
+                }
+            }
+        });
+        return registration;
+    }
+
+    /**
+     * Takes the call off the registry and returns the callers still waiting on it.
+     * The key may already belong to a newer call, which is left alone.
+     */
+    private List<Registration<?>> finish(String key, InFlight running) {
+        if (inFlight.get(key) == running) {
+            inFlight.remove(key);
+        }
+        List<Registration<?>> registrations = new ArrayList<>(running.registrations);
+        running.registrations.clear();
+        return registrations;
+    }
+
+    private synchronized void detach(Registration<?> registration) {
+        InFlight running = registration.running;
+        if (running == null || !running.registrations.remove(registration)) return;
+        if (running.registrations.isEmpty()) {
+            if (inFlight.get(registration.key) == running) {
+                inFlight.remove(registration.key);
+            }
+            running.call.cancel();
+        }
+    }
+
+    private static <T> Response<T> copyOf(Response<T> response, JsonAdapter<T> adapter) {
+        T body = response.body();
+        if (body == null) return response;
+        return Response.success(adapter.fromJsonValue(adapter.toJsonValue(body)), response.raw());
+    }
+
+    private static void promote(Call<?> running, Call<?> joining) {
+        RequestPriorityTag runningTag = running.request().tag(RequestPriorityTag.class);
+        RequestPriorityTag joiningTag = joining.request().tag(RequestPriorityTag.class);
+        if (runningTag != null && joiningTag != null) {
+            runningTag.promote(joiningTag.getPriority());
+        }
+    }
+
+    public interface Listener<T> {
+        void onResponse(Response<T> response);
+        void onFailure(Throwable t);
+    }
+
+    private final class Registration<T> implements Disposable {
+        final String key;
+        // Null when answered from the memo
+        final InFlight running;
+        final Listener<T> listener;
+        volatile boolean disposed;
+
+        Registration(String key, InFlight running, Listener<T> listener) {
+            this.key = key;
+            this.running = running;
+            this.listener = listener;
+        }
+
+        void onResponse(Response<T> response) {
+            if (!disposed) listener.onResponse(response);
+        }
+
+        void onFailure(Throwable t) {
+            if (!disposed) listener.onFailure(t);
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            detach(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    private static class InFlight {
+        final Call<?> call;
+        final boolean memoize;
+        final List<Registration<?>> registrations = new ArrayList<>();
+
+        InFlight(Call<?> call, boolean memoize) {
+            this.call = call;
+            this.memoize = memoize;
+        }
+    }
+
+    private static class MemoEntry {
+        final Response<?> response;
+        final long createdAt = SystemClock.elapsedRealtime();
+
+        MemoEntry(Response<?> response) {
+            this.response = response;
+        }
+
+        boolean isExpired() {
+            return SystemClock.elapsedRealtime() - createdAt > MEMO_TTL_MS;
+        }
+    }
+}
@@ -0,0 +1,581 @@
+package com.example.wallpaper.data.repository.util;
+
+import androidx.annotation.Nullable;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import okio.BufferedSource;
+
+/**
+ * Extracts popular tags straight from the HTML stream without building a DOM.
+ * Only the #taglist region is tokenized and reading stops once it closes.
+ * Mirrors {@link WallhavenTagsDocumentParser}, which stays as the fallback when the
+ * markup does not look as expected.
+ */
+public final class WallhavenTagsStreamParser {
+
+    private static final Set<String> VOID_ELEMENTS = new HashSet<>(Arrays.asList(
+            "area", "base", "br", "col", "embed", "hr", "img", "input",
+            "link", "meta", "param", "source", "track", "wbr"));
+
+    private static final Map<String, String> NAMED_ENTITIES = new HashMap<>();
+
+    static {
+        NAMED_ENTITIES.put("amp", "&");
+        NAMED_ENTITIES.put("lt", "<");
+        NAMED_ENTITIES.put("gt", ">");
+        NAMED_ENTITIES.put("quot", "\"");
+        NAMED_ENTITIES.put("apos", "'");
+        NAMED_ENTITIES.put("nbsp", "\u00a0");
+        NAMED_ENTITIES.put("raquo", "\u00bb");
+        NAMED_ENTITIES.put("laquo", "\u00ab");
+        NAMED_ENTITIES.put("middot", "\u00b7");
+        NAMED_ENTITIES.put("hellip", "\u2026");
+        NAMED_ENTITIES.put("ndash", "\u2013");
+        NAMED_ENTITIES.put("mdash", "\u2014");
+        NAMED_ENTITIES.put("copy", "\u00a9");
+    }
+
+    // Roles of open elements that matter for extraction
+    private static final int ROLE_OTHER = 0;
+    private static final int ROLE_TAGLIST = 1;
+    private static final int ROLE_TAGMAIN = 2;
+    private static final int ROLE_NAME_SPAN = 3;
+    private static final int ROLE_CATEGORY_SPAN = 4;
+    private static final int ROLE_CATEGORY_ANCHOR = 5;
+    private static final int ROLE_CREATOR_SPAN = 6;
+    private static final int ROLE_COUNT = 7;
+
+    private WallhavenTagsStreamParser() {}
+
+    /**
+     * Returns the parsed tags, or null if #taglist is missing or its markup is not
+     * understood, in which case the caller should fall back to the DOM parser.
+     */
+    @Nullable
+    public static List<NetworkWallhavenTag> parsePopularTags(BufferedSource source) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(new InputStreamReader(source.inputStream(), StandardCharsets.UTF_8));
+        try {
+            if (!seekTagList(tokenizer)) return null;
+            return readTagList(tokenizer);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean seekTagList(Tokenizer tokenizer) throws IOException {
+        int token;
+        while ((token = tokenizer.next()) != Tokenizer.EOF) {
+            if (token == Tokenizer.START
+                    && "div".equals(tokenizer.tagName)
+                    && "taglist".equals(tokenizer.attributes.get("id"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static List<NetworkWallhavenTag> readTagList(Tokenizer tokenizer) throws IOException {
+        List<NetworkWallhavenTag> tags = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> roles = new ArrayList<>();
+        int[] open = new int[ROLE_COUNT];
+        TagBuilder current = null;
+
+        names.add("div");
+        roles.add(ROLE_TAGLIST);
+        open[ROLE_TAGLIST]++;
+
+        int token;
+        while ((token = tokenizer.next()) != Tokenizer.EOF) {
+            if (token == Tokenizer.TEXT) {
+                if (current != null && open[ROLE_NAME_SPAN] > 0) {
+                    current.name.append(tokenizer.text);
+                }
+                if (current != null && open[ROLE_CATEGORY_ANCHOR] > 0) {
+                    current.categoryText.append(tokenizer.text);
+                }
+            } else if (token == Tokenizer.START) {
+                String name = tokenizer.tagName;
+                int role = ROLE_OTHER;
+
+                if (current == null) {
+                    if ("div".equals(name) && hasClass(tokenizer.attributes.get("class"), "taglist-tagmain")) {
+                        current = new TagBuilder();
+                        role = ROLE_TAGMAIN;
+                    }
+                } else if ("span".equals(name)) {
+                    String cls = tokenizer.attributes.get("class");
+                    if (!current.nameSeen && hasClass(cls, "taglist-name")) {
+                        current.nameSeen = true;
+                        role = ROLE_NAME_SPAN;
+                    } else if (!current.categorySeen && hasClass(cls, "taglist-category")) {
+                        current.categorySeen = true;
+                        role = ROLE_CATEGORY_SPAN;
+                    } else if (!current.creatorSeen && hasClass(cls, "taglist-creator")) {
+                        current.creatorSeen = true;
+                        role = ROLE_CREATOR_SPAN;
+                    }
+                } else if ("a".equals(name)) {
+                    if (open[ROLE_NAME_SPAN] > 0 && current.nameHref == null) {
+                        current.nameHref = attributeOrEmpty(tokenizer, "href");
+                        current.nameClass = tokenizer.attributes.get("class");
+                    }
+                    if (open[ROLE_CATEGORY_SPAN] > 0) {
+                        // Only the last anchor of the category chain is kept
+                        current.categoryHref = attributeOrEmpty(tokenizer, "href");
+                        current.categoryText.setLength(0);
+                        role = ROLE_CATEGORY_ANCHOR;
+                    }
+                } else if ("time".equals(name) && open[ROLE_CREATOR_SPAN] > 0 && current.datetime == null) {
+                    current.datetime = attributeOrEmpty(tokenizer, "datetime");
+                }
+
+                if (!VOID_ELEMENTS.contains(name)) {
+                    names.add(name);
+                    roles.add(role);
+                    open[role]++;
+                }
+            } else if (token == Tokenizer.END) {
+                int index = names.lastIndexOf(tokenizer.tagName);
+                if (index < 0) continue;
+
+                // Closing an element also closes anything left open inside it
+                while (names.size() > index) {
+                    int last = names.size() - 1;
+                    int role = roles.remove(last);
+                    names.remove(last);
+                    open[role]--;
+
+                    if (role == ROLE_TAGMAIN) {
+                        if (current.malformed()) return null;
+                        NetworkWallhavenTag tag = current.build();
+                        if (tag != null) tags.add(tag);
+                        current = null;
+                    } else if (role == ROLE_TAGLIST) {
+                        return tags;
+                    }
+                }
+            }
+        }
+
+        // Truncated document, keep what was read like the DOM parser would
+        if (current != null) {
+            if (current.malformed()) return null;
+            NetworkWallhavenTag tag = current.build();
+            if (tag != null) tags.add(tag);
+        }
+        return tags;
+    }
+
+    private static String attributeOrEmpty(Tokenizer tokenizer, String name) {
+        String value = tokenizer.attributes.get(name);
+        return value != null ? value : "";
+    }
+
+    private static boolean hasClass(@Nullable String classAttribute, String className) {
+        if (classAttribute == null) return false;
+        for (String token : classAttribute.trim().split("\\s+")) {
+            if (token.equalsIgnoreCase(className)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Same result as URL.getPath() split on '/' in the DOM parser, without creating a URL.
+     */
+    static long parseIdFromPath(String href) {
+        int scheme = href.indexOf("://");
+        if (scheme <= 0) return -1L;
+
+        int pathStart = href.indexOf('/', scheme + 3);
+        if (pathStart < 0) return -1L;
+
+        int pathEnd = href.length();
+        int query = href.indexOf('?', pathStart);
+        if (query >= 0) pathEnd = query;
+        int fragment = href.indexOf('#', pathStart);
+        if (fragment >= 0 && fragment < pathEnd) pathEnd = fragment;
+
+        String[] parts = href.substring(pathStart, pathEnd).split("/");
+        try {
+            return parts.length >= 3 ? Long.parseLong(parts[2]) : -1L;
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Collapses whitespace runs into single spaces and trims, like Jsoup's Element.text().
+     */
+    private static String normalizeText(CharSequence text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                pendingSpace = builder.length() > 0;
+            } else {
+                if (pendingSpace) builder.append(' ');
+                builder.append(c);
+                pendingSpace = false;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u00a0';
+    }
+
+    private static String decodeEntities(CharSequence raw) {
+        int amp = indexOf(raw, '&', 0);
+        if (amp < 0) return raw.toString();
+
+        StringBuilder out = new StringBuilder(raw.length());
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            if (c != '&') {
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            int semicolon = indexOf(raw, ';', i + 1);
+            String replacement = null;
+            if (semicolon > i + 1 && semicolon - i <= 10) {
+                String entity = raw.subSequence(i + 1, semicolon).toString();
+                replacement = resolveEntity(entity);
+            }
+            if (replacement != null) {
+                out.append(replacement);
+                i = semicolon + 1;
+            } else {
+                out.append('&');
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    @Nullable
+    private static String resolveEntity(String entity) {
+        if (entity.charAt(0) != '#') {
+            return NAMED_ENTITIES.get(entity);
+        }
+        try {
+            boolean hex = entity.length() > 1 && (entity.charAt(1) == 'x' || entity.charAt(1) == 'X');
+            int codePoint = hex
+                    ? Integer.parseInt(entity.substring(2), 16)
+                    : Integer.parseInt(entity.substring(1));
+            return new String(Character.toChars(codePoint));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int indexOf(CharSequence text, char c, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    private static final class TagBuilder {
+        final StringBuilder name = new StringBuilder();
+        final StringBuilder categoryText = new StringBuilder();
+        boolean nameSeen;
+        boolean categorySeen;
+        boolean creatorSeen;
+        String nameHref;
+        String nameClass;
+        String categoryHref;
+        String datetime;
+
+        /**
+         * A creator without a time element makes the DOM parser fail, so leave it to it.
+         */
+        boolean malformed() {
+            return creatorSeen && datetime == null;
+        }
+
+        @Nullable
+        NetworkWallhavenTag build() {
+            if (!nameSeen || nameHref == null) return null;
+
+            long id = parseIdFromPath(nameHref);
+            if (id == -1) return null;
+
+            String purity = hasClass(nameClass, "nsfw")
+                    ? "nsfw"
+                    : hasClass(nameClass, "sketchy")
+                    ? "sketchy"
+                    : "sfw";
+
+            String category = categoryHref != null ? normalizeText(categoryText) : "";
+            long categoryId = categoryHref != null ? parseIdFromPath(categoryHref) : 0L;
+
+            Instant createdAt;
+            try {
+                createdAt = datetime != null ? Instant.parse(datetime) : Instant.now();
+            } catch (Exception e) {
+                createdAt = Instant.now();
+            }
+
+            return new NetworkWallhavenTag(
+                    id,
+                    normalizeText(name),
+                    "",
+                    categoryId,
+                    category,
+                    purity,
+                    createdAt
+            );
+        }
+    }
+
+    /**
+     * Minimal HTML tokenizer producing start tags with attributes, end tags and
+     * entity-decoded text. Comments, doctypes and script/style contents are skipped.
+     */
+    private static final class Tokenizer {
+        static final int EOF = 0;
+        static final int START = 1;
+        static final int END = 2;
+        static final int TEXT = 3;
+
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int pos;
+        private int limit;
+
+        final Map<String, String> attributes = new HashMap<>();
+        final StringBuilder raw = new StringBuilder();
+        String tagName;
+        String text;
+        private String rawTextElement;
+
+        Tokenizer(Reader reader) {
+            this.reader = reader;
+        }
+
+        int next() throws IOException {
+            if (rawTextElement != null) {
+                return skipRawText();
+            }
+
+            while (true) {
+                int c = peek();
+                if (c == -1) return EOF;
+
+                if (c != '<') {
+                    raw.setLength(0);
+                    readUntil('<');
+                    text = decodeEntities(raw);
+                    return TEXT;
+                }
+
+                pos++;
+                int n = peek();
+                if (n == '!') {
+                    pos++;
+                    skipDeclaration();
+                } else if (n == '?') {
+                    skipPast('>');
+                } else if (n == '/') {
+                    pos++;
+                    tagName = readName();
+                    skipPast('>');
+                    if (!tagName.isEmpty()) return END;
+                } else if (isLetter(n)) {
+                    readStartTag();
+                    return START;
+                } else {
+                    raw.setLength(0);
+                    raw.append('<');
+                    readUntil('<');
+                    text = decodeEntities(raw);
+                    return TEXT;
+                }
+            }
+        }
+
+        private void readStartTag() throws IOException {
+            attributes.clear();
+            tagName = readName();
+
+            while (true) {
+                skipWhitespace();
+                int c = peek();
+                if (c == -1) break;
+                if (c == '>') {
+                    pos++;
+                    break;
+                }
+                if (c == '/') {
+                    pos++;
+                    continue;
+                }
+
+                raw.setLength(0);
+                while ((c = peek()) != -1 && !isSpace(c) && c != '=' && c != '>' && c != '/') {
+                    raw.append((char) c);
+                    pos++;
+                }
+                if (raw.length() == 0) {
+                    pos++;
+                    continue;
+                }
+                String name = raw.toString().toLowerCase(Locale.ROOT);
+
+                skipWhitespace();
+                String value = "";
+                if (peek() == '=') {
+                    pos++;
+                    skipWhitespace();
+                    value = readAttributeValue();
+                }
+                if (!attributes.containsKey(name)) {
+                    attributes.put(name, value);
+                }
+            }
+
+            if ("script".equals(tagName) || "style".equals(tagName)) {
+                rawTextElement = tagName;
+            }
+        }
+
+        private String readAttributeValue() throws IOException {
+            raw.setLength(0);
+            int quote = peek();
+            if (quote == '"' || quote == '\'') {
+                pos++;
+                int c;
+                while ((c = peek()) != -1 && c != quote) {
+                    raw.append((char) c);
+                    pos++;
+                }
+                if (c == quote) pos++;
+            } else {
+                int c;
+                while ((c = peek()) != -1 && !isSpace(c) && c != '>') {
+                    raw.append((char) c);
+                    pos++;
+                }
+            }
+            return decodeEntities(raw);
+        }
+
+        private String readName() throws IOException {
+            raw.setLength(0);
+            int c;
+            while ((c = peek()) != -1 && !isSpace(c) && c != '>' && c != '/') {
+                raw.append((char) c);
+                pos++;
+            }
+            return raw.toString().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Skips script/style contents up to the matching end tag and returns that tag.
+         */
+        private int skipRawText() throws IOException {
+            String end = "</" + rawTextElement;
+            rawTextElement = null;
+            int matched = 0;
+            int c;
+            while ((c = peek()) != -1) {
+                pos++;
+                char lower = Character.toLowerCase((char) c);
+                if (lower == end.charAt(matched)) {
+                    matched++;
+                    if (matched == end.length()) {
+                        tagName = end.substring(2);
+                        skipPast('>');
+                        return END;
+                    }
+                } else {
+                    matched = lower == '<' ? 1 : 0;
+                }
+            }
+            return EOF;
+        }
+
+        private void skipDeclaration() throws IOException {
+            if (peek() == '-') {
+                pos++;
+                if (peek() == '-') {
+                    pos++;
+                    // Comment, skip to "-->"
+                    int dashes = 0;
+                    int c;
+                    while ((c = peek()) != -1) {
+                        pos++;
+                        if (c == '>' && dashes >= 2) return;
+                        dashes = c == '-' ? dashes + 1 : 0;
+                    }
+                    return;
+                }
+            }
+            skipPast('>');
+        }
+
+        private void readUntil(char stop) throws IOException {
+            int c;
+            while ((c = peek()) != -1 && c != stop) {
+                raw.append((char) c);
+                pos++;
+            }
+        }
+
+        private void skipPast(char stop) throws IOException {
+            int c;
+            while ((c = peek()) != -1) {
+                pos++;
+                if (c == stop) return;
+            }
+        }
+
+        private void skipWhitespace() throws IOException {
+            while (isSpace(peek())) {
+                pos++;
+            }
+        }
+
+        private int peek() throws IOException {
+            if (pos >= limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[pos];
+        }
+
+        private static boolean isSpace(int c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+        }
+
+        private static boolean isLetter(int c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+    }
+}
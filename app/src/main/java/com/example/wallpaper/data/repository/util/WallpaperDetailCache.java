@@ -0,0 +1,167 @@
+package com.example.wallpaper.data.repository.util;
+
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.wallpaper.data.database.dao.WallpaperDetailDao;
+import com.example.wallpaper.data.database.entity.WallpaperDetailEntity;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Two-tier cache of wallpaper details keyed by wallpaper id: a bounded in-memory
+ * LRU over the wallpaper_details table.
+ * Search results seed it with partial entries, so the viewer can render at once and
+ * only needs the network for the tags and uploader that search omits.
+ */
+@Singleton
+public class WallpaperDetailCache {
+
+    private static final String TAG = "WallpaperDetailCache";
+    private static final int MEMORY_ENTRIES = 256;
+    // Same freshness as the HTTP cache gives w/{id}
+    private static final long COMPLETE_TTL_MS = TimeUnit.DAYS.toMillis(7);
+    private static final long PERSISTED_MAX_AGE_MS = TimeUnit.DAYS.toMillis(30);
+
+    private final LruCache<String, Entry> memory = new LruCache<>(MEMORY_ENTRIES);
+    private final WallpaperDetailDao wallpaperDetailDao;
+    private final JsonAdapter<NetworkWallhavenWallpaper> adapter;
+    private volatile boolean pruned;
+
+    @Inject
+    public WallpaperDetailCache(WallpaperDetailDao wallpaperDetailDao, Moshi moshi) {
+        this.wallpaperDetailDao = wallpaperDetailDao;
+        this.adapter = moshi.adapter(NetworkWallhavenWallpaper.class);
+    }
+
+    /**
+     * Looks the wallpaper up in memory, then in Room. Completes empty on a miss.
+     */
+    public Maybe<Entry> get(String id) {
+        Entry cached = memory.get(id);
+        if (cached != null) {
+            return Maybe.just(cached);
+        }
+        return wallpaperDetailDao.getById(id)
+                .subscribeOn(Schedulers.io())
+                .flatMap(entity -> {
+                    NetworkWallhavenWallpaper wallpaper = fromJson(entity.getJson());
+                    if (wallpaper == null) return Maybe.empty();
+                    Entry entry = new Entry(wallpaper, entity.isComplete(), entity.getUpdatedAt());
+                    putIfBetter(id, entry);
+                    return Maybe.just(entry);
+                });
+    }
+
+    /**
+     * Stores a full w/{id} response in both tiers.
+     */
+    public void put(NetworkWallhavenWallpaper wallpaper) {
+        if (wallpaper == null || wallpaper.getId() == null) return;
+
+        long now = System.currentTimeMillis();
+        putIfBetter(wallpaper.getId(), new Entry(wallpaper, true, now));
+        persist(() -> wallpaperDetailDao.upsert(
+                new WallpaperDetailEntity(wallpaper.getId(), adapter.toJson(wallpaper), true, now)));
+    }
+
+    /**
+     * Adds partial entries for search results without replacing complete ones.
+     */
+    public void seed(List<NetworkWallhavenWallpaper> wallpapers) {
+        if (wallpapers == null || wallpapers.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        List<NetworkWallhavenWallpaper> seeded = new ArrayList<>(wallpapers.size());
+        for (NetworkWallhavenWallpaper wallpaper : wallpapers) {
+            if (wallpaper.getId() == null) continue;
+            putIfBetter(wallpaper.getId(), new Entry(wallpaper, isComplete(wallpaper), now));
+            seeded.add(wallpaper);
+        }
+
+        persist(() -> {
+            List<WallpaperDetailEntity> entities = new ArrayList<>(seeded.size());
+            for (NetworkWallhavenWallpaper wallpaper : seeded) {
+                entities.add(new WallpaperDetailEntity(wallpaper.getId(), adapter.toJson(wallpaper), isComplete(wallpaper), now));
+            }
+            wallpaperDetailDao.insertIfAbsent(entities);
+            if (!pruned) {
+                pruned = true;
+                wallpaperDetailDao.deleteOlderThan(System.currentTimeMillis() - PERSISTED_MAX_AGE_MS);
+            }
+        });
+    }
+
+    /**
+     * Search results leave out tags and uploader, w/{id} includes both.
+     */
+    public static boolean isComplete(NetworkWallhavenWallpaper wallpaper) {
+        return wallpaper.getTags() != null && wallpaper.getUploader() != null;
+    }
+
+    private void putIfBetter(String id, Entry entry) {
+        synchronized (memory) {
+            Entry existing = memory.get(id);
+            if (existing == null || !existing.complete || entry.complete) {
+                memory.put(id, entry);
+            }
+        }
+    }
+
+    private void persist(Runnable write) {
+        Completable.fromRunnable(write)
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                        () -> {
+                        },
+                        throwable -> Log.w(TAG, "Writing wallpaper details failed", throwable)
+                );
+    }
+
+    private NetworkWallhavenWallpaper fromJson(String json) {
+        if (json == null) return null;
+        try {
+            return adapter.fromJson(json);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Dropping unreadable wallpaper detail", e);
+            return null;
+        }
+    }
+
+    public static final class Entry {
+        private final NetworkWallhavenWallpaper wallpaper;
+        private final boolean complete;
+        private final long updatedAt;
+
+        Entry(NetworkWallhavenWallpaper wallpaper, boolean complete, long updatedAt) {
+            this.wallpaper = wallpaper;
+            this.complete = complete;
+            this.updatedAt = updatedAt;
+        }
+
+        public NetworkWallhavenWallpaper getWallpaper() {
+            return wallpaper;
+        }
+
+        /**
+         * True when the entry is a fresh w/{id} response and needs no refresh.
+         */
+        public boolean isFreshAndComplete() {
+            long age = System.currentTimeMillis() - updatedAt;
+            return complete && age >= 0 && age < COMPLETE_TTL_MS;
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.example.wallpaper.di;
 
 import android.content.Context;
 
+import com.example.wallpaper.data.repository.PopularTagsRepository;
 import com.example.wallpaper.ui.common.ThemePreferenceManager;
 
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import dagger.Module;
@@ -21,4 +25,11 @@ public class ApplicationModule {
     public ThemePreferenceManager provideThemePreferenceManager(@ApplicationContext Context context) {
         return new ThemePreferenceManager(context);
     }
+    
+    // How long the stored popular tags are shown before they are re-fetched
+    @Provides
+    @Named(PopularTagsRepository.TTL_MS)
+    public long providePopularTagsTtl() {
+        return TimeUnit.HOURS.toMillis(6);
+    }
 }
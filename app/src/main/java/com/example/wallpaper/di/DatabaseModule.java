@@ -5,7 +5,11 @@ import android.content.Context;
 import androidx.room.Room;
 
 import com.example.wallpaper.data.database.AppDatabase;
+import com.example.wallpaper.data.database.Migrations;
 import com.example.wallpaper.data.database.dao.FavoriteDao;
+import com.example.wallpaper.data.database.dao.FeedDao;
+import com.example.wallpaper.data.database.dao.PopularTagDao;
+import com.example.wallpaper.data.database.dao.WallpaperDetailDao;
 
 import javax.inject.Singleton;
 
@@ -26,11 +30,26 @@ public class DatabaseModule {
                 context,
                 AppDatabase.class,
                 "wallpaper_database"
-        ).build();
+        ).addMigrations(Migrations.ALL).build();
     }
 
     @Provides
     public FavoriteDao provideFavoriteDao(AppDatabase database) {
         return database.favoriteDao();
     }
+
+    @Provides
+    public PopularTagDao providePopularTagDao(AppDatabase database) {
+        return database.popularTagDao();
+    }
+
+    @Provides
+    public WallpaperDetailDao provideWallpaperDetailDao(AppDatabase database) {
+        return database.wallpaperDetailDao();
+    }
+
+    @Provides
+    public FeedDao provideFeedDao(AppDatabase database) {
+        return database.feedDao();
+    }
 }
@@ -1,33 +1,54 @@
 package com.example.wallpaper.di;
 
+import android.content.Context;
+
+import com.example.wallpaper.BuildConfig;
 import com.example.wallpaper.Constants;
 import com.example.wallpaper.data.network.DocumentConverterFactory;
 import com.example.wallpaper.data.network.NetworkWallhavenApi;
 import com.example.wallpaper.data.network.NetworkWallhavenDataSource;
+import com.example.wallpaper.data.network.PopularTagsConverterFactory;
+import com.example.wallpaper.data.network.cache.CacheControlInterceptor;
+import com.example.wallpaper.data.network.cache.OfflineCacheInterceptor;
+import com.example.wallpaper.data.network.logging.HttpLogConfig;
+import com.example.wallpaper.data.network.logging.SampledHttpLoggingInterceptor;
+import com.example.wallpaper.data.network.metrics.NetworkTimingListener;
 import com.example.wallpaper.data.network.model.serializer.InstantJsonAdapter;
+import com.example.wallpaper.data.network.model.serializer.NetworkWallhavenJsonAdapterFactory;
 import com.example.wallpaper.data.network.model.serializer.NetworkWallhavenMetaQuerySerializer;
+import com.example.wallpaper.data.network.progress.ProgressInterceptor;
+import com.example.wallpaper.data.network.ratelimit.RateLimitInterceptor;
+import com.example.wallpaper.data.network.ratelimit.TooManyRequestsRetryInterceptor;
 import com.squareup.moshi.Moshi;
 
+import java.io.File;
 import java.util.concurrent.TimeUnit;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
 import dagger.hilt.InstallIn;
+import dagger.hilt.android.qualifiers.ApplicationContext;
 import dagger.hilt.components.SingletonComponent;
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.moshi.MoshiConverterFactory;
 
 @Module
 @InstallIn(SingletonComponent.class)
 public class NetworkModule {
+    public static final String IMAGE_CLIENT = "image_client";
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 20L * 1024 * 1024;
+
     @Provides
     @Singleton
     public Moshi provideMoshi() {
         return new Moshi.Builder()
+                .add(new NetworkWallhavenJsonAdapterFactory())
                 .add(new InstantJsonAdapter())
                 .add(new NetworkWallhavenMetaQuerySerializer())
                 .build();
@@ -35,25 +56,70 @@ public class NetworkModule {
 
     @Provides
     @Singleton
-    public OkHttpClient provideOkHttpClient() {
+    public Cache provideHttpCache(@ApplicationContext Context context) {
+        return new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIR), HTTP_CACHE_SIZE);
+    }
+
+    @Provides
+    @Singleton
+    public HttpLogConfig provideHttpLogConfig() {
+        return new HttpLogConfig(BuildConfig.HTTP_LOGGING, BuildConfig.HTTP_LOG_SAMPLE_EVERY, BuildConfig.HTTP_LOG_BODY_BYTES);
+    }
+
+    @Provides
+    @Singleton
+    public OkHttpClient provideOkHttpClient(
+            Cache cache,
+            OfflineCacheInterceptor offlineCacheInterceptor,
+            CacheControlInterceptor cacheControlInterceptor,
+            TooManyRequestsRetryInterceptor tooManyRequestsRetryInterceptor,
+            RateLimitInterceptor rateLimitInterceptor,
+            NetworkTimingListener.Factory networkTimingListenerFactory,
+            HttpLogConfig httpLogConfig
+    ) {
         OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .cache(cache)
+                .eventListenerFactory(networkTimingListenerFactory)
+                .addInterceptor(tooManyRequestsRetryInterceptor)
+                .addInterceptor(offlineCacheInterceptor)
+                .addNetworkInterceptor(rateLimitInterceptor)
+                .addNetworkInterceptor(cacheControlInterceptor)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
                 .connectTimeout(30, TimeUnit.SECONDS);
 
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-            builder.addInterceptor(loggingInterceptor);
+        if (httpLogConfig.isEnabled()) {
+            builder.addInterceptor(new SampledHttpLoggingInterceptor(httpLogConfig));
+        }
 
         return builder.build();
     }
 
+    /**
+     * Client for image downloads. It shares the connection pool and the timing
+     * listener of the API client but none of its interceptors: images have their own
+     * disk cache, are not rate limited and are never logged. It only reports download
+     * progress for the URLs someone is waiting on.
+     */
+    @Provides
+    @Singleton
+    @Named(IMAGE_CLIENT)
+    public OkHttpClient provideImageOkHttpClient(OkHttpClient okHttpClient, ProgressInterceptor progressInterceptor) {
+        OkHttpClient.Builder builder = okHttpClient.newBuilder()
+                .cache(null);
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        builder.addInterceptor(progressInterceptor);
+        return builder.build();
+    }
+
     @Provides
     @Singleton
     public Retrofit provideRetrofit(Moshi moshi, OkHttpClient okHttpClient) {
         return new Retrofit.Builder()
                 .baseUrl(Constants.BASE_URL)
                 .client(okHttpClient)
+                .addConverterFactory(new PopularTagsConverterFactory())
                 .addConverterFactory(new DocumentConverterFactory())
                 .addConverterFactory(MoshiConverterFactory.create(moshi))
                 .build();
@@ -0,0 +1,20 @@
+package com.example.wallpaper.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Where setting a wallpaper is at. The percentage is only meaningful while writing.
+ */
+@Getter
+@AllArgsConstructor
+public class WallpaperApplyProgress {
+    public enum Stage {
+        ENCODING,
+        WRITING,
+        DONE
+    }
+
+    private final Stage stage;
+    private final int percent;
+}
@@ -0,0 +1,29 @@
+package com.example.wallpaper.model;
+
+import android.net.Uri;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Where saving a wallpaper to the device is at. The total is -1 while it is not
+ * known, the saved URI is only set once the wallpaper is done.
+ */
+@Getter
+@AllArgsConstructor
+public class WallpaperDownloadProgress {
+    public enum Stage {
+        DOWNLOADING,
+        WRITING,
+        DONE
+    }
+
+    private final Stage stage;
+    private final long bytes;
+    private final long total;
+    private final Uri savedUri;
+
+    public int getPercent() {
+        return total > 0 ? (int) (bytes * 100 / total) : 0;
+    }
+}
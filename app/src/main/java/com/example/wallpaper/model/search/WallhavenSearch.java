@@ -51,6 +51,13 @@ public class WallhavenSearch extends Search {
         }
     }
     
+    /**
+     * Returns the canonical cache key for this search and page.
+     */
+    public WallhavenSearchKey toKey(int page) {
+        return WallhavenSearchKey.of(this, page);
+    }
+    
     /**
      * Generates API query string for Wallhaven API.
      */
@@ -58,16 +65,14 @@ public class WallhavenSearch extends Search {
         WallhavenFilters combinedFilters = getQueryCombinedFilters();
         List<String> queryParts = new ArrayList<>();
         
-        // Handle included tags
+        // Handle included tags (sorted so equal searches always emit the same query)
         if (!combinedFilters.getIncludedTags().isEmpty()) {
             StringBuilder includedBuilder = new StringBuilder();
-            for (String tag : combinedFilters.getIncludedTags()) {
-                if (!tag.trim().isEmpty()) {
-                    if (includedBuilder.length() > 0) {
-                        includedBuilder.append(" ");
-                    }
-                    includedBuilder.append("+").append(quoteIfSpaced(tag));
+            for (String tag : WallhavenSearchUtils.canonicalTags(combinedFilters.getIncludedTags())) {
+                if (includedBuilder.length() > 0) {
+                    includedBuilder.append(" ");
                 }
+                includedBuilder.append("+").append(quoteIfSpaced(tag));
             }
             if (includedBuilder.length() > 0) {
                 queryParts.add(includedBuilder.toString());
@@ -77,13 +82,11 @@ public class WallhavenSearch extends Search {
         // Handle excluded tags
         if (!combinedFilters.getExcludedTags().isEmpty()) {
             StringBuilder excludedBuilder = new StringBuilder();
-            for (String tag : combinedFilters.getExcludedTags()) {
-                if (!tag.trim().isEmpty()) {
-                    if (excludedBuilder.length() > 0) {
-                        excludedBuilder.append(" ");
-                    }
-                    excludedBuilder.append("-").append(quoteIfSpaced(tag));
+            for (String tag : WallhavenSearchUtils.canonicalTags(combinedFilters.getExcludedTags())) {
+                if (excludedBuilder.length() > 0) {
+                    excludedBuilder.append(" ");
                 }
+                excludedBuilder.append("-").append(quoteIfSpaced(tag));
             }
             if (excludedBuilder.length() > 0) {
                 queryParts.add(excludedBuilder.toString());
@@ -91,8 +94,9 @@ public class WallhavenSearch extends Search {
         }
         
         // Handle username
-        if (combinedFilters.getUsername() != null && !combinedFilters.getUsername().trim().isEmpty()) {
-            queryParts.add("@" + combinedFilters.getUsername());
+        String username = WallhavenSearchUtils.normalizeQueryValue(combinedFilters.getUsername());
+        if (!username.isEmpty()) {
+            queryParts.add("@" + username);
         }
         
         // Handle tag ID
@@ -101,14 +105,15 @@ public class WallhavenSearch extends Search {
         }
         
         // Handle wallpaper ID
-        if (combinedFilters.getWallpaperId() != null && !combinedFilters.getWallpaperId().trim().isEmpty()) {
-            queryParts.add("like:" + combinedFilters.getWallpaperId());
+        String wallpaperId = WallhavenSearchUtils.normalizeQueryValue(combinedFilters.getWallpaperId());
+        if (!wallpaperId.isEmpty()) {
+            queryParts.add("like:" + wallpaperId);
         }
         
         return String.join(" ", queryParts);
     }
     
-    private WallhavenFilters getQueryCombinedFilters() {
+    WallhavenFilters getQueryCombinedFilters() {
         if (query == null || query.trim().isEmpty()) {
             return filters;
         }
@@ -0,0 +1,99 @@
+package com.example.wallpaper.model.search;
+
+import android.util.Size;
+
+import androidx.annotation.NonNull;
+
+import com.example.wallpaper.model.Purity;
+
+import java.nio.charset.StandardCharsets;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Canonical, order-stable key for a WallhavenSearch and page.
+ * Logically identical searches produce the same key regardless of set iteration
+ * order, tag case or whitespace, so every cache and dedup layer can share it.
+ * Every other value is keyed as the request sends it, so equal keys always mean
+ * equal requests.
+ */
+@Getter
+@EqualsAndHashCode(of = "canonical")
+public final class WallhavenSearchKey {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Canonical form of the search without the page, shared by every page of a feed.
+     */
+    private final String feed;
+    private final int page;
+    private final String canonical;
+    private final long hash;
+
+    private WallhavenSearchKey(String feed, int page) {
+        this.feed = feed;
+        this.page = page;
+        this.canonical = feed + "&page=" + page;
+        this.hash = fnv1a64(canonical);
+    }
+
+    public static WallhavenSearchKey of(WallhavenSearch search, int page) {
+        return new WallhavenSearchKey(canonicalFeed(search), page);
+    }
+
+    /**
+     * Returns the key of another page of the same feed.
+     */
+    public WallhavenSearchKey withPage(int page) {
+        return new WallhavenSearchKey(feed, page);
+    }
+
+    /**
+     * Stable 64-bit hash of the feed without the page.
+     */
+    public long getFeedHash() {
+        return fnv1a64(feed);
+    }
+
+    private static String canonicalFeed(WallhavenSearch search) {
+        WallhavenFilters filters = search.getQueryCombinedFilters();
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("in=").append(String.join(",", WallhavenSearchUtils.canonicalTags(filters.getIncludedTags())));
+        builder.append("&ex=").append(String.join(",", WallhavenSearchUtils.canonicalTags(filters.getExcludedTags())));
+        builder.append("&user=").append(WallhavenSearchUtils.normalizeQueryValue(filters.getUsername()));
+        builder.append("&tagId=").append(filters.getTagId() != null ? filters.getTagId() : "");
+        builder.append("&like=").append(WallhavenSearchUtils.normalizeQueryValue(filters.getWallpaperId()));
+        builder.append("&cat=").append(WallhavenFilters.toCategoryInt(filters.getCategories()));
+        builder.append("&purity=").append(Purity.toWallhavenPurityInt(filters.getPurity()));
+        builder.append("&sort=").append(filters.getSorting().getValue());
+        builder.append("&order=").append(filters.getOrder().getValue());
+        builder.append("&range=").append(filters.getTopRange().getValue());
+        Size atleast = filters.getAtleast();
+        builder.append("&atleast=").append(atleast != null ? atleast.getWidth() + "x" + atleast.getHeight() : "");
+        builder.append("&res=").append(String.join(",", WallhavenSearchUtils.canonicalResolutions(filters.getResolutions())));
+        builder.append("&ratios=").append(String.join(",", WallhavenSearchUtils.canonicalRatios(filters.getRatios())));
+        builder.append("&colors=").append(filters.getColors() != null ? Integer.toHexString(filters.getColors()) : "");
+        builder.append("&seed=").append(filters.getSeed() != null ? filters.getSeed() : "");
+
+        return builder.toString();
+    }
+
+    private static long fnv1a64(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return canonical;
+    }
+}
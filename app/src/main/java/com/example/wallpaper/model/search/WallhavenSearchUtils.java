@@ -1,11 +1,17 @@
 package com.example.wallpaper.model.search;
 
 import android.content.Context;
+import android.util.Size;
+
 import com.example.wallpaper.R;
 import com.example.wallpaper.model.Purity;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -73,6 +79,69 @@ public class WallhavenSearchUtils {
         return result.isEmpty() ? null : result;
     }
     
+    /**
+     * Normalizes a tag for querying and keying: trimmed, inner whitespace
+     * collapsed to single spaces and lower-cased.
+     */
+    public static String normalizeTag(String tag) {
+        if (tag == null) {
+            return "";
+        }
+        return tag.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Normalizes a username or wallpaper id for querying and keying: trimmed, and
+     * empty when blank. Case is kept as Wallhaven may not ignore it.
+     */
+    public static String normalizeQueryValue(String value) {
+        return value == null ? "" : value.trim();
+    }
+    
+    /**
+     * Returns the normalized, de-duplicated tags in a stable sorted order.
+     */
+    public static List<String> canonicalTags(Set<String> tags) {
+        TreeSet<String> sorted = new TreeSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                String normalized = normalizeTag(tag);
+                if (!normalized.isEmpty()) {
+                    sorted.add(normalized);
+                }
+            }
+        }
+        return new ArrayList<>(sorted);
+    }
+    
+    /**
+     * Returns resolutions as "WxH" strings ordered by width, then height.
+     */
+    public static List<String> canonicalResolutions(Set<Size> resolutions) {
+        if (resolutions == null) {
+            return new ArrayList<>();
+        }
+        return resolutions.stream()
+                .sorted(Comparator.comparingInt(Size::getWidth).thenComparingInt(Size::getHeight))
+                .map(size -> size.getWidth() + "x" + size.getHeight())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Returns ratios as API strings without spaces, in a stable sorted order.
+     */
+    public static List<String> canonicalRatios(Set<WallhavenRatio> ratios) {
+        if (ratios == null) {
+            return new ArrayList<>();
+        }
+        return ratios.stream()
+                .map(ratio -> ratio.toRatioString().replace(" ", ""))
+                .sorted()
+                .distinct()
+                .collect(Collectors.toList());
+    }
+    
     private WallhavenSearchUtils() {
         // Utility class - prevent instantiation
     }
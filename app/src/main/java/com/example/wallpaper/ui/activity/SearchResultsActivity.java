@@ -12,11 +12,13 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
+import com.bumptech.glide.Glide;
 import com.example.wallpaper.R;
-import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
 import com.example.wallpaper.databinding.ActivitySearchResultsBinding;
 import com.example.wallpaper.model.Order;
 import com.example.wallpaper.model.Purity;
@@ -25,12 +27,14 @@ import com.example.wallpaper.model.search.WallhavenRatio;
 import com.example.wallpaper.model.search.WallhavenSorting;
 import com.example.wallpaper.model.search.WallhavenTopRange;
 import com.example.wallpaper.ui.adapter.WallpaperAdapter;
+import com.example.wallpaper.ui.common.GridPreloader;
 import com.example.wallpaper.ui.viewmodel.SearchResultsViewModel;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import dagger.hilt.android.AndroidEntryPoint;
+import kotlin.Unit;
 
 @AndroidEntryPoint
 public class SearchResultsActivity extends AppCompatActivity {
@@ -39,6 +43,10 @@ public class SearchResultsActivity extends AppCompatActivity {
     private SearchResultsViewModel viewModel;
     private WallpaperAdapter adapter;
     private boolean isSwipeRefreshing = false;
+    private Integer pendingScrollPosition;
+    private LoadState.Error shownError;
+
+    private enum UiState { LOADING, EMPTY, RESULTS }
 
     public static Intent newIntent(Context context, String keyword, String tags,
                                   List<WallhavenCategory> categories, List<Purity> purities,
@@ -99,9 +107,10 @@ public class SearchResultsActivity extends AppCompatActivity {
         binding.recyclerView.setLayoutManager(layoutManager);
         binding.recyclerView.setAdapter(adapter);
         binding.recyclerView.setItemAnimator(null);
+        new GridPreloader(Glide.with(this), adapter).attach(binding.recyclerView);
 
         adapter.setOnWallpaperClickListener(wallpaper -> 
-            WallpaperViewerActivity.start(this, wallpaper.getPath(), wallpaper.getId())
+            WallpaperViewerActivity.start(this, wallpaper.getPath(), wallpaper.getId(), adapter.getThumbnailUrl(wallpaper))
         );
         
         adapter.setOnFavoriteClickListener(wallpaper -> {
@@ -112,28 +121,10 @@ public class SearchResultsActivity extends AppCompatActivity {
             return viewModel.isFavorite(wallpaper);
         });
 
-        // Add infinite scrolling
-        binding.recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
-            @Override
-            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
-                super.onScrolled(recyclerView, dx, dy);
-
-                if (dy > 0) { // Only check when scrolling down
-                    StaggeredGridLayoutManager layoutManager = (StaggeredGridLayoutManager) recyclerView.getLayoutManager();
-                    if (layoutManager != null) {
-                        int[] lastVisibleItemPositions = layoutManager.findLastVisibleItemPositions(null);
-                        int lastVisibleItem = Math.max(lastVisibleItemPositions[0], lastVisibleItemPositions[1]);
-                        int totalItemCount = layoutManager.getItemCount();
-
-                        // Load more when near the end (5 items before the end)
-                        if (lastVisibleItem >= totalItemCount - 5 &&
-                                !Boolean.TRUE.equals(viewModel.loading.getValue()) &&
-                                !Boolean.TRUE.equals(viewModel.loadingMore.getValue())) {
-                            viewModel.loadMoreWallpapers();
-                        }
-                    }
-                }
-            }
+        // Paging loads further pages itself, only loading, empty and error states are shown here
+        adapter.addLoadStateListener(loadStates -> {
+            updateLoadState(loadStates);
+            return Unit.INSTANCE;
         });
     }
 
@@ -147,41 +138,20 @@ public class SearchResultsActivity extends AppCompatActivity {
         binding.swipeRefresh.setOnRefreshListener(() -> {
             isSwipeRefreshing = true;
             viewModel.refreshSearch();
+            adapter.refresh();
         });
     }
 
     private void observeViewModel() {
-        viewModel.wallpapers.observe(this, wallpapers -> {
-            if (wallpapers != null) {
-                adapter.setWallpapers(wallpapers);
-                updateUIState(wallpapers.isEmpty());
-            } else {
-                // Loading state
-                adapter.setWallpapers(new ArrayList<>());
-                updateUIState(false);
-            }
-        });
-
-        viewModel.loading.observe(this, loading -> {
-            // Show center loading indicator only if not doing swipe refresh and wallpapers is null
-            boolean isLoadingState = loading && !isSwipeRefreshing && viewModel.wallpapers.getValue() == null;
-            if (isLoadingState) {
-                binding.progressIndicator.setIndeterminate(true);
-                showProgressIndicator();
-            } else {
-                hideProgressIndicator();
-            }
-            
-            // Handle swipe refresh loading
-            binding.swipeRefresh.setRefreshing(loading && isSwipeRefreshing);
-            
-            // Reset swipe refresh flag when loading completes
-            if (!loading) {
-                isSwipeRefreshing = false;
-            }
+        viewModel.wallpapers.observe(this, pagingData -> {
+            adapter.submitData(getLifecycle(), pagingData);
         });
 
-        viewModel.loadingMore.observe(this, loadingMore -> {
+        viewModel.restoredScrollPosition.observe(this, position -> {
+            if (position == null) return;
+            // Applied once the stored results around the position have been loaded
+            pendingScrollPosition = position;
+            viewModel.onRestoredScrollHandled();
         });
 
         viewModel.error.observe(this, error -> {
@@ -196,6 +166,76 @@ public class SearchResultsActivity extends AppCompatActivity {
         });
     }
 
+    private void updateLoadState(CombinedLoadStates loadStates) {
+        boolean loading = loadStates.getRefresh() instanceof LoadState.Loading;
+        boolean isEmpty = adapter.getItemCount() == 0;
+
+        // Show center loading indicator only if not doing swipe refresh and nothing is shown yet
+        if (loading && !isSwipeRefreshing && isEmpty) {
+            binding.progressIndicator.setIndeterminate(true);
+            showProgressIndicator();
+        } else {
+            hideProgressIndicator();
+        }
+
+        // Handle swipe refresh loading
+        binding.swipeRefresh.setRefreshing(loading && isSwipeRefreshing);
+
+        // Reset swipe refresh flag when loading completes
+        if (!loading) {
+            isSwipeRefreshing = false;
+        }
+
+        if (!isEmpty) {
+            updateUIState(UiState.RESULTS);
+        } else if (loadStates.getAppend().getEndOfPaginationReached()
+                || loadStates.getRefresh() instanceof LoadState.Error) {
+            updateUIState(UiState.EMPTY);
+        } else {
+            updateUIState(UiState.LOADING);
+        }
+
+        if (pendingScrollPosition != null
+                && loadStates.getSource().getRefresh() instanceof LoadState.NotLoading
+                && !isEmpty) {
+            StaggeredGridLayoutManager layoutManager = (StaggeredGridLayoutManager) binding.recyclerView.getLayoutManager();
+            if (layoutManager != null) {
+                layoutManager.scrollToPositionWithOffset(Math.min(pendingScrollPosition, adapter.getItemCount() - 1), 0);
+            }
+            pendingScrollPosition = null;
+        }
+
+        LoadState.Error error = null;
+        if (loadStates.getRefresh() instanceof LoadState.Error) {
+            error = (LoadState.Error) loadStates.getRefresh();
+        } else if (loadStates.getAppend() instanceof LoadState.Error) {
+            error = (LoadState.Error) loadStates.getAppend();
+        }
+        if (error != null && error != shownError) {
+            shownError = error;
+            Toast.makeText(this, "Failed to search wallpapers: " + error.getError().getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        viewModel.saveScrollPosition(findFirstVisibleWallpaper());
+    }
+
+    private int findFirstVisibleWallpaper() {
+        StaggeredGridLayoutManager layoutManager = (StaggeredGridLayoutManager) binding.recyclerView.getLayoutManager();
+        if (layoutManager == null) return RecyclerView.NO_POSITION;
+
+        int first = RecyclerView.NO_POSITION;
+        for (int position : layoutManager.findFirstVisibleItemPositions(null)) {
+            if (position != RecyclerView.NO_POSITION && (first == RecyclerView.NO_POSITION || position < first)) {
+                first = position;
+            }
+        }
+        return first;
+    }
+
     private void performSearchFromIntent() {
         Intent intent = getIntent();
         
@@ -215,13 +255,12 @@ public class SearchResultsActivity extends AppCompatActivity {
                 minWidth, minHeight, resolutions, ratios, topRange);
     }
 
-    private void updateUIState(boolean isEmpty) {
-        List<NetworkWallhavenWallpaper> wallpapers = viewModel.wallpapers.getValue();
-        if (wallpapers == null) {
+    private void updateUIState(UiState state) {
+        if (state == UiState.LOADING) {
             // Loading state - hide both empty state and RecyclerView, center loading will show
             binding.emptyState.setVisibility(android.view.View.GONE);
             binding.swipeRefresh.setVisibility(android.view.View.GONE);
-        } else if (isEmpty) {
+        } else if (state == UiState.EMPTY) {
             // Show empty state, hide RecyclerView
             binding.emptyState.setVisibility(android.view.View.VISIBLE);
             binding.swipeRefresh.setVisibility(android.view.View.GONE);
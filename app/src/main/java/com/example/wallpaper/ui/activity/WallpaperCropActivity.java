@@ -4,7 +4,7 @@ import android.app.WallpaperManager;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
@@ -21,16 +21,29 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.request.target.CustomTarget;
 import com.bumptech.glide.request.transition.Transition;
 import com.canhub.cropper.CropImageView;
 import com.example.wallpaper.R;
+import com.example.wallpaper.data.image.RegionCropper;
+import com.example.wallpaper.data.image.OriginalImageStore;
+import com.example.wallpaper.data.image.TiledImageDecoder;
+import com.example.wallpaper.data.repository.SystemWallpaperRepository;
 import com.example.wallpaper.databinding.ActivityWallpaperCropBinding;
+import com.example.wallpaper.model.WallpaperApplyProgress;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 
+import javax.inject.Inject;
+
 import dagger.hilt.android.AndroidEntryPoint;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
 @AndroidEntryPoint
 public class WallpaperCropActivity extends AppCompatActivity {
@@ -41,8 +54,16 @@ public class WallpaperCropActivity extends AppCompatActivity {
     private ActivityWallpaperCropBinding binding;
     private String wallpaperPath;
     private String wallpaperId;
-    private Bitmap originalBitmap;
-    private WallpaperManager wallpaperManager;
+    private Bitmap previewBitmap;
+    private TiledImageDecoder sourceDecoder;
+    private RegionCropper cropper;
+    private final CompositeDisposable disposables = new CompositeDisposable();
+    
+    @Inject
+    SystemWallpaperRepository systemWallpaperRepository;
+    
+    @Inject
+    OriginalImageStore originalImageStore;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -57,8 +78,6 @@ public class WallpaperCropActivity extends AppCompatActivity {
             return insets;
         });
         
-        wallpaperManager = WallpaperManager.getInstance(this);
-        
         getIntentData();
         setupUI();
         loadWallpaper();
@@ -88,16 +107,62 @@ public class WallpaperCropActivity extends AppCompatActivity {
     }
     
     private void loadWallpaper() {
+        // getIntentData() is already finishing the activity
+        if (wallpaperPath == null) return;
+        
+        if (!isRemote(wallpaperPath)) {
+            openSource(wallpaperPath.startsWith("/") ? Uri.fromFile(new File(wallpaperPath)) : Uri.parse(wallpaperPath));
+            return;
+        }
+        
+        // The viewer has usually stored the original already
+        disposables.add(originalImageStore.fetch(wallpaperId != null ? wallpaperId : wallpaperPath, wallpaperPath)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(file -> openSource(Uri.fromFile(file)), throwable -> showLoadFailed()));
+    }
+    
+    // Only a screen-sized preview is decoded for cropping on, the crop itself is
+    // decoded from the source later
+    private void openSource(Uri uri) {
+        Context context = getApplicationContext();
+        BitmapPool bitmapPool = Glide.get(context).getBitmapPool();
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        // Not disposed with the screen: a disposed Single would drop the decoder and
+        // leak its open file, so a source that arrives after onDestroy is closed instead
+        Single.fromCallable(() -> {
+                    TiledImageDecoder decoder = TiledImageDecoder.open(context, uri, bitmapPool);
+                    Bitmap preview = decoder.decodeAll(decoder.sampleSizeToFit(metrics.widthPixels, metrics.heightPixels));
+                    if (preview == null) {
+                        decoder.close();
+                        throw new IOException("Could not decode " + uri);
+                    }
+                    return new Source(decoder, preview);
+                })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(source -> {
+                    if (isDestroyed()) {
+                        source.decoder.close();
+                        return;
+                    }
+                    sourceDecoder = source.decoder;
+                    cropper = new RegionCropper(source.decoder, source.preview);
+                    showPreview(source.preview);
+                }, throwable -> {
+                    if (!isDestroyed()) loadFullBitmap(uri);
+                });
+    }
+    
+    // For formats BitmapRegionDecoder cannot read, e.g. GIF: crops the whole image in memory
+    private void loadFullBitmap(Uri uri) {
         Glide.with(this)
                 .asBitmap()
-                .load(wallpaperPath)
+                .load(uri)
+                .format(DecodeFormat.PREFER_ARGB_8888)
                 .into(new CustomTarget<Bitmap>() {
                     @Override
                     public void onResourceReady(@NonNull Bitmap resource, @Nullable Transition<? super Bitmap> transition) {
-                        originalBitmap = resource;
-                        setupCropView(resource);
-                        binding.progressBar.setVisibility(View.GONE);
-                        binding.cropButtonsLayout.setVisibility(View.VISIBLE);
+                        showPreview(resource);
                     }
                     
                     @Override
@@ -108,12 +173,27 @@ public class WallpaperCropActivity extends AppCompatActivity {
                     @Override
                     public void onLoadFailed(@Nullable Drawable errorDrawable) {
                         super.onLoadFailed(errorDrawable);
-                        binding.progressBar.setVisibility(View.GONE);
-                        Toast.makeText(WallpaperCropActivity.this, "Failed to load wallpaper", Toast.LENGTH_SHORT).show();
+                        showLoadFailed();
                     }
                 });
     }
     
+    private void showPreview(Bitmap preview) {
+        previewBitmap = preview;
+        setupCropView(preview);
+        binding.progressBar.setVisibility(View.GONE);
+        binding.cropButtonsLayout.setVisibility(View.VISIBLE);
+    }
+    
+    private void showLoadFailed() {
+        binding.progressBar.setVisibility(View.GONE);
+        Toast.makeText(this, "Failed to load wallpaper", Toast.LENGTH_SHORT).show();
+    }
+    
+    private static boolean isRemote(String path) {
+        return path.startsWith("http://") || path.startsWith("https://");
+    }
+    
     private void setupCropView(Bitmap bitmap) {
         binding.cropImageView.setImageBitmap(bitmap);
         
@@ -135,55 +215,121 @@ public class WallpaperCropActivity extends AppCompatActivity {
     }
     
     private void setWallpaper(int flag) {
-        if (originalBitmap == null) {
+        if (previewBitmap == null) {
             Toast.makeText(this, "Wallpaper not loaded yet", Toast.LENGTH_SHORT).show();
             return;
         }
         
-        try {
-            Bitmap croppedBitmap = binding.cropImageView.getCroppedImage();
-            
-            if (croppedBitmap == null) {
-                Toast.makeText(this, "Failed to crop image", Toast.LENGTH_SHORT).show();
-                return;
-            }
-            
-            wallpaperManager.setBitmap(croppedBitmap, null, true, flag);
-            
-            String message;
-            switch (flag) {
-                case WallpaperManager.FLAG_SYSTEM:
-                    message = "Home screen wallpaper set successfully!";
-                    break;
-                case WallpaperManager.FLAG_LOCK:
-                    message = "Lock screen wallpaper set successfully!";
-                    break;
-                case WallpaperManager.FLAG_SYSTEM | WallpaperManager.FLAG_LOCK:
-                    message = "Wallpaper set for both screens successfully!";
-                    break;
-                default:
-                    message = "Wallpaper set successfully!";
-                    break;
-            }
-            
-            Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
-            setResult(RESULT_OK);
-            finish();
-            
-        } catch (IOException e) {
-            e.printStackTrace();
-            Toast.makeText(this, "Failed to set wallpaper: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-        } catch (Exception e) {
-            e.printStackTrace();
-            Toast.makeText(this, "An error occurred while setting wallpaper", Toast.LENGTH_SHORT).show();
+        if (cropper == null) {
+            applyWallpaper(binding.cropImageView.getCroppedImage(), flag);
+            return;
         }
+        
+        Rect cropRect = binding.cropImageView.getCropRect();
+        if (cropRect == null) {
+            Toast.makeText(this, "Failed to crop image", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        binding.progressBar.setVisibility(View.VISIBLE);
+        setButtonsEnabled(false);
+        disposables.add(Single.fromCallable(() -> {
+                    Bitmap cropped = cropper.crop(cropRect, metrics.widthPixels, metrics.heightPixels);
+                    if (cropped == null) throw new IOException("Could not decode the cropped region");
+                    return cropped;
+                })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(cropped -> applyWallpaper(cropped, flag), throwable -> {
+                    binding.progressBar.setVisibility(View.GONE);
+                    setButtonsEnabled(true);
+                    Toast.makeText(this, "Failed to crop image", Toast.LENGTH_SHORT).show();
+                }));
+    }
+    
+    private void setButtonsEnabled(boolean enabled) {
+        binding.setHomeScreenButton.setEnabled(enabled);
+        binding.setLockScreenButton.setEnabled(enabled);
+        binding.setBothButton.setEnabled(enabled);
+    }
+    
+    // Hands the crop to SystemWallpaperRepository; the wallpaper is still set if the
+    // user leaves this screen before it is done
+    private void applyWallpaper(@Nullable Bitmap croppedBitmap, int flag) {
+        if (croppedBitmap == null) {
+            binding.progressBar.setVisibility(View.GONE);
+            setButtonsEnabled(true);
+            Toast.makeText(this, "Failed to crop image", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        
+        binding.progressBar.setVisibility(View.VISIBLE);
+        setButtonsEnabled(false);
+        disposables.add(systemWallpaperRepository.apply(croppedBitmap, flag)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(progress -> {
+                    if (progress.getStage() == WallpaperApplyProgress.Stage.WRITING && progress.getPercent() > 0) {
+                        binding.progressBar.setIndeterminate(false);
+                        binding.progressBar.setProgressCompat(progress.getPercent(), true);
+                    } else if (progress.getStage() == WallpaperApplyProgress.Stage.DONE) {
+                        onWallpaperApplied(flag);
+                    }
+                }, throwable -> {
+                    binding.progressBar.setVisibility(View.GONE);
+                    binding.progressBar.setIndeterminate(true);
+                    setButtonsEnabled(true);
+                    Toast.makeText(this, "Failed to set wallpaper: " + throwable.getMessage(), Toast.LENGTH_SHORT).show();
+                }));
+    }
+    
+    private void onWallpaperApplied(int flag) {
+        String message;
+        switch (flag) {
+            case WallpaperManager.FLAG_SYSTEM:
+                message = "Home screen wallpaper set successfully!";
+                break;
+            case WallpaperManager.FLAG_LOCK:
+                message = "Lock screen wallpaper set successfully!";
+                break;
+            case WallpaperManager.FLAG_SYSTEM | WallpaperManager.FLAG_LOCK:
+                message = "Wallpaper set for both screens successfully!";
+                break;
+            default:
+                message = "Wallpaper set successfully!";
+                break;
+        }
+        
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+        setResult(RESULT_OK);
+        finish();
     }
     
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        disposables.clear();
+        if (sourceDecoder != null) {
+            // Off the main thread, close() waits for a decode that is still running
+            TiledImageDecoder decoder = sourceDecoder;
+            Schedulers.io().scheduleDirect(decoder::close);
+            sourceDecoder = null;
+        }
         // Don't manually recycle bitmaps loaded by Glide
         // Glide manages bitmap lifecycle automatically
         binding = null;
     }
+    
+    /**
+     * Result of opening a wallpaper for cropping.
+     */
+    private static class Source {
+        final TiledImageDecoder decoder;
+        final Bitmap preview;
+        
+        Source(TiledImageDecoder decoder, Bitmap preview) {
+            this.decoder = decoder;
+            this.preview = preview;
+        }
+    }
 }
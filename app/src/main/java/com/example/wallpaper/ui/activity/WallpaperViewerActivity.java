@@ -5,8 +5,10 @@ import android.content.Intent;
 import android.content.res.ColorStateList;
 import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
+import android.net.Uri;
 import android.os.Bundle;
 import android.text.format.Formatter;
+import android.util.DisplayMetrics;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.Toast;
@@ -23,26 +25,44 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.activity.OnBackPressedCallback;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.request.target.CustomTarget;
 import com.bumptech.glide.request.transition.Transition;
 import com.example.wallpaper.R;
+import com.example.wallpaper.data.image.OriginalImageStore;
+import com.example.wallpaper.data.image.TiledImageDecoder;
 import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
 import com.example.wallpaper.data.network.model.NetworkWallhavenUploader;
+import com.example.wallpaper.data.network.progress.ProgressInterceptor;
+import com.example.wallpaper.data.network.progress.ProgressListener;
 import com.example.wallpaper.databinding.ActivityWallpaperViewerBinding;
 import com.example.wallpaper.databinding.BottomSheetWallpaperInfoBinding;
 import com.example.wallpaper.model.LocalWallpaper;
+import com.example.wallpaper.model.WallpaperDownloadProgress;
 import com.example.wallpaper.ui.viewmodel.WallpaperViewerViewModel;
 import com.google.android.material.bottomsheet.BottomSheetBehavior;
 import com.google.android.material.chip.Chip;
 
+import java.io.File;
+import java.io.IOException;
+
+import javax.inject.Inject;
+
 import dagger.hilt.android.AndroidEntryPoint;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
 @AndroidEntryPoint
 public class WallpaperViewerActivity extends AppCompatActivity {
     
     private static final String EXTRA_WALLPAPER_PATH = "wallpaper_path";
     private static final String EXTRA_WALLPAPER_ID = "wallpaper_id";
+    private static final String EXTRA_THUMBNAIL_URL = "thumbnail_url";
     private static final int REQUEST_CROP_WALLPAPER = 1001;
     
     private ActivityWallpaperViewerBinding binding;
@@ -51,14 +71,33 @@ public class WallpaperViewerActivity extends AppCompatActivity {
     private WallpaperViewerViewModel viewModel;
     private String wallpaperPath;
     private String wallpaperId;
+    private String thumbnailUrl;
     private Bitmap currentBitmap;
+    private CustomTarget<Bitmap> thumbnailTarget;
+    private ProgressListener progressListener;
+    private final CompositeDisposable disposables = new CompositeDisposable();
     private OnBackPressedCallback onBackPressedCallback;
     private boolean isBottomSheetReady = false;
     
+    @Inject
+    ProgressInterceptor progressInterceptor;
+    
+    @Inject
+    OriginalImageStore originalImageStore;
+    
     public static void start(Context context, String wallpaperPath, String wallpaperId) {
+        start(context, wallpaperPath, wallpaperId, null);
+    }
+    
+    /**
+     * @param thumbnailUrl thumbnail the grid cell showed, displayed from cache until
+     *                     the full image is loaded; may be null
+     */
+    public static void start(Context context, String wallpaperPath, String wallpaperId, @Nullable String thumbnailUrl) {
         Intent intent = new Intent(context, WallpaperViewerActivity.class);
         intent.putExtra(EXTRA_WALLPAPER_PATH, wallpaperPath);
         intent.putExtra(EXTRA_WALLPAPER_ID, wallpaperId);
+        intent.putExtra(EXTRA_THUMBNAIL_URL, thumbnailUrl);
         context.startActivity(intent);
     }
     
@@ -92,6 +131,7 @@ public class WallpaperViewerActivity extends AppCompatActivity {
         Intent intent = getIntent();
         wallpaperPath = intent.getStringExtra(EXTRA_WALLPAPER_PATH);
         wallpaperId = intent.getStringExtra(EXTRA_WALLPAPER_ID);
+        thumbnailUrl = intent.getStringExtra(EXTRA_THUMBNAIL_URL);
         
         if (wallpaperPath == null || wallpaperPath.isEmpty()) {
             Toast.makeText(this, "Error: Invalid wallpaper", Toast.LENGTH_SHORT).show();
@@ -127,6 +167,14 @@ public class WallpaperViewerActivity extends AppCompatActivity {
                 Toast.makeText(this, error, Toast.LENGTH_SHORT).show();
             }
         });
+        
+        viewModel.saveProgress.observe(this, progress -> {
+            boolean saving = progress != null && progress.getStage() != WallpaperDownloadProgress.Stage.DONE;
+            binding.saveButton.setEnabled(!saving);
+            if (progress != null && progress.getStage() == WallpaperDownloadProgress.Stage.DONE) {
+                Toast.makeText(this, R.string.wallpaper_saved, Toast.LENGTH_SHORT).show();
+            }
+        });
     }
     
     private void updateFavoriteButton(Boolean isFavorite) {
@@ -140,17 +188,90 @@ public class WallpaperViewerActivity extends AppCompatActivity {
     }
     
     private void loadWallpaper() {
+        // getIntentData() is already finishing the activity
+        if (wallpaperPath == null) return;
+        
+        showCachedThumbnail();
+        progressListener = (bytesRead, contentLength, done) ->
+                runOnUiThread(() -> showDownloadProgress(bytesRead, contentLength));
+        progressInterceptor.register(wallpaperPath, progressListener);
+        
+        if (!isRemote(wallpaperPath)) {
+            openTiled(wallpaperPath.startsWith("/") ? Uri.fromFile(new File(wallpaperPath)) : Uri.parse(wallpaperPath));
+            return;
+        }
+        
+        // Shared with the crop screen and saving, whichever comes first downloads it
+        disposables.add(originalImageStore.fetch(wallpaperId != null ? wallpaperId : wallpaperPath, wallpaperPath)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(file -> {
+                    progressInterceptor.unregister(wallpaperPath, progressListener);
+                    openTiled(Uri.fromFile(file));
+                }, throwable -> {
+                    progressInterceptor.unregister(wallpaperPath, progressListener);
+                    showLoadFailed();
+                }));
+    }
+    
+    // Decodes a screen-sized base layer for PhotoView and hands the image to the tile
+    // overlay, so an 8K original never sits in memory at full resolution
+    private void openTiled(Uri uri) {
+        Context context = getApplicationContext();
+        BitmapPool bitmapPool = Glide.get(context).getBitmapPool();
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        // Not disposed with the screen: a disposed Single would drop the decoder and
+        // leak its open file, so a layer that arrives after onDestroy is closed instead
+        Single.fromCallable(() -> {
+                    TiledImageDecoder decoder = TiledImageDecoder.open(context, uri, bitmapPool);
+                    int sampleSize = decoder.sampleSizeToFit(metrics.widthPixels, metrics.heightPixels);
+                    Bitmap base = decoder.decodeAll(sampleSize);
+                    if (base == null) {
+                        decoder.close();
+                        throw new IOException("Could not decode " + uri);
+                    }
+                    return new BaseLayer(decoder, sampleSize, base);
+                })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(layer -> {
+                    if (isDestroyed()) {
+                        layer.decoder.close();
+                        return;
+                    }
+                    showBaseLayer(layer);
+                }, throwable -> {
+                    if (!isDestroyed()) loadFullBitmap(uri);
+                });
+    }
+    
+    private void showBaseLayer(BaseLayer layer) {
+        // Zooming in as far as one image pixel per screen pixel, the tiles keep it sharp
+        float fit = Math.min((float) binding.wallpaperImageView.getWidth() / layer.decoder.getWidth(),
+                (float) binding.wallpaperImageView.getHeight() / layer.decoder.getHeight());
+        if (fit > 0) {
+            binding.wallpaperImageView.setMaximumScale(
+                    Math.max(binding.wallpaperImageView.getMaximumScale(), 1f / fit));
+        }
+        
+        binding.wallpaperImageView.setOnMatrixChangeListener(binding.tileOverlay::setDisplayRect);
+        showWallpaper(layer.base);
+        binding.tileOverlay.setImage(layer.decoder, layer.sampleSize, Glide.get(this).getBitmapPool());
+        if (binding.wallpaperImageView.getDisplayRect() != null) {
+            binding.tileOverlay.setDisplayRect(binding.wallpaperImageView.getDisplayRect());
+        }
+    }
+    
+    // For formats BitmapRegionDecoder cannot read, e.g. GIF: the whole image in one bitmap
+    private void loadFullBitmap(Uri uri) {
+        // Full-screen wallpaper keeps full color depth, only the grids decode as RGB_565
         Glide.with(this)
                 .asBitmap()
-                .load(wallpaperPath)
+                .load(uri)
+                .format(DecodeFormat.PREFER_ARGB_8888)
                 .into(new CustomTarget<Bitmap>() {
                     @Override
                     public void onResourceReady(@NonNull Bitmap resource, @Nullable Transition<? super Bitmap> transition) {
-                        currentBitmap = resource;
-                        binding.wallpaperImageView.setImageBitmap(resource);
-                        binding.progressBar.setVisibility(View.GONE);
-                        binding.bottomActionContainer.setVisibility(View.VISIBLE);
-                        binding.applyWallpaperButton.setVisibility(View.VISIBLE);
+                        showWallpaper(resource);
                     }
                     
                     @Override
@@ -160,12 +281,77 @@ public class WallpaperViewerActivity extends AppCompatActivity {
                     @Override
                     public void onLoadFailed(@Nullable Drawable errorDrawable) {
                         super.onLoadFailed(errorDrawable);
-                        binding.progressBar.setVisibility(View.GONE);
-                        Toast.makeText(WallpaperViewerActivity.this, "Failed to load wallpaper", Toast.LENGTH_SHORT).show();
+                        showLoadFailed();
                     }
                 });
     }
     
+    private void showWallpaper(Bitmap bitmap) {
+        currentBitmap = bitmap;
+        binding.wallpaperImageView.setImageBitmap(bitmap);
+        binding.wallpaperImageView.setZoomable(true);
+        binding.progressBar.setVisibility(View.GONE);
+        binding.bottomActionContainer.setVisibility(View.VISIBLE);
+        binding.applyWallpaperButton.setVisibility(View.VISIBLE);
+        releaseThumbnail();
+    }
+    
+    private void showLoadFailed() {
+        binding.progressBar.setVisibility(View.GONE);
+        Toast.makeText(this, "Failed to load wallpaper", Toast.LENGTH_SHORT).show();
+    }
+    
+    private static boolean isRemote(String path) {
+        return path.startsWith("http://") || path.startsWith("https://");
+    }
+    
+    // Shows the grid's thumbnail while the full image downloads. It is only taken
+    // from Glide's caches, never downloaded again.
+    private void showCachedThumbnail() {
+        if (thumbnailUrl == null || thumbnailUrl.isEmpty()) return;
+        
+        // Zooming into the thumbnail would only show a blurry image and reset on the swap
+        binding.wallpaperImageView.setZoomable(false);
+        thumbnailTarget = new CustomTarget<Bitmap>() {
+            @Override
+            public void onResourceReady(@NonNull Bitmap resource, @Nullable Transition<? super Bitmap> transition) {
+                if (currentBitmap == null) {
+                    binding.wallpaperImageView.setImageBitmap(resource);
+                }
+            }
+            
+            @Override
+            public void onLoadCleared(@Nullable Drawable placeholder) {
+                // The bitmap goes back to Glide's pool, it must not stay on screen
+                if (currentBitmap == null && binding != null) {
+                    binding.wallpaperImageView.setImageDrawable(placeholder);
+                }
+            }
+        };
+        Glide.with(this)
+                .asBitmap()
+                .load(thumbnailUrl)
+                .onlyRetrieveFromCache(true)
+                .diskCacheStrategy(DiskCacheStrategy.ALL)
+                .into(thumbnailTarget);
+    }
+    
+    private void releaseThumbnail() {
+        if (thumbnailTarget != null) {
+            Glide.with(this).clear(thumbnailTarget);
+            thumbnailTarget = null;
+        }
+    }
+    
+    private void showDownloadProgress(long bytesRead, long contentLength) {
+        if (binding == null || currentBitmap != null || contentLength <= 0) return;
+        
+        if (binding.progressBar.isIndeterminate()) {
+            binding.progressBar.setIndeterminate(false);
+        }
+        binding.progressBar.setProgressCompat((int) (bytesRead * 100 / contentLength), true);
+    }
+    
     private void showWallpaperInfo() {
         if (isBottomSheetReady && bottomSheetBehavior != null && bottomSheetBehavior.getState() == BottomSheetBehavior.STATE_HIDDEN) {
             bottomSheetBehavior.setState(BottomSheetBehavior.STATE_EXPANDED);
@@ -370,10 +556,28 @@ public class WallpaperViewerActivity extends AppCompatActivity {
         if (onBackPressedCallback != null) {
             onBackPressedCallback.remove();
         }
+        if (progressListener != null) {
+            progressInterceptor.unregister(wallpaperPath, progressListener);
+        }
+        disposables.clear();
         // Don't manually recycle bitmaps loaded by Glide
         // Glide manages bitmap lifecycle automatically
         binding = null;
         bottomSheetBinding = null;
     }
     
+    /**
+     * Result of opening a wallpaper for tiled viewing.
+     */
+    private static class BaseLayer {
+        final TiledImageDecoder decoder;
+        final int sampleSize;
+        final Bitmap base;
+        
+        BaseLayer(TiledImageDecoder decoder, int sampleSize, Bitmap base) {
+            this.decoder = decoder;
+            this.sampleSize = sampleSize;
+            this.base = base;
+        }
+    }
 }
@@ -1,27 +1,36 @@
 package com.example.wallpaper.ui.adapter;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.example.wallpaper.databinding.ItemWallpaperBinding;
 import com.example.wallpaper.model.FavoriteWallpaper;
+import com.example.wallpaper.ui.common.GridPreloader;
+import com.example.wallpaper.ui.common.ThumbnailResolver;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class FavoriteWallpaperAdapter extends RecyclerView.Adapter<FavoriteWallpaperAdapter.FavoriteWallpaperViewHolder> {
+public class FavoriteWallpaperAdapter extends RecyclerView.Adapter<FavoriteWallpaperAdapter.FavoriteWallpaperViewHolder>
+        implements GridPreloader.RequestProvider {
     
     private List<FavoriteWallpaper> favoriteWallpapers = new ArrayList<>();
     private OnFavoriteWallpaperClickListener listener;
     private OnFavoriteToggleListener favoriteToggleListener;
     private int itemWidth = -1;
+    private ThumbnailResolver thumbnailResolver;
 
     public interface OnFavoriteWallpaperClickListener {
         void onFavoriteWallpaperClick(FavoriteWallpaper wallpaper);
@@ -65,6 +74,9 @@ public class FavoriteWallpaperAdapter extends RecyclerView.Adapter<FavoriteWallp
     @NonNull
     @Override
     public FavoriteWallpaperViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (thumbnailResolver == null) {
+            thumbnailResolver = new ThumbnailResolver(parent.getContext());
+        }
         ItemWallpaperBinding binding = ItemWallpaperBinding.inflate(
                 LayoutInflater.from(parent.getContext()), parent, false);
         return new FavoriteWallpaperViewHolder(binding);
@@ -80,6 +92,35 @@ public class FavoriteWallpaperAdapter extends RecyclerView.Adapter<FavoriteWallp
         return favoriteWallpapers.size();
     }
 
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequest(@NonNull RequestManager requestManager, int position) {
+        if (itemWidth == -1 || thumbnailResolver == null || position < 0 || position >= favoriteWallpapers.size()) return null;
+        
+        FavoriteWallpaper wallpaper = favoriteWallpapers.get(position);
+        return thumbnailRequest(requestManager, wallpaper, itemWidth, (int) (itemWidth / wallpaper.getRatio()));
+    }
+    
+    @Nullable
+    public String getThumbnailUrl(FavoriteWallpaper wallpaper) {
+        if (itemWidth == -1 || thumbnailResolver == null) return null;
+        return thumbnailResolver.resolve(wallpaper.getThumbUrl(), wallpaper.getRatio(), itemWidth);
+    }
+    
+    @Nullable
+    private RequestBuilder<Drawable> thumbnailRequest(RequestManager requestManager, FavoriteWallpaper wallpaper,
+                                                      int width, int height) {
+        String thumbUrl = thumbnailResolver.resolve(wallpaper.getThumbUrl(), wallpaper.getRatio(), width);
+        if (thumbUrl == null || thumbUrl.isEmpty()) return null;
+        
+        return requestManager
+                .load(thumbUrl)
+                .override(width, height)
+                .centerCrop()
+                .diskCacheStrategy(DiskCacheStrategy.ALL)
+                .format(DecodeFormat.PREFER_RGB_565);
+    }
+
     class FavoriteWallpaperViewHolder extends RecyclerView.ViewHolder {
         private final ItemWallpaperBinding binding;
 
@@ -101,12 +142,10 @@ public class FavoriteWallpaperAdapter extends RecyclerView.Adapter<FavoriteWallp
             binding.wallpaperImage.setScaleType(ImageView.ScaleType.CENTER_CROP);
 
             // Load image placeholder or thumb URL
-            String thumbUrl = wallpaper.getThumbUrl();
-            if (thumbUrl != null && !thumbUrl.isEmpty()) {
-                Glide.with(binding.wallpaperImage.getContext())
-                        .load(thumbUrl)
-                        .diskCacheStrategy(DiskCacheStrategy.ALL)
-                        .into(binding.wallpaperImage);
+            RequestBuilder<Drawable> request = thumbnailRequest(
+                    Glide.with(binding.wallpaperImage.getContext()), wallpaper, width, height);
+            if (request != null) {
+                request.into(binding.wallpaperImage);
             } else {
                 // Set a placeholder or default image
                 binding.wallpaperImage.setImageResource(android.R.drawable.ic_menu_gallery);
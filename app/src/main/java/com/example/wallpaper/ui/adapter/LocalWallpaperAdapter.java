@@ -1,22 +1,29 @@
 package com.example.wallpaper.ui.adapter;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.example.wallpaper.databinding.ItemWallpaperBinding;
 import com.example.wallpaper.model.LocalWallpaper;
+import com.example.wallpaper.ui.common.GridPreloader;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class LocalWallpaperAdapter extends RecyclerView.Adapter<LocalWallpaperAdapter.LocalWallpaperViewHolder> {
+public class LocalWallpaperAdapter extends RecyclerView.Adapter<LocalWallpaperAdapter.LocalWallpaperViewHolder>
+        implements GridPreloader.RequestProvider {
     
     private List<LocalWallpaper> wallpapers = new ArrayList<>();
     private OnWallpaperClickListener listener;
@@ -91,6 +98,25 @@ public class LocalWallpaperAdapter extends RecyclerView.Adapter<LocalWallpaperAd
         return wallpapers.size();
     }
     
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequest(@NonNull RequestManager requestManager, int position) {
+        if (itemWidth == -1 || position < 0 || position >= wallpapers.size()) return null;
+        
+        LocalWallpaper wallpaper = wallpapers.get(position);
+        return thumbnailRequest(requestManager, wallpaper, itemWidth, (int) (itemWidth / wallpaper.getRatio()));
+    }
+    
+    private static RequestBuilder<Drawable> thumbnailRequest(RequestManager requestManager, LocalWallpaper wallpaper,
+                                                             int width, int height) {
+        return requestManager
+                .load(wallpaper.getUri())
+                .override(width, height)
+                .centerCrop()
+                .diskCacheStrategy(DiskCacheStrategy.ALL)
+                .format(DecodeFormat.PREFER_RGB_565);
+    }
+    
     class LocalWallpaperViewHolder extends RecyclerView.ViewHolder {
         private final ItemWallpaperBinding binding;
         
@@ -113,9 +139,7 @@ public class LocalWallpaperAdapter extends RecyclerView.Adapter<LocalWallpaperAd
             
             binding.wallpaperImage.setScaleType(ImageView.ScaleType.CENTER_CROP);
             
-            Glide.with(binding.wallpaperImage.getContext())
-                    .load(wallpaper.getUri())
-                    .diskCacheStrategy(DiskCacheStrategy.ALL)
+            thumbnailRequest(Glide.with(binding.wallpaperImage.getContext()), wallpaper, width, height)
                     .into(binding.wallpaperImage);
             
             boolean isFavorite = favoriteChecker != null && favoriteChecker.isFavorite(wallpaper);
@@ -0,0 +1,142 @@
+package com.example.wallpaper.ui.adapter;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+import com.example.wallpaper.databinding.ItemPopularTagsHeaderBinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Popular tags row shown above the Home feed. Holds a single full-span item while
+ * there are tags and none otherwise, so it can sit in front of the feed adapter in
+ * a ConcatAdapter.
+ */
+public class PopularTagsHeaderAdapter extends RecyclerView.Adapter<PopularTagsHeaderAdapter.PopularTagsViewHolder> {
+    
+    private List<NetworkWallhavenTag> popularTags = new ArrayList<>();
+    private boolean showPopularTags = false;
+    
+    private OnTagClickListener tagClickListener;
+    
+    public interface OnTagClickListener {
+        void onTagClick(NetworkWallhavenTag tag);
+    }
+    
+    public void setOnTagClickListener(OnTagClickListener listener) {
+        this.tagClickListener = listener;
+    }
+    
+    public boolean isShowingPopularTags() {
+        return showPopularTags;
+    }
+    
+    public void setPopularTags(List<NetworkWallhavenTag> tags) {
+        List<NetworkWallhavenTag> newTags = tags != null ? tags : new ArrayList<>();
+        boolean shouldShow = !newTags.isEmpty();
+        
+        if (this.popularTags.equals(newTags) && showPopularTags == shouldShow) {
+            return;
+        }
+        
+        this.popularTags = newTags;
+        
+        if (showPopularTags != shouldShow) {
+            showPopularTags = shouldShow;
+            if (shouldShow) {
+                notifyItemInserted(0); // Header inserted at position 0
+            } else {
+                notifyItemRemoved(0); // Header removed from position 0
+            }
+        } else if (shouldShow) {
+            notifyItemChanged(0); // Update existing header
+        }
+    }
+    
+    @NonNull
+    @Override
+    public PopularTagsViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemPopularTagsHeaderBinding binding = ItemPopularTagsHeaderBinding.inflate(
+                LayoutInflater.from(parent.getContext()), parent, false);
+        return new PopularTagsViewHolder(binding);
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull PopularTagsViewHolder holder, int position) {
+        holder.bind(popularTags);
+    }
+    
+    @Override
+    public int getItemCount() {
+        return showPopularTags ? 1 : 0;
+    }
+    
+    @Override
+    public void onViewAttachedToWindow(@NonNull PopularTagsViewHolder holder) {
+        super.onViewAttachedToWindow(holder);
+        // Make sure the popular tags header spans full width in staggered grid
+        ViewGroup.LayoutParams lp = holder.itemView.getLayoutParams();
+        if (lp instanceof StaggeredGridLayoutManager.LayoutParams) {
+            ((StaggeredGridLayoutManager.LayoutParams) lp).setFullSpan(true);
+        }
+    }
+    
+    class PopularTagsViewHolder extends RecyclerView.ViewHolder {
+        private final ItemPopularTagsHeaderBinding binding;
+        private List<NetworkWallhavenTag> lastBoundTags = new ArrayList<>();
+        
+        public PopularTagsViewHolder(ItemPopularTagsHeaderBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+        
+        public void bind(List<NetworkWallhavenTag> tags) {
+            // Only update if tags have actually changed
+            if (tags.equals(lastBoundTags)) {
+                return;
+            }
+            
+            lastBoundTags = new ArrayList<>(tags);
+            
+            // Clear previous tags
+            binding.linearPopularTags.removeAllViews();
+            
+            // Add each tag as a chip view
+            for (NetworkWallhavenTag tag : tags) {
+                com.google.android.material.chip.Chip chip = new com.google.android.material.chip.Chip(
+                        binding.getRoot().getContext(),
+                        null,
+                        com.google.android.material.R.attr.chipStyle
+                );
+                chip.setText("#" + tag.getName());
+                chip.setClickable(true);
+                chip.setFocusable(true);
+                
+                chip.setCloseIconVisible(false);
+                chip.setCheckable(false);
+                
+                // Set margin for spacing between chips
+                android.view.ViewGroup.MarginLayoutParams params = new android.view.ViewGroup.MarginLayoutParams(
+                        android.view.ViewGroup.LayoutParams.WRAP_CONTENT,
+                        android.view.ViewGroup.LayoutParams.WRAP_CONTENT
+                );
+                params.setMarginEnd((int) (8 * binding.getRoot().getContext().getResources().getDisplayMetrics().density));
+                chip.setLayoutParams(params);
+                
+                chip.setOnClickListener(v -> {
+                    if (tagClickListener != null) {
+                        tagClickListener.onTagClick(tag);
+                    }
+                });
+                
+                binding.linearPopularTags.addView(chip);
+            }
+        }
+    }
+}
@@ -1,28 +1,53 @@
 package com.example.wallpaper.ui.adapter;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
 import com.example.wallpaper.databinding.ItemWallpaperBinding;
+import com.example.wallpaper.ui.common.GridPreloader;
+import com.example.wallpaper.ui.common.ThumbnailResolver;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
 
-public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.WallpaperViewHolder> {
+public class WallpaperAdapter extends PagingDataAdapter<NetworkWallhavenWallpaper, WallpaperAdapter.WallpaperViewHolder>
+        implements GridPreloader.RequestProvider {
+    
+    private static final DiffUtil.ItemCallback<NetworkWallhavenWallpaper> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<NetworkWallhavenWallpaper>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull NetworkWallhavenWallpaper oldItem, @NonNull NetworkWallhavenWallpaper newItem) {
+                    return Objects.equals(oldItem.getId(), newItem.getId());
+                }
+                
+                @Override
+                public boolean areContentsTheSame(@NonNull NetworkWallhavenWallpaper oldItem, @NonNull NetworkWallhavenWallpaper newItem) {
+                    // Stored items are decoded again on every load, so compare what is shown
+                    return Objects.equals(oldItem.getPath(), newItem.getPath())
+                            && Objects.equals(thumbnailOf(oldItem), thumbnailOf(newItem))
+                            && oldItem.getRatio() == newItem.getRatio();
+                }
+            };
     
-    private List<NetworkWallhavenWallpaper> wallpapers = new ArrayList<>();
     private OnWallpaperClickListener listener;
     private OnFavoriteClickListener favoriteClickListener;
     private FavoriteChecker favoriteChecker;
     private int itemWidth = -1; // Cache the calculated item width
+    private ThumbnailResolver thumbnailResolver;
 
     public interface OnWallpaperClickListener {
         void onWallpaperClick(NetworkWallhavenWallpaper wallpaper);
@@ -48,27 +73,8 @@ public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.Wall
         this.favoriteChecker = checker;
     }
     
-    public void setWallpapers(List<NetworkWallhavenWallpaper> wallpapers) {
-        List<NetworkWallhavenWallpaper> newWallpapers = wallpapers != null ? wallpapers : new ArrayList<>();
-        
-        // Only update if the data has actually changed
-        if (!this.wallpapers.equals(newWallpapers)) {
-            this.wallpapers = newWallpapers;
-            notifyDataSetChanged();
-        }
-    }
-    
-    public void addWallpapers(List<NetworkWallhavenWallpaper> newWallpapers) {
-        if (newWallpapers != null && !newWallpapers.isEmpty()) {
-            int oldSize = this.wallpapers.size();
-            this.wallpapers.addAll(newWallpapers);
-            notifyItemRangeInserted(oldSize, newWallpapers.size());
-        }
-    }
-    
-    public void clearWallpapers() {
-        this.wallpapers.clear();
-        notifyDataSetChanged();
+    public WallpaperAdapter() {
+        super(DIFF_CALLBACK);
     }
     
     private int getItemWidth(View view) {
@@ -83,6 +89,9 @@ public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.Wall
     @NonNull
     @Override
     public WallpaperViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (thumbnailResolver == null) {
+            thumbnailResolver = new ThumbnailResolver(parent.getContext());
+        }
         ItemWallpaperBinding binding = ItemWallpaperBinding.inflate(
                 LayoutInflater.from(parent.getContext()), parent, false);
         return new WallpaperViewHolder(binding);
@@ -90,12 +99,40 @@ public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.Wall
     
     @Override
     public void onBindViewHolder(@NonNull WallpaperViewHolder holder, int position) {
-        holder.bind(wallpapers.get(position));
+        holder.bind(getItem(position));
     }
     
+    @Nullable
     @Override
-    public int getItemCount() {
-        return wallpapers.size();
+    public RequestBuilder<?> getPreloadRequest(@NonNull RequestManager requestManager, int position) {
+        // Nothing is bound yet, so the cell size is not known
+        if (itemWidth == -1 || thumbnailResolver == null || position < 0 || position >= getItemCount()) return null;
+        
+        // peek, unlike getItem, does not make Paging load around the position
+        NetworkWallhavenWallpaper wallpaper = peek(position);
+        if (wallpaper == null || wallpaper.getThumbs() == null) return null;
+        return thumbnailRequest(requestManager, wallpaper, itemWidth, (int) (itemWidth / wallpaper.getRatio()));
+    }
+    
+    private RequestBuilder<Drawable> thumbnailRequest(RequestManager requestManager, NetworkWallhavenWallpaper wallpaper,
+                                                      int width, int height) {
+        // Fetch the smallest thumbnail that fills the cell and decode it at the cell size
+        return requestManager
+                .load(thumbnailResolver.resolve(wallpaper.getThumbs(), wallpaper.getRatio(), width))
+                .override(width, height)
+                .centerCrop()
+                .diskCacheStrategy(DiskCacheStrategy.ALL)
+                .format(DecodeFormat.PREFER_RGB_565);
+    }
+    
+    @Nullable
+    public String getThumbnailUrl(NetworkWallhavenWallpaper wallpaper) {
+        if (itemWidth == -1 || thumbnailResolver == null || wallpaper.getThumbs() == null) return null;
+        return thumbnailResolver.resolve(wallpaper.getThumbs(), wallpaper.getRatio(), itemWidth);
+    }
+    
+    private static String thumbnailOf(NetworkWallhavenWallpaper wallpaper) {
+        return wallpaper.getThumbs() != null ? wallpaper.getThumbs().getOriginal() : null;
     }
     
     class WallpaperViewHolder extends RecyclerView.ViewHolder {
@@ -106,7 +143,13 @@ public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.Wall
             this.binding = binding;
         }
         
-        public void bind(NetworkWallhavenWallpaper wallpaper) {  
+        public void bind(@Nullable NetworkWallhavenWallpaper wallpaper) {  
+            if (wallpaper == null || wallpaper.getThumbs() == null) {
+                bindPlaceholder();
+                return;
+            }
+            binding.favoriteButton.setVisibility(View.VISIBLE);
+            
             // Calculate and set dimensions immediately to prevent layout shifts
             float ratio = wallpaper.getRatio();
             int width = getItemWidth(binding.getRoot());
@@ -120,9 +163,7 @@ public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.Wall
             
             binding.wallpaperImage.setScaleType(ImageView.ScaleType.CENTER_CROP);
             
-            Glide.with(binding.wallpaperImage.getContext())
-                    .load(wallpaper.getThumbs().getOriginal())
-                    .diskCacheStrategy(DiskCacheStrategy.ALL)
+            thumbnailRequest(Glide.with(binding.wallpaperImage.getContext()), wallpaper, width, height)
                     .into(binding.wallpaperImage);
             
             boolean isFavorite = favoriteChecker != null && favoriteChecker.isFavorite(wallpaper);
@@ -146,5 +187,18 @@ public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.Wall
                 }
             });
         }
+        
+        // Not loaded yet or dropped from memory, keep a square slot until it is bound again
+        private void bindPlaceholder() {
+            android.view.ViewGroup.LayoutParams layoutParams = binding.wallpaperImage.getLayoutParams();
+            layoutParams.height = getItemWidth(binding.getRoot());
+            layoutParams.width = android.view.ViewGroup.LayoutParams.MATCH_PARENT;
+            binding.wallpaperImage.setLayoutParams(layoutParams);
+            
+            Glide.with(binding.wallpaperImage.getContext()).clear(binding.wallpaperImage);
+            binding.favoriteButton.setVisibility(View.GONE);
+            binding.getRoot().setOnClickListener(null);
+            binding.favoriteButton.setOnClickListener(null);
+        }
     }
 }
@@ -0,0 +1,199 @@
+package com.example.wallpaper.ui.common;
+
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.transition.Transition;
+
+/**
+ * Starts the thumbnail requests of the items just past the visible range in the
+ * scroll direction, so cells are filled from memory when they scroll in.
+ * Glide's own RecyclerViewPreloader only understands LinearLayoutManager, the
+ * grids here are staggered.
+ * A fixed ring of targets is reused, so a preload that scrolled out of range is
+ * cancelled when its target is taken for a newer one.
+ * Attach it with {@link #attach(RecyclerView)} so it starts over when the grid's
+ * data changes.
+ */
+public class GridPreloader extends RecyclerView.OnScrollListener {
+
+    // Four rows of the two-column grids
+    private static final int MAX_PRELOAD = 8;
+
+    private final RequestManager requestManager;
+    private final RequestProvider provider;
+    private final PreloadTarget[] targets = new PreloadTarget[MAX_PRELOAD];
+    private int nextTarget;
+    // Furthest position preloaded in the current direction
+    private int preloadedUpTo = RecyclerView.NO_POSITION;
+    private boolean scrollingDown = true;
+
+    public GridPreloader(RequestManager requestManager, RequestProvider provider) {
+        this.requestManager = requestManager;
+        this.provider = provider;
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = new PreloadTarget();
+        }
+    }
+
+    /**
+     * Listens to the grid's scrolling and to changes of its adapter, which has to
+     * be set already.
+     */
+    public void attach(@NonNull RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(this);
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        if (adapter != null) {
+            adapter.registerAdapterDataObserver(new DataObserver());
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager == null || layoutManager.getItemCount() == 0) return;
+
+        int first;
+        int last;
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            StaggeredGridLayoutManager grid = (StaggeredGridLayoutManager) layoutManager;
+            first = min(grid.findFirstVisibleItemPositions(null));
+            last = max(grid.findLastVisibleItemPositions(null));
+        } else if (layoutManager instanceof LinearLayoutManager) {
+            LinearLayoutManager linear = (LinearLayoutManager) layoutManager;
+            first = linear.findFirstVisibleItemPosition();
+            last = linear.findLastVisibleItemPosition();
+        } else {
+            return;
+        }
+        if (first == RecyclerView.NO_POSITION || last == RecyclerView.NO_POSITION) return;
+
+        boolean down = dy >= 0;
+        if (down != scrollingDown) {
+            scrollingDown = down;
+            preloadedUpTo = RecyclerView.NO_POSITION;
+        }
+
+        if (down) {
+            int end = Math.min(last + MAX_PRELOAD, layoutManager.getItemCount() - 1);
+            int start = Math.max(last + 1, preloadedUpTo == RecyclerView.NO_POSITION ? 0 : preloadedUpTo + 1);
+            for (int position = start; position <= end; position++) {
+                preload(position);
+            }
+            preloadedUpTo = Math.max(preloadedUpTo, end);
+        } else {
+            int end = Math.max(first - MAX_PRELOAD, 0);
+            int start = Math.min(first - 1, preloadedUpTo == RecyclerView.NO_POSITION ? first - 1 : preloadedUpTo - 1);
+            for (int position = start; position >= end; position--) {
+                preload(position);
+            }
+            preloadedUpTo = preloadedUpTo == RecyclerView.NO_POSITION ? end : Math.min(preloadedUpTo, end);
+        }
+    }
+
+    // Cancels every pending preload, the data they were for is gone
+    private void clear() {
+        for (PreloadTarget target : targets) {
+            requestManager.clear(target);
+        }
+        preloadedUpTo = RecyclerView.NO_POSITION;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void preload(int position) {
+        RequestBuilder<Object> request = (RequestBuilder<Object>) provider.getPreloadRequest(requestManager, position);
+        if (request == null) return;
+
+        // Reusing the target clears the request it held
+        PreloadTarget target = targets[nextTarget];
+        nextTarget = (nextTarget + 1) % targets.length;
+        request.into(target);
+    }
+
+    private static int min(int[] positions) {
+        int result = RecyclerView.NO_POSITION;
+        for (int position : positions) {
+            if (position != RecyclerView.NO_POSITION && (result == RecyclerView.NO_POSITION || position < result)) {
+                result = position;
+            }
+        }
+        return result;
+    }
+
+    private static int max(int[] positions) {
+        int result = RecyclerView.NO_POSITION;
+        for (int position : positions) {
+            result = Math.max(result, position);
+        }
+        return result;
+    }
+
+    /**
+     * Implemented by the grid adapters. They build the preload with the same method
+     * their binding uses, so URL, size and options match and the preloaded resource
+     * is the one the cell finds in memory.
+     */
+    public interface RequestProvider {
+        /**
+         * The request the item at the adapter position will be bound with, sized
+         * exactly like its cell so the result is found in memory, or null if there
+         * is nothing to preload.
+         */
+        @Nullable
+        RequestBuilder<?> getPreloadRequest(@NonNull RequestManager requestManager, int position);
+    }
+
+    /**
+     * Positions preloaded so far no longer hold the same items once the data
+     * changes, e.g. a new search or a refresh, so the watermark starts over.
+     * Inserted and moved items only shift positions; their pending preloads stay.
+     */
+    private class DataObserver extends RecyclerView.AdapterDataObserver {
+        @Override
+        public void onChanged() {
+            clear();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            preloadedUpTo = RecyclerView.NO_POSITION;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            preloadedUpTo = RecyclerView.NO_POSITION;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            preloadedUpTo = RecyclerView.NO_POSITION;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            preloadedUpTo = RecyclerView.NO_POSITION;
+        }
+    }
+
+    /**
+     * Holds a preloaded resource until the target is reused. Requests carry their
+     * own override size, so the target's size is never asked for.
+     */
+    private static class PreloadTarget extends CustomTarget<Object> {
+        @Override
+        public void onResourceReady(@NonNull Object resource, @Nullable Transition<? super Object> transition) {
+        }
+
+        @Override
+        public void onLoadCleared(@Nullable Drawable placeholder) {
+        }
+    }
+}
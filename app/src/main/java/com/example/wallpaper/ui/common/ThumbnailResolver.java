@@ -0,0 +1,91 @@
+package com.example.wallpaper.ui.common;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.os.SystemClock;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenThumbs;
+
+/**
+ * Picks the smallest Wallhaven thumbnail that still fills a grid cell.
+ * The small and large tiers are 3:2 crops, so they are only used for cells close
+ * to that shape; other cells get the original thumbnail, which keeps the
+ * wallpaper's aspect ratio. On a metered network a slightly soft thumbnail is
+ * preferred over a bigger download.
+ */
+public class ThumbnailResolver {
+
+    // Nominal widths of Wallhaven's cropped thumbnail tiers
+    private static final int SMALL_WIDTH_PX = 300;
+    private static final int LARGE_WIDTH_PX = 640;
+    private static final float CROPPED_RATIO = 3f / 2f;
+    // How far a cell may be from 3:2 before a cropped thumbnail looks wrong in it.
+    // 16:10 (1.07) is still close enough, 16:9 (1.19) would lose about a sixth of
+    // each axis to a second center crop and takes the original
+    private static final float CROP_TOLERANCE = 0.1f;
+    // Share of the cell width a thumbnail has to cover on a metered network
+    private static final float METERED_COVERAGE = 0.75f;
+    private static final long METERED_CHECK_INTERVAL_MS = 5_000L;
+
+    private static final String HOST = "th.wallhaven.cc";
+    private static final String SMALL_PATH = "/small/";
+    private static final String LARGE_PATH = "/lg/";
+    private static final String ORIGINAL_PATH = "/orig/";
+
+    private final ConnectivityManager connectivityManager;
+    private boolean metered;
+    private long meteredCheckedAt = -1;
+
+    public ThumbnailResolver(Context context) {
+        this.connectivityManager = (ConnectivityManager) context.getApplicationContext()
+                .getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+
+    /**
+     * @param thumbs      thumbnails of the wallpaper
+     * @param ratio       width to height ratio of the cell
+     * @param cellWidthPx width of the cell in pixels
+     */
+    public String resolve(NetworkWallhavenThumbs thumbs, float ratio, int cellWidthPx) {
+        if (thumbs == null) return null;
+        return pick(thumbs.getSmall(), thumbs.getLarge(), thumbs.getOriginal(), ratio, cellWidthPx);
+    }
+
+    /**
+     * Same as {@link #resolve(NetworkWallhavenThumbs, float, int)} for a stored original
+     * thumbnail URL, e.g. of a favorite. URLs that are not Wallhaven thumbnails are
+     * returned as they are.
+     */
+    public String resolve(String originalThumbUrl, float ratio, int cellWidthPx) {
+        if (originalThumbUrl == null
+                || !originalThumbUrl.contains(HOST)
+                || !originalThumbUrl.contains(ORIGINAL_PATH)) {
+            return originalThumbUrl;
+        }
+        return pick(originalThumbUrl.replace(ORIGINAL_PATH, SMALL_PATH),
+                originalThumbUrl.replace(ORIGINAL_PATH, LARGE_PATH),
+                originalThumbUrl, ratio, cellWidthPx);
+    }
+
+    private String pick(String small, String large, String original, float ratio, int cellWidthPx) {
+        if (ratio <= 0 || Math.abs(ratio / CROPPED_RATIO - 1f) > CROP_TOLERANCE) {
+            return original != null ? original : large;
+        }
+
+        int requiredPx = isMetered() ? (int) (cellWidthPx * METERED_COVERAGE) : cellWidthPx;
+        if (small != null && SMALL_WIDTH_PX >= requiredPx) return small;
+        if (large != null && LARGE_WIDTH_PX >= requiredPx) return large;
+        return original != null ? original : large;
+    }
+
+    private boolean isMetered() {
+        // Asked on every bind, so the answer is reused for a few seconds
+        long now = SystemClock.elapsedRealtime();
+        if (connectivityManager != null
+                && (meteredCheckedAt < 0 || now - meteredCheckedAt > METERED_CHECK_INTERVAL_MS)) {
+            metered = connectivityManager.isActiveNetworkMetered();
+            meteredCheckedAt = now;
+        }
+        return metered;
+    }
+}
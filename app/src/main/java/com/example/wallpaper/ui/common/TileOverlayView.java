@@ -0,0 +1,253 @@
+package com.example.wallpaper.ui.common;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.LruCache;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.example.wallpaper.data.image.TiledImageDecoder;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Draws full-detail tiles of a large image over the subsampled base layer shown by
+ * the view below it. It follows that view's display rect and only decodes the
+ * tiles that are visible at the current zoom; where a tile is not decoded yet the
+ * base layer shows through. Decoded tiles are kept in a cache bounded to about
+ * two screens of pixels, evicted tiles go back to Glide's bitmap pool.
+ * It never handles touches, gestures stay with the view below.
+ */
+public class TileOverlayView extends View {
+
+    // Decoded pixels per tile edge, whatever the sample size
+    private static final int TILE_SIZE_PX = 512;
+    private static final int CACHED_SCREENS = 2;
+
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF displayRect = new RectF();
+    private final RectF tileRect = new RectF();
+    private final Map<Long, Disposable> pendingTiles = new HashMap<>();
+
+    private TiledImageDecoder decoder;
+    private BitmapPool bitmapPool;
+    private TileCache tileCache;
+    private ExecutorService executor;
+    private Scheduler scheduler;
+    private int baseSampleSize;
+
+    public TileOverlayView(Context context) {
+        super(context);
+    }
+
+    public TileOverlayView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    /**
+     * Starts tiling the decoder's image. Nothing is drawn while the image is shown
+     * at or below the detail of the base layer.
+     *
+     * @param baseSampleSize sample size the base layer below was decoded with
+     */
+    public void setImage(@NonNull TiledImageDecoder decoder, int baseSampleSize, @NonNull BitmapPool bitmapPool) {
+        release();
+        this.decoder = decoder;
+        this.baseSampleSize = baseSampleSize;
+        this.bitmapPool = bitmapPool;
+
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        tileCache = new TileCache(metrics.widthPixels * metrics.heightPixels * 4 * CACHED_SCREENS);
+        // One decode at a time, BitmapRegionDecoder would serialize them anyway
+        executor = Executors.newSingleThreadExecutor();
+        scheduler = Schedulers.from(executor);
+        updateTiles();
+    }
+
+    /**
+     * Where the base layer is drawn, in this view's coordinates.
+     */
+    public void setDisplayRect(@NonNull RectF rect) {
+        displayRect.set(rect);
+        updateTiles();
+    }
+
+    /**
+     * Stops all decodes and drops the cached tiles. The decoder is closed once
+     * the decode in progress, if any, is done.
+     */
+    public void release() {
+        for (Disposable pending : pendingTiles.values()) {
+            pending.dispose();
+        }
+        pendingTiles.clear();
+        if (tileCache != null) {
+            tileCache.evictAll();
+            tileCache = null;
+        }
+        if (executor != null) {
+            TiledImageDecoder closing = decoder;
+            executor.execute(closing::close);
+            executor.shutdown();
+            executor = null;
+            scheduler = null;
+        }
+        decoder = null;
+        invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        release();
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        int sampleSize = currentSampleSize();
+        if (sampleSize == 0) return;
+
+        Rect tiles = visibleTiles(sampleSize);
+        for (int row = tiles.top; row <= tiles.bottom; row++) {
+            for (int col = tiles.left; col <= tiles.right; col++) {
+                Bitmap tile = tileCache.get(key(sampleSize, col, row));
+                if (tile == null) continue;
+                mapToView(tileRegion(sampleSize, col, row), tileRect);
+                canvas.drawBitmap(tile, null, tileRect, paint);
+            }
+        }
+    }
+
+    // Requests the missing visible tiles and cancels the ones that scrolled away
+    private void updateTiles() {
+        int sampleSize = currentSampleSize();
+        Set<Long> wanted = new HashSet<>();
+        if (sampleSize != 0) {
+            Rect tiles = visibleTiles(sampleSize);
+            for (int row = tiles.top; row <= tiles.bottom; row++) {
+                for (int col = tiles.left; col <= tiles.right; col++) {
+                    long key = key(sampleSize, col, row);
+                    wanted.add(key);
+                    if (tileCache.get(key) == null && !pendingTiles.containsKey(key)) {
+                        pendingTiles.put(key, decodeTile(key, tileRegion(sampleSize, col, row), sampleSize));
+                    }
+                }
+            }
+        }
+
+        Iterator<Map.Entry<Long, Disposable>> iterator = pendingTiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Disposable> entry = iterator.next();
+            if (!wanted.contains(entry.getKey())) {
+                entry.getValue().dispose();
+                iterator.remove();
+            }
+        }
+        invalidate();
+    }
+
+    private Disposable decodeTile(long key, Rect region, int sampleSize) {
+        TiledImageDecoder tileDecoder = decoder;
+        return Maybe.fromCallable(() -> tileDecoder.decodeTile(region, sampleSize))
+                .subscribeOn(scheduler)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        tile -> {
+                            pendingTiles.remove(key);
+                            if (tileCache != null) {
+                                tileCache.put(key, tile);
+                                invalidate();
+                            } else {
+                                bitmapPool.put(tile);
+                            }
+                        },
+                        throwable -> pendingTiles.remove(key),
+                        () -> pendingTiles.remove(key));
+    }
+
+    // Sample size the visible tiles need, or 0 if the base layer is detailed enough
+    private int currentSampleSize() {
+        if (decoder == null || displayRect.isEmpty() || getWidth() == 0) return 0;
+        int sampleSize = TiledImageDecoder.sampleSizeFor(displayRect.width() / decoder.getWidth());
+        return sampleSize < baseSampleSize ? sampleSize : 0;
+    }
+
+    // Columns and rows of the tiles on screen, inclusive
+    private Rect visibleTiles(int sampleSize) {
+        float scale = decoder.getWidth() / displayRect.width();
+        float left = Math.max(0, -displayRect.left) * scale;
+        float top = Math.max(0, -displayRect.top) * scale;
+        float right = (Math.min(getWidth(), displayRect.right) - displayRect.left) * scale;
+        float bottom = (Math.min(getHeight(), displayRect.bottom) - displayRect.top) * scale;
+
+        int tileSize = TILE_SIZE_PX * sampleSize;
+        int lastCol = (decoder.getWidth() - 1) / tileSize;
+        int lastRow = (decoder.getHeight() - 1) / tileSize;
+        return new Rect(
+                Math.max(0, (int) (left / tileSize)),
+                Math.max(0, (int) (top / tileSize)),
+                Math.min(lastCol, (int) (right / tileSize)),
+                Math.min(lastRow, (int) (bottom / tileSize)));
+    }
+
+    // Image pixels covered by a tile, clipped to the image
+    private Rect tileRegion(int sampleSize, int col, int row) {
+        int tileSize = TILE_SIZE_PX * sampleSize;
+        return new Rect(col * tileSize, row * tileSize,
+                Math.min((col + 1) * tileSize, decoder.getWidth()),
+                Math.min((row + 1) * tileSize, decoder.getHeight()));
+    }
+
+    private void mapToView(Rect imageRegion, RectF out) {
+        float scale = displayRect.width() / decoder.getWidth();
+        out.set(displayRect.left + imageRegion.left * scale,
+                displayRect.top + imageRegion.top * scale,
+                displayRect.left + imageRegion.right * scale,
+                displayRect.top + imageRegion.bottom * scale);
+    }
+
+    private static long key(int sampleSize, int col, int row) {
+        return ((long) sampleSize << 48) | ((long) col << 24) | row;
+    }
+
+    /**
+     * Tiles by decoded size. Evicted tiles are no longer drawn, so their bitmaps
+     * can be reused for new tiles.
+     */
+    private class TileCache extends LruCache<Long, Bitmap> {
+        TileCache(int maxBytes) {
+            super(maxBytes);
+        }
+
+        @Override
+        protected int sizeOf(Long key, Bitmap tile) {
+            return tile.getAllocationByteCount();
+        }
+
+        @Override
+        protected void entryRemoved(boolean evicted, Long key, Bitmap oldTile, Bitmap newTile) {
+            bitmapPool.put(oldTile);
+        }
+    }
+}
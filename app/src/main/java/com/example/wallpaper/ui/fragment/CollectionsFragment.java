@@ -12,10 +12,12 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
+import com.bumptech.glide.Glide;
 import com.example.wallpaper.databinding.FragmentCollectionsBinding;
 import com.example.wallpaper.model.FavoriteWallpaper;
 import com.example.wallpaper.ui.activity.WallpaperViewerActivity;
 import com.example.wallpaper.ui.adapter.FavoriteWallpaperAdapter;
+import com.example.wallpaper.ui.common.GridPreloader;
 import com.example.wallpaper.ui.viewmodel.CollectionsViewModel;
 
 import dagger.hilt.android.AndroidEntryPoint;
@@ -60,6 +62,7 @@ public class CollectionsFragment extends Fragment {
         binding.recyclerView.setLayoutManager(layoutManager);
         binding.recyclerView.setAdapter(adapter);
         binding.recyclerView.setItemAnimator(null);
+        new GridPreloader(Glide.with(this), adapter).attach(binding.recyclerView);
         
         adapter.setOnFavoriteWallpaperClickListener(new FavoriteWallpaperAdapter.OnFavoriteWallpaperClickListener() {
             @Override
@@ -68,7 +71,8 @@ public class CollectionsFragment extends Fragment {
                 String wallpaperId = wallpaper.getSourceId();
 
                 if (wallpaperPath != null && !wallpaperPath.isEmpty()) {
-                    WallpaperViewerActivity.start(requireContext(), wallpaperPath, wallpaperId);
+                    WallpaperViewerActivity.start(requireContext(), wallpaperPath, wallpaperId,
+                            adapter.getThumbnailUrl(wallpaper));
                 } else {
                     Toast.makeText(requireContext(), 
                         "Cannot open wallpaper: Invalid path", 
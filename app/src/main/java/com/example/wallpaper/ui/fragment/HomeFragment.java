@@ -12,26 +12,36 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
-import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
+import com.bumptech.glide.Glide;
 import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
 import com.example.wallpaper.databinding.FragmentHomeBinding;
 import com.example.wallpaper.ui.activity.SearchFilterActivity;
 import com.example.wallpaper.ui.activity.WallpaperViewerActivity;
-import com.example.wallpaper.ui.adapter.HomeAdapter;
+import com.example.wallpaper.ui.adapter.PopularTagsHeaderAdapter;
+import com.example.wallpaper.ui.adapter.WallpaperAdapter;
+import com.example.wallpaper.ui.common.GridPreloader;
 import com.example.wallpaper.ui.viewmodel.HomeViewModel;
 
 import dagger.hilt.android.AndroidEntryPoint;
+import kotlin.Unit;
 
 @AndroidEntryPoint
 public class HomeFragment extends Fragment {
 
     private FragmentHomeBinding binding;
     private HomeViewModel viewModel;
-    private HomeAdapter adapter;
+    private PopularTagsHeaderAdapter headerAdapter;
+    private WallpaperAdapter adapter;
+    private Integer pendingScrollPosition;
+    private boolean scrollRestored = false;
+    private LoadState.Error shownError;
 
     public HomeFragment() {
     }
@@ -63,24 +73,30 @@ public class HomeFragment extends Fragment {
     }
 
     private void setupRecyclerView() {
-        adapter = new HomeAdapter();
+        headerAdapter = new PopularTagsHeaderAdapter();
+        adapter = new WallpaperAdapter();
         
         StaggeredGridLayoutManager layoutManager = new StaggeredGridLayoutManager(2, StaggeredGridLayoutManager.VERTICAL);
         layoutManager.setGapStrategy(StaggeredGridLayoutManager.GAP_HANDLING_NONE);
         
         binding.recyclerView.setLayoutManager(layoutManager);
-        binding.recyclerView.setAdapter(adapter);
+        binding.recyclerView.setAdapter(new ConcatAdapter(headerAdapter, adapter));
         
         binding.recyclerView.setItemAnimator(null);
+        // Grid positions count the popular tags header, the adapter's do not
+        new GridPreloader(Glide.with(this),
+                (requestManager, position) -> adapter.getPreloadRequest(requestManager, position - headerAdapter.getItemCount()))
+                .attach(binding.recyclerView);
         
-        adapter.setOnWallpaperClickListener(new HomeAdapter.OnWallpaperClickListener() {
+        adapter.setOnWallpaperClickListener(new WallpaperAdapter.OnWallpaperClickListener() {
             @Override
             public void onWallpaperClick(NetworkWallhavenWallpaper wallpaper) {
-                WallpaperViewerActivity.start(requireContext(), wallpaper.getPath(), wallpaper.getId());
+                WallpaperViewerActivity.start(requireContext(), wallpaper.getPath(), wallpaper.getId(),
+                        adapter.getThumbnailUrl(wallpaper));
             }
         });
         
-        adapter.setOnTagClickListener(new HomeAdapter.OnTagClickListener() {
+        headerAdapter.setOnTagClickListener(new PopularTagsHeaderAdapter.OnTagClickListener() {
             @Override
             public void onTagClick(NetworkWallhavenTag tag) {
                 // Navigate to SearchFilterActivity with the selected tag
@@ -89,49 +105,60 @@ public class HomeFragment extends Fragment {
             }
         });
         
-        adapter.setOnFavoriteClickListener(new HomeAdapter.OnFavoriteClickListener() {
+        adapter.setOnFavoriteClickListener(new WallpaperAdapter.OnFavoriteClickListener() {
             @Override
             public void onFavoriteClick(NetworkWallhavenWallpaper wallpaper) {
                 viewModel.toggleFavorite(wallpaper);
             }
         });
         
-        adapter.setFavoriteChecker(new HomeAdapter.FavoriteChecker() {
+        adapter.setFavoriteChecker(new WallpaperAdapter.FavoriteChecker() {
             @Override
             public boolean isFavorite(NetworkWallhavenWallpaper wallpaper) {
                 return viewModel.isFavorite(wallpaper);
             }
         });
         
-        // Add infinite scrolling
-        binding.recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
-            @Override
-            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
-                super.onScrolled(recyclerView, dx, dy);
-                
-                if (dy > 0) { // Only check when scrolling down
-                    StaggeredGridLayoutManager layoutManager = (StaggeredGridLayoutManager) recyclerView.getLayoutManager();
-                    if (layoutManager != null) {
-                        // Get the last visible item positions for both spans
-                        int[] lastVisibleItemPositions = layoutManager.findLastVisibleItemPositions(null);
-                        int lastVisibleItem = Math.max(lastVisibleItemPositions[0], lastVisibleItemPositions[1]);
-                        int totalItemCount = layoutManager.getItemCount();
-                        
-                        // Load more when near the end (5 items before the end)
-                        if (lastVisibleItem >= totalItemCount - 5 && 
-                            !Boolean.TRUE.equals(viewModel.loading.getValue()) &&
-                            !Boolean.TRUE.equals(viewModel.loadingMore.getValue())) {
-                            viewModel.loadMoreWallpapers();
-                        }
-                    }
-                }
+        // Paging loads further pages itself, only loading and errors are shown here
+        adapter.addLoadStateListener(loadStates -> {
+            if (binding == null) return Unit.INSTANCE;
+            
+            binding.swipeRefresh.setRefreshing(loadStates.getRefresh() instanceof LoadState.Loading);
+            
+            if (pendingScrollPosition != null
+                    && loadStates.getSource().getRefresh() instanceof LoadState.NotLoading
+                    && adapter.getItemCount() > 0) {
+                int position = Math.min(pendingScrollPosition, adapter.getItemCount() - 1);
+                layoutManager.scrollToPositionWithOffset(position + headerAdapter.getItemCount(), 0);
+                scrollRestored = position > 0;
+                pendingScrollPosition = null;
             }
+            
+            LoadState.Error error = firstError(loadStates);
+            if (error != null && error != shownError) {
+                shownError = error;
+                Log.e("HomeFragment", "Error loading wallpapers", error.getError());
+                Toast.makeText(getContext(), error.getError().getMessage(), Toast.LENGTH_LONG).show();
+            }
+            return Unit.INSTANCE;
         });
     }
 
+    @Nullable
+    private static LoadState.Error firstError(CombinedLoadStates loadStates) {
+        if (loadStates.getRefresh() instanceof LoadState.Error) {
+            return (LoadState.Error) loadStates.getRefresh();
+        }
+        if (loadStates.getAppend() instanceof LoadState.Error) {
+            return (LoadState.Error) loadStates.getAppend();
+        }
+        return null;
+    }
+
     private void setupSwipeRefresh() {
         binding.swipeRefresh.setOnRefreshListener(() -> {
             viewModel.refreshWallpapers();
+            adapter.refresh();
         });
     }
 
@@ -142,33 +169,30 @@ public class HomeFragment extends Fragment {
     }
 
     private void observeViewModel() {
-        viewModel.wallpapers.observe(getViewLifecycleOwner(), wallpapers -> {
-            adapter.setWallpapers(wallpapers);
-            
-            if (Boolean.TRUE.equals(viewModel.loading.getValue()) && wallpapers != null && !wallpapers.isEmpty()) {
-                binding.recyclerView.scrollToPosition(0);
-            }
+        viewModel.wallpapers.observe(getViewLifecycleOwner(), pagingData -> {
+            adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData);
+        });
+
+        viewModel.restoredScrollPosition.observe(getViewLifecycleOwner(), position -> {
+            if (position == null) return;
+            // Applied once the stored feed around the position has been loaded
+            pendingScrollPosition = position;
+            viewModel.onRestoredScrollHandled();
         });
 
         viewModel.popularTags.observe(getViewLifecycleOwner(), tags -> {
-            boolean hadTags = adapter.isShowingPopularTags();
+            boolean hadTags = headerAdapter.isShowingPopularTags();
             
-            adapter.setPopularTags(tags);
+            headerAdapter.setPopularTags(tags);
             
             // If we just added popular tags for the first time and there are wallpapers,
-            // scroll to top to ensure tags are visible
-            if (!hadTags && tags != null && !tags.isEmpty() && adapter.getItemCount() > 1) {
+            // scroll to top to ensure tags are visible, unless a restored position is shown
+            if (!hadTags && !scrollRestored && pendingScrollPosition == null
+                    && tags != null && !tags.isEmpty() && adapter.getItemCount() > 0) {
                 binding.recyclerView.scrollToPosition(0);
             }
         });
 
-        viewModel.loading.observe(getViewLifecycleOwner(), loading -> {
-            binding.swipeRefresh.setRefreshing(loading);
-        });
-
-        viewModel.loadingMore.observe(getViewLifecycleOwner(), loadingMore -> {
-        });
-
         viewModel.loadingTags.observe(getViewLifecycleOwner(), loadingTags -> {
         });
 
@@ -178,12 +202,33 @@ public class HomeFragment extends Fragment {
 
         viewModel.error.observe(getViewLifecycleOwner(), error -> {
             if (error != null) {
-                Log.e("HomeFragment", "Error loading wallpapers: " + error);
+                Log.e("HomeFragment", "Error: " + error);
                 Toast.makeText(getContext(), error, Toast.LENGTH_LONG).show();
             }
         });
     }
 
+    @Override
+    public void onPause() {
+        super.onPause();
+        viewModel.saveScrollPosition(findFirstVisibleWallpaper());
+    }
+
+    private int findFirstVisibleWallpaper() {
+        StaggeredGridLayoutManager layoutManager = (StaggeredGridLayoutManager) binding.recyclerView.getLayoutManager();
+        if (layoutManager == null) return RecyclerView.NO_POSITION;
+
+        int first = RecyclerView.NO_POSITION;
+        for (int position : layoutManager.findFirstVisibleItemPositions(null)) {
+            if (position != RecyclerView.NO_POSITION && (first == RecyclerView.NO_POSITION || position < first)) {
+                first = position;
+            }
+        }
+        if (first == RecyclerView.NO_POSITION) return first;
+        // The popular tags header is not part of the feed
+        return Math.max(0, first - headerAdapter.getItemCount());
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -19,10 +19,12 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
+import com.bumptech.glide.Glide;
 import com.example.wallpaper.databinding.FragmentLocalBinding;
 import com.example.wallpaper.model.LocalWallpaper;
 import com.example.wallpaper.ui.activity.WallpaperViewerActivity;
 import com.example.wallpaper.ui.adapter.LocalWallpaperAdapter;
+import com.example.wallpaper.ui.common.GridPreloader;
 import com.example.wallpaper.ui.viewmodel.LocalViewModel;
 
 import dagger.hilt.android.AndroidEntryPoint;
@@ -76,6 +78,7 @@ public class LocalFragment extends Fragment {
         binding.recyclerView.setAdapter(adapter);
         
         binding.recyclerView.setItemAnimator(null);
+        new GridPreloader(Glide.with(this), adapter).attach(binding.recyclerView);
         
         adapter.setOnWallpaperClickListener(new LocalWallpaperAdapter.OnWallpaperClickListener() {
             @Override
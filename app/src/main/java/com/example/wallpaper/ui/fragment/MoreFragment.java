@@ -1,9 +1,13 @@
 package com.example.wallpaper.ui.fragment;
 
+import android.content.ClipData;
+import android.content.ClipboardManager;
+import android.content.Context;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -11,6 +15,7 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 
+import com.example.wallpaper.BuildConfig;
 import com.example.wallpaper.R;
 import com.example.wallpaper.databinding.DialogThemeSelectionBinding;
 import com.example.wallpaper.databinding.FragmentMoreBinding;
@@ -50,6 +55,7 @@ public class MoreFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         
         setupThemeSettingButton();
+        setupNetworkStatsButton();
         observeViewModel();
     }
 
@@ -58,6 +64,35 @@ public class MoreFragment extends Fragment {
         binding.themeSettingButton.setOnClickListener(v -> showThemeDialog());
     }
 
+    private void setupNetworkStatsButton() {
+        // Diagnostics only, release builds keep the card hidden
+        if (!BuildConfig.DEBUG) return;
+        binding.networkStatsCard.setVisibility(View.VISIBLE);
+        binding.networkStatsButton.setOnClickListener(v -> showNetworkStatsDialog());
+    }
+
+    private void showNetworkStatsDialog() {
+        String message = viewModel.getNetworkTimingsSummary() + "\n\n"
+                + getString(R.string.network_stats_cache, viewModel.getHttpCacheSummary()) + "\n\n"
+                + getString(R.string.network_stats_prewarm, viewModel.getPrewarmSummary()) + "\n\n"
+                + getString(R.string.network_stats_images, viewModel.getImageCacheSummary());
+        
+        new AlertDialog.Builder(requireContext())
+                .setTitle(R.string.network_stats)
+                .setMessage(message)
+                .setPositiveButton(R.string.copy_json, (dialog, which) -> copyNetworkStats())
+                .setNeutralButton(R.string.reset, (dialog, which) -> viewModel.resetNetworkTimings())
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
+
+    private void copyNetworkStats() {
+        ClipboardManager clipboard = (ClipboardManager) requireContext().getSystemService(Context.CLIPBOARD_SERVICE);
+        if (clipboard == null) return;
+        clipboard.setPrimaryClip(ClipData.newPlainText(getString(R.string.network_stats), viewModel.getNetworkStatsJson()));
+        Toast.makeText(requireContext(), R.string.network_stats_copied, Toast.LENGTH_SHORT).show();
+    }
+
     private void showThemeDialog() {
         DialogThemeSelectionBinding dialogBinding = DialogThemeSelectionBinding.inflate(getLayoutInflater());
         
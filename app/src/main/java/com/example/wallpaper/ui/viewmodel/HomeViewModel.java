@@ -2,13 +2,18 @@ package com.example.wallpaper.ui.viewmodel;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
-import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
 import com.example.wallpaper.data.repository.NetworkWallhavenRepository;
 import com.example.wallpaper.data.repository.FavoritesRepository;
+import com.example.wallpaper.data.repository.PopularTagsRepository;
+import com.example.wallpaper.data.repository.WallhavenFeedRepository;
 import com.example.wallpaper.data.database.entity.FavoriteEntity;
 import com.example.wallpaper.model.Order;
 import com.example.wallpaper.model.search.WallhavenFilters;
@@ -28,22 +33,21 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
 @HiltViewModel
 public class HomeViewModel extends ViewModel {
     
-    private final NetworkWallhavenRepository repository;
     private final FavoritesRepository favoritesRepository;
+    private final PopularTagsRepository popularTagsRepository;
+    private final WallhavenFeedRepository feedRepository;
     private final CompositeDisposable disposables = new CompositeDisposable();
     
-    private final MutableLiveData<List<NetworkWallhavenWallpaper>> _wallpapers = new MutableLiveData<>(new ArrayList<>());
-    public final LiveData<List<NetworkWallhavenWallpaper>> wallpapers = _wallpapers;
-    
-    private final MutableLiveData<Boolean> _loading = new MutableLiveData<>(false);
-    public final LiveData<Boolean> loading = _loading;
-    
-    private final MutableLiveData<Boolean> _loadingMore = new MutableLiveData<>(false);
-    public final LiveData<Boolean> loadingMore = _loadingMore;
+    private final MutableLiveData<WallhavenFeedRepository.Feed> _feed = new MutableLiveData<>();
+    public final LiveData<PagingData<NetworkWallhavenWallpaper>> wallpapers;
     
     private final MutableLiveData<String> _error = new MutableLiveData<>();
     public final LiveData<String> error = _error;
     
+    // Wallpaper index to scroll to after the stored feed was restored
+    private final MutableLiveData<Integer> _restoredScrollPosition = new MutableLiveData<>();
+    public final LiveData<Integer> restoredScrollPosition = _restoredScrollPosition;
+    
     // Popular tags LiveData
     private final MutableLiveData<List<NetworkWallhavenTag>> _popularTags = new MutableLiveData<>(new ArrayList<>());
     public final LiveData<List<NetworkWallhavenTag>> popularTags = _popularTags;
@@ -55,118 +59,72 @@ public class HomeViewModel extends ViewModel {
     private final MutableLiveData<List<String>> _favoriteIds = new MutableLiveData<>(new ArrayList<>());
     public final LiveData<List<String>> favoriteIds = _favoriteIds;
     
-    private int currentPage = 1;
-    private boolean hasMorePages = true;
-    private boolean isLoadingMore = false;
+    private WallhavenFeedRepository.Feed homeFeed;
     
     @Inject
-    public HomeViewModel(NetworkWallhavenRepository repository, FavoritesRepository favoritesRepository) {
-        this.repository = repository;
+    public HomeViewModel(FavoritesRepository favoritesRepository, PopularTagsRepository popularTagsRepository,
+                         WallhavenFeedRepository feedRepository) {
         this.favoritesRepository = favoritesRepository;
-        loadWallpapers();
+        this.popularTagsRepository = popularTagsRepository;
+        this.feedRepository = feedRepository;
+        this.wallpapers = PagingLiveData.cachedIn(
+                Transformations.switchMap(_feed, WallhavenFeedRepository.Feed::getPagingData),
+                ViewModelKt.getViewModelScope(this));
+        openFeed();
         loadPopularTags();
         observeFavoriteIds();
     }
     
-    public void loadWallpapers() {
-        if (isLoadingMore) return;
-        
-        _loading.setValue(true);
-        _error.setValue(null);
-        
-        // Reset pagination for fresh load
-        currentPage = 1;
-        hasMorePages = true;
-        
-        WallhavenFilters filters = new WallhavenFilters();
-        filters.setSorting(WallhavenSorting.DATE_ADDED);
-        filters.setOrder(Order.DESC);
-        
-        WallhavenSearch search = new WallhavenSearch("", filters, null);
-        
-        repository.searchWallpapers(
-                search,
-                currentPage,
-                new NetworkWallhavenRepository.WallpapersCallback() {
-                    @Override
-                    public void onSuccess(NetworkWallhavenWallpapersResponse response) {
-                        _loading.setValue(false);
-                        if (response.getData() != null) {
-                            _wallpapers.setValue(response.getData());
-                            // Check if there are more pages
-                            if (response.getMeta() != null) {
-                                hasMorePages = response.getMeta().getCurrentPage() < response.getMeta().getLastPage();
-                            }
-                        }
-                    }
-                    
-                    @Override
-                    public void onError(String error) {
-                        _loading.setValue(false);
-                        _error.setValue(error);
+    private void openFeed() {
+        disposables.add(
+            feedRepository.openFeed(createHomeSearch())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    feed -> {
+                        homeFeed = feed;
+                        _restoredScrollPosition.setValue(feed.getInitialPosition());
+                        _feed.setValue(feed);
+                    },
+                    throwable -> {
+                        _error.setValue("Failed to open feed: " + throwable.getMessage());
                     }
-                }
+                )
         );
     }
     
-    public void loadMoreWallpapers() {
-        if (isLoadingMore || !hasMorePages) return;
-        
-        isLoadingMore = true;
-        _loadingMore.setValue(true);
-        _error.setValue(null);
-        
-        WallhavenFilters filters = new WallhavenFilters();
-        filters.setSorting(WallhavenSorting.DATE_ADDED);
-        filters.setOrder(Order.DESC);
-        
-        WallhavenSearch search = new WallhavenSearch("", filters, null);
-        
-        repository.searchWallpapers(
-                search,
-                currentPage + 1,
-                new NetworkWallhavenRepository.WallpapersCallback() {
-                    @Override
-                    public void onSuccess(NetworkWallhavenWallpapersResponse response) {
-                        isLoadingMore = false;
-                        _loadingMore.setValue(false);
-                        if (response.getData() != null && !response.getData().isEmpty()) {
-                            currentPage++;
-                            List<NetworkWallhavenWallpaper> currentWallpapers = _wallpapers.getValue();
-                            if (currentWallpapers == null) {
-                                currentWallpapers = new ArrayList<>();
-                            }
-                            List<NetworkWallhavenWallpaper> updatedList = new ArrayList<>(currentWallpapers);
-                            updatedList.addAll(response.getData());
-                            _wallpapers.setValue(updatedList);
-                            
-                            // Check if there are more pages
-                            if (response.getMeta() != null) {
-                                hasMorePages = response.getMeta().getCurrentPage() < response.getMeta().getLastPage();
-                            }
-                        } else {
-                            hasMorePages = false;
-                        }
-                    }
-                    
-                    @Override
-                    public void onError(String error) {
-                        isLoadingMore = false;
-                        _loadingMore.setValue(false);
-                        _error.setValue(error);
-                    }
-                }
-        );
+    public void onRestoredScrollHandled() {
+        _restoredScrollPosition.setValue(null);
+    }
+    
+    public void saveScrollPosition(int position) {
+        if (homeFeed != null) {
+            homeFeed.saveScrollPosition(position);
+        }
     }
     
+    /**
+     * Makes the adapter's next refresh replace the feed from the network.
+     */
     public void refreshWallpapers() {
-        loadWallpapers();
+        if (homeFeed != null) {
+            homeFeed.requestRefresh();
+        }
     }
     
     public void loadPopularTags() {
         _loadingTags.setValue(true);
         
-        repository.getPopularTags(new NetworkWallhavenRepository.PopularTagsCallback() {
+        disposables.add(popularTagsRepository.getPopularTags(popularTagsCallback()));
+    }
+    
+    public void refreshPopularTags() {
+        _loadingTags.setValue(true);
+        
+        disposables.add(popularTagsRepository.refreshPopularTags(popularTagsCallback()));
+    }
+    
+    private NetworkWallhavenRepository.PopularTagsCallback popularTagsCallback() {
+        return new NetworkWallhavenRepository.PopularTagsCallback() {
             @Override
             public void onSuccess(List<NetworkWallhavenTag> tags) {
                 _loadingTags.setValue(false);
@@ -176,13 +134,21 @@ public class HomeViewModel extends ViewModel {
             @Override
             public void onError(String error) {
                 _loadingTags.setValue(false);
-                _popularTags.setValue(new ArrayList<>());
+                // Keep whatever header is already shown
+                List<NetworkWallhavenTag> current = _popularTags.getValue();
+                if (current == null || current.isEmpty()) {
+                    _popularTags.setValue(new ArrayList<>());
+                }
             }
-        });
+        };
     }
     
-    public void refreshPopularTags() {
-        loadPopularTags();
+    private WallhavenSearch createHomeSearch() {
+        WallhavenFilters filters = new WallhavenFilters();
+        filters.setSorting(WallhavenSorting.DATE_ADDED);
+        filters.setOrder(Order.DESC);
+        
+        return new WallhavenSearch("", filters, null);
     }
     
     public void toggleFavorite(NetworkWallhavenWallpaper wallpaper) {
@@ -230,5 +196,8 @@ public class HomeViewModel extends ViewModel {
     protected void onCleared() {
         super.onCleared();
         disposables.clear();
+        if (homeFeed != null) {
+            homeFeed.close();
+        }
     }
 }
@@ -4,8 +4,15 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.example.wallpaper.data.image.ImageCacheStats;
+import com.example.wallpaper.data.network.ConnectionPrewarmer;
+import com.example.wallpaper.data.network.cache.HttpCacheStats;
+import com.example.wallpaper.data.network.metrics.NetworkTimings;
 import com.example.wallpaper.ui.common.ThemePreferenceManager;
 
+import org.json.JSONException;
+import org.json.JSONObject;
+
 import javax.inject.Inject;
 
 import dagger.hilt.android.lifecycle.HiltViewModel;
@@ -14,13 +21,23 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 public class MoreViewModel extends ViewModel {
     
     private final ThemePreferenceManager themePreferenceManager;
+    private final NetworkTimings networkTimings;
+    private final HttpCacheStats httpCacheStats;
+    private final ConnectionPrewarmer connectionPrewarmer;
+    private final ImageCacheStats imageCacheStats;
     
     private final MutableLiveData<Integer> _themeMode = new MutableLiveData<>();
     public final LiveData<Integer> themeMode = _themeMode;
     
     @Inject
-    public MoreViewModel(ThemePreferenceManager themePreferenceManager) {
+    public MoreViewModel(ThemePreferenceManager themePreferenceManager, NetworkTimings networkTimings,
+                         HttpCacheStats httpCacheStats, ConnectionPrewarmer connectionPrewarmer,
+                         ImageCacheStats imageCacheStats) {
         this.themePreferenceManager = themePreferenceManager;
+        this.networkTimings = networkTimings;
+        this.httpCacheStats = httpCacheStats;
+        this.connectionPrewarmer = connectionPrewarmer;
+        this.imageCacheStats = imageCacheStats;
         _themeMode.setValue(themePreferenceManager.getThemeMode());
     }
     
@@ -36,4 +53,48 @@ public class MoreViewModel extends ViewModel {
     public String getThemeModeDisplayName(int themeMode) {
         return themePreferenceManager.getThemeModeDisplayName(themeMode);
     }
+    
+    public String getNetworkTimingsSummary() {
+        return networkTimings.toString();
+    }
+    
+    public String getHttpCacheSummary() {
+        return httpCacheStats.toString();
+    }
+    
+    public String getPrewarmSummary() {
+        return connectionPrewarmer.toString();
+    }
+    
+    public String getImageCacheSummary() {
+        return imageCacheStats.toString();
+    }
+    
+    /**
+     * Request timings and HTTP cache counters as one JSON document, for pasting
+     * into a bug report.
+     */
+    public String getNetworkStatsJson() {
+        try {
+            JSONObject cache = new JSONObject();
+            cache.put("requests", httpCacheStats.getRequestCount());
+            cache.put("hits", httpCacheStats.getHitCount());
+            cache.put("network", httpCacheStats.getNetworkCount());
+            cache.put("size", httpCacheStats.getSize());
+            cache.put("max_size", httpCacheStats.getMaxSize());
+            
+            JSONObject json = new JSONObject();
+            json.put("endpoints", new JSONObject(networkTimings.toJson()));
+            json.put("http_cache", cache);
+            json.put("prewarm_saved_ms", connectionPrewarmer.getSavedMillis());
+            json.put("image_cache", imageCacheStats.toString());
+            return json.toString(2);
+        } catch (JSONException e) {
+            return networkTimings.toJson();
+        }
+    }
+    
+    public void resetNetworkTimings() {
+        networkTimings.reset();
+    }
 }
@@ -2,14 +2,17 @@ package com.example.wallpaper.ui.viewmodel;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import android.util.Size;
 
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
-import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
-import com.example.wallpaper.data.repository.NetworkWallhavenRepository;
 import com.example.wallpaper.data.repository.FavoritesRepository;
+import com.example.wallpaper.data.repository.WallhavenFeedRepository;
 import com.example.wallpaper.data.database.entity.FavoriteEntity;
 import com.example.wallpaper.model.search.WallhavenFilters;
 import com.example.wallpaper.model.search.WallhavenSearch;
@@ -34,18 +37,12 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
 @HiltViewModel
 public class SearchResultsViewModel extends ViewModel {
 
-    private final NetworkWallhavenRepository repository;
     private final FavoritesRepository favoritesRepository;
+    private final WallhavenFeedRepository feedRepository;
     private final CompositeDisposable disposables = new CompositeDisposable();
 
-    private final MutableLiveData<List<NetworkWallhavenWallpaper>> _wallpapers = new MutableLiveData<>(new ArrayList<>());
-    public final LiveData<List<NetworkWallhavenWallpaper>> wallpapers = _wallpapers;
-
-    private final MutableLiveData<Boolean> _loading = new MutableLiveData<>(false);
-    public final LiveData<Boolean> loading = _loading;
-    
-    private final MutableLiveData<Boolean> _loadingMore = new MutableLiveData<>(false);
-    public final LiveData<Boolean> loadingMore = _loadingMore;
+    private final MutableLiveData<WallhavenFeedRepository.Feed> _feed = new MutableLiveData<>();
+    public final LiveData<PagingData<NetworkWallhavenWallpaper>> wallpapers;
 
     private final MutableLiveData<String> _error = new MutableLiveData<>();
     public final LiveData<String> error = _error;
@@ -56,15 +53,22 @@ public class SearchResultsViewModel extends ViewModel {
     private final MutableLiveData<List<String>> _favoriteIds = new MutableLiveData<>(new ArrayList<>());
     public final LiveData<List<String>> favoriteIds = _favoriteIds;
 
+    // Wallpaper index to scroll to after the stored feed was restored
+    private final MutableLiveData<Integer> _restoredScrollPosition = new MutableLiveData<>();
+    public final LiveData<Integer> restoredScrollPosition = _restoredScrollPosition;
+
     private WallhavenSearch currentSearch = createDefaultSearch();
-    private int currentPage = 1;
-    private boolean hasMorePages = true;
-    private boolean isLoadingMore = false;
+    private WallhavenFeedRepository.Feed currentFeed;
 
     @Inject
-    public SearchResultsViewModel(NetworkWallhavenRepository repository, FavoritesRepository favoritesRepository) {
-        this.repository = repository;
+    public SearchResultsViewModel(FavoritesRepository favoritesRepository, WallhavenFeedRepository feedRepository) {
         this.favoritesRepository = favoritesRepository;
+        this.feedRepository = feedRepository;
+        this.wallpapers = PagingLiveData.cachedIn(
+                Transformations.switchMap(_feed, feed -> feed != null
+                        ? feed.getPagingData()
+                        : new MutableLiveData<>(PagingData.<NetworkWallhavenWallpaper>empty())),
+                ViewModelKt.getViewModelScope(this));
         observeFavoriteIds();
     }
     
@@ -152,146 +156,68 @@ public class SearchResultsViewModel extends ViewModel {
         
         search.setFilters(filters);
         
-        currentSearch = search;
-        
-        // Reset pagination for new search
-        currentPage = 1;
-        hasMorePages = true;
-        isLoadingMore = false;
+        // The activity was recreated, the results of this search are still here
+        if (currentFeed != null && search.toKey(1).equals(currentFeed.getSearch().toKey(1))) {
+            return;
+        }
         
+        currentSearch = search;
         performSearch();
     }
 
     private void performSearch() {
-        if (isLoadingMore) return;
-        
-        _loading.setValue(true);
         _error.setValue(null);
-        
-        // Clear previous results and show loading state
-        _wallpapers.setValue(null); // Set to null to indicate loading state
-        
-        // Show results container immediately when starting search to show center loading
         _showResults.setValue(true);
+        // The previous search's pages are of no use any more
+        if (currentFeed != null) {
+            currentFeed.close();
+        }
         
-        repository.searchWallpapers(currentSearch, currentPage, new NetworkWallhavenRepository.WallpapersCallback() {
-            @Override
-            public void onSuccess(NetworkWallhavenWallpapersResponse response) {
-                _loading.setValue(false);
-                if (response != null && response.getData() != null) {
-                    _wallpapers.setValue(response.getData());
-                    
-                    // Check if there are more pages
-                    if (response.getMeta() != null) {
-                        hasMorePages = response.getMeta().getCurrentPage() < response.getMeta().getLastPage();
+        WallhavenSearch search = currentSearch;
+        disposables.add(
+            feedRepository.openFeed(search)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                    feed -> {
+                        if (search != currentSearch) return;
+                        currentFeed = feed;
+                        _restoredScrollPosition.setValue(feed.getInitialPosition());
+                        _feed.setValue(feed);
+                    },
+                    throwable -> {
+                        if (search != currentSearch) return;
+                        _error.setValue("Failed to search wallpapers: " + throwable.getMessage());
                     }
-                } else {
-                    _wallpapers.setValue(new ArrayList<>());
-                    hasMorePages = false;
-                }
-            }
-
-            @Override
-            public void onError(String error) {
-                _loading.setValue(false);
-                _error.setValue("Failed to search wallpapers: " + error);
-                _wallpapers.setValue(new ArrayList<>());
-                hasMorePages = false;
-            }
-        });
+                )
+        );
     }
-    
-    public void loadMoreWallpapers() {
-        if (isLoadingMore || !hasMorePages || currentSearch == null) return;
-        
-        isLoadingMore = true;
-        _loadingMore.setValue(true);
-        _error.setValue(null);
-        
-        repository.searchWallpapers(currentSearch, currentPage + 1, new NetworkWallhavenRepository.WallpapersCallback() {
-            @Override
-            public void onSuccess(NetworkWallhavenWallpapersResponse response) {
-                isLoadingMore = false;
-                _loadingMore.setValue(false);
-                if (response != null && response.getData() != null && !response.getData().isEmpty()) {
-                    currentPage++;
-                    List<NetworkWallhavenWallpaper> currentWallpapers = _wallpapers.getValue();
-                    if (currentWallpapers == null) {
-                        currentWallpapers = new ArrayList<>();
-                    }
-                    List<NetworkWallhavenWallpaper> updatedList = new ArrayList<>(currentWallpapers);
-                    updatedList.addAll(response.getData());
-                    _wallpapers.setValue(updatedList);
-                    
-                    // Check if there are more pages
-                    if (response.getMeta() != null) {
-                        hasMorePages = response.getMeta().getCurrentPage() < response.getMeta().getLastPage();
-                    }
-                } else {
-                    hasMorePages = false;
-                }
-            }
 
-            @Override
-            public void onError(String error) {
-                isLoadingMore = false;
-                _loadingMore.setValue(false);
-                _error.setValue("Failed to load more wallpapers: " + error);
-            }
-        });
+    public void onRestoredScrollHandled() {
+        _restoredScrollPosition.setValue(null);
     }
 
-    public void refreshSearch() {
-        if (currentSearch != null) {
-            // Reset pagination for refresh
-            currentPage = 1;
-            hasMorePages = true;
-            isLoadingMore = false;
-            performRefreshSearch();
+    public void saveScrollPosition(int position) {
+        if (currentFeed != null) {
+            currentFeed.saveScrollPosition(position);
         }
     }
-    
-    private void performRefreshSearch() {
-        if (isLoadingMore) return;
-        
-        _loading.setValue(true);
-        _error.setValue(null);
-        
-        // Don't clear wallpapers for refresh - keep showing current results during refresh
-        
-        repository.searchWallpapers(currentSearch, currentPage, new NetworkWallhavenRepository.WallpapersCallback() {
-            @Override
-            public void onSuccess(NetworkWallhavenWallpapersResponse response) {
-                _loading.setValue(false);
-                if (response != null && response.getData() != null) {
-                    _wallpapers.setValue(response.getData());
-                    
-                    // Check if there are more pages
-                    if (response.getMeta() != null) {
-                        hasMorePages = response.getMeta().getCurrentPage() < response.getMeta().getLastPage();
-                    }
-                } else {
-                    _wallpapers.setValue(new ArrayList<>());
-                    hasMorePages = false;
-                }
-            }
 
-            @Override
-            public void onError(String error) {
-                _loading.setValue(false);
-                _error.setValue("Failed to search wallpapers: " + error);
-                _wallpapers.setValue(new ArrayList<>());
-                hasMorePages = false;
-            }
-        });
+    /**
+     * Makes the adapter's next refresh replace the results from the network.
+     */
+    public void refreshSearch() {
+        if (currentFeed != null) {
+            currentFeed.requestRefresh();
+        }
     }
 
     public void clearFilters() {
         currentSearch = createDefaultSearch();
-        currentPage = 1;
-        hasMorePages = true;
-        isLoadingMore = false;
-        _wallpapers.setValue(new ArrayList<>());
+        if (currentFeed != null) {
+            currentFeed.close();
+        }
+        currentFeed = null;
+        _feed.setValue(null);
         _showResults.setValue(false);
         _error.setValue(null);
     }
@@ -375,5 +301,8 @@ public class SearchResultsViewModel extends ViewModel {
     protected void onCleared() {
         super.onCleared();
         disposables.clear();
+        if (currentFeed != null) {
+            currentFeed.close();
+        }
     }
 }
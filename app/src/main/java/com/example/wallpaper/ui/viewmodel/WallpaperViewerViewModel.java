@@ -1,10 +1,7 @@
 package com.example.wallpaper.ui.viewmodel;
 
 import android.app.Application;
-import android.app.DownloadManager;
-import android.content.Context;
 import android.net.Uri;
-import android.os.Environment;
 
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
@@ -13,8 +10,10 @@ import androidx.lifecycle.MutableLiveData;
 import com.example.wallpaper.data.repository.FavoritesRepository;
 import com.example.wallpaper.data.repository.LocalWallpaperRepository;
 import com.example.wallpaper.data.repository.NetworkWallhavenRepository;
+import com.example.wallpaper.data.repository.WallpaperDownloadRepository;
 import com.example.wallpaper.model.FavoriteWallpaper;
 import com.example.wallpaper.model.LocalWallpaper;
+import com.example.wallpaper.model.WallpaperDownloadProgress;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
 import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaperResponse;
 import com.example.wallpaper.data.network.model.NetworkWallhavenThumbs;
@@ -26,6 +25,7 @@ import javax.inject.Inject;
 import dagger.hilt.android.lifecycle.HiltViewModel;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
 @HiltViewModel
@@ -34,6 +34,7 @@ public class WallpaperViewerViewModel extends AndroidViewModel {
     private final FavoritesRepository favoritesRepository;
     private final NetworkWallhavenRepository networkRepository;
     private final LocalWallpaperRepository localRepository;
+    private final WallpaperDownloadRepository downloadRepository;
     private final CompositeDisposable disposables = new CompositeDisposable();
     
     private final MutableLiveData<Boolean> _isFavorite = new MutableLiveData<>(false);
@@ -48,16 +49,24 @@ public class WallpaperViewerViewModel extends AndroidViewModel {
     private final MutableLiveData<LocalWallpaper> _localWallpaperInfo = new MutableLiveData<>();
     public final LiveData<LocalWallpaper> localWallpaperInfo = _localWallpaperInfo;
     
+    // Null while not saving or after a failed save
+    private final MutableLiveData<WallpaperDownloadProgress> _saveProgress = new MutableLiveData<>();
+    public final LiveData<WallpaperDownloadProgress> saveProgress = _saveProgress;
+    
     private String wallpaperId;
     private String wallpaperPath;
+    private Disposable detailsRequest;
+    private Disposable saveRequest;
     
     @Inject
     public WallpaperViewerViewModel(Application application, FavoritesRepository favoritesRepository, 
-                                  NetworkWallhavenRepository networkRepository, LocalWallpaperRepository localRepository) {
+                                  NetworkWallhavenRepository networkRepository, LocalWallpaperRepository localRepository,
+                                  WallpaperDownloadRepository downloadRepository) {
         super(application);
         this.favoritesRepository = favoritesRepository;
         this.networkRepository = networkRepository;
         this.localRepository = localRepository;
+        this.downloadRepository = downloadRepository;
     }
     
     public void setWallpaperInfo(String wallpaperId, String wallpaperPath) {
@@ -71,8 +80,12 @@ public class WallpaperViewerViewModel extends AndroidViewModel {
         if (wallpaperId == null) return;
         
         if (isRemoteWallpaper()) {
-            // For network wallpapers, fetch from API
-            networkRepository.getWallpaper(wallpaperId, new NetworkWallhavenRepository.WallpaperCallback() {
+            // For network wallpapers, show the cached detail first and refresh what search omits
+            // A previous wallpaper's request is superseded
+            if (detailsRequest != null) {
+                disposables.remove(detailsRequest);
+            }
+            detailsRequest = networkRepository.getWallpaperDetails(wallpaperId, new NetworkWallhavenRepository.WallpaperCallback() {
                 @Override
                 public void onSuccess(NetworkWallhavenWallpaperResponse response) {
                     if (response.getData() != null) {
@@ -85,6 +98,7 @@ public class WallpaperViewerViewModel extends AndroidViewModel {
                     _error.setValue("Failed to load wallpaper details: " + error);
                 }
             });
+            disposables.add(detailsRequest);
         } else {
             // For local wallpapers, get from local repository
             disposables.add(
@@ -127,8 +141,15 @@ public class WallpaperViewerViewModel extends AndroidViewModel {
         if (wallpaperId == null || wallpaperPath == null) return;
         
         if (isRemoteWallpaper()) {
-            // For remote wallpapers, fetch complete data from API first
-            networkRepository.getWallpaper(wallpaperId, new NetworkWallhavenRepository.WallpaperCallback() {
+            // The loaded detail already has everything a favorite stores
+            NetworkWallhavenWallpaper loaded = _networkWallpaperInfo.getValue();
+            if (loaded != null && wallpaperId.equals(loaded.getId())) {
+                performToggleFavorite(loaded);
+                return;
+            }
+            
+            // Otherwise fetch complete data from API first
+            disposables.add(networkRepository.getWallpaper(wallpaperId, new NetworkWallhavenRepository.WallpaperCallback() {
                 @Override
                 public void onSuccess(NetworkWallhavenWallpaperResponse response) {
                     if (response.getData() != null) {
@@ -143,7 +164,7 @@ public class WallpaperViewerViewModel extends AndroidViewModel {
                 public void onError(String error) {
                     _error.setValue("Failed to fetch wallpaper info: " + error);
                 }
-            });
+            }));
         } else {
             // For local wallpapers, create a LocalWallpaper instance
             LocalWallpaper wallpaper = new LocalWallpaper();
@@ -179,29 +200,25 @@ public class WallpaperViewerViewModel extends AndroidViewModel {
     
     public void saveToDevice() {
         if (!isRemoteWallpaper()) return;
+        // Already saving this one
+        if (saveRequest != null && !saveRequest.isDisposed()) return;
         
-        try {
-            Context context = getApplication();
-            DownloadManager downloadManager = (DownloadManager) context.getSystemService(Context.DOWNLOAD_SERVICE);
-            
-            Uri uri = Uri.parse(wallpaperPath);
-            DownloadManager.Request request = new DownloadManager.Request(uri);
-            
-            request.setTitle("Wallpaper Download");
-            request.setDescription("Downloading wallpaper...");
-            
-            String fileName = "wallpaper_" + wallpaperId + ".jpg";
-            request.setDestinationInExternalPublicDir(Environment.DIRECTORY_DOWNLOADS, fileName);
-            
-            request.setNotificationVisibility(DownloadManager.Request.VISIBILITY_VISIBLE_NOTIFY_COMPLETED);
-            
-            request.setAllowedNetworkTypes(DownloadManager.Request.NETWORK_WIFI | DownloadManager.Request.NETWORK_MOBILE);
-            
-            downloadManager.enqueue(request);
-            
-        } catch (Exception e) {
-            _error.setValue("Error saving wallpaper: " + e.getMessage());
-        }
+        // Type and size come with the details; without them they are taken from the URL and not checked
+        NetworkWallhavenWallpaper details = _networkWallpaperInfo.getValue();
+        boolean haveDetails = details != null && wallpaperId != null && wallpaperId.equals(details.getId());
+        String mimeType = haveDetails ? details.getFileType() : null;
+        long fileSize = haveDetails ? details.getFileSize() : 0;
+        
+        saveRequest = downloadRepository.save(wallpaperId, wallpaperPath, mimeType, fileSize)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        _saveProgress::setValue,
+                        throwable -> {
+                            _saveProgress.setValue(null);
+                            _error.setValue("Error saving wallpaper: " + throwable.getMessage());
+                        }
+                );
+        disposables.add(saveRequest);
     }
     
     @Override
@@ -0,0 +1,143 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+import okio.Buffer;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Decode cost of a 24-item search page with Moshi's reflective ClassJsonAdapter
+ * and with NetworkWallhavenJsonAdapterFactory. Not part of the regular unit tests,
+ * run it with {@code ./gradlew testDebugUnitTest -Pbenchmark}.
+ * Cold is the first decode in a class loader of its own, so the model classes and
+ * adapters are loaded and created from scratch as on app start; Moshi's reader is
+ * loaded before timing so neither variant pays for it. The median over several
+ * loaders is reported. Warm is the average over repeated decodes with one adapter.
+ */
+public class NetworkWallhavenJsonAdapterBenchmark {
+
+    private static final String FIXTURE = "wallhaven_search_page.json";
+    private static final int COLD_RUNS = 15;
+    private static final int WARMUP_RUNS = 200;
+    private static final int WARM_RUNS = 500;
+
+    private static String json;
+
+    @BeforeClass
+    public static void loadFixture() throws IOException {
+        assumeTrue("Benchmark, run with -Pbenchmark", Boolean.getBoolean("wallpaper.benchmark"));
+        try (InputStream in = NetworkWallhavenJsonAdapterBenchmark.class.getClassLoader().getResourceAsStream(FIXTURE)) {
+            assertNotNull("Missing fixture " + FIXTURE, in);
+            json = Okio.buffer(Okio.source(in)).readString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void coldAndWarmDecode() throws Exception {
+        long reflectiveCold = coldNanos(false);
+        long generatedCold = coldNanos(true);
+        long reflectiveWarm = warmNanos(reflectiveMoshi());
+        long generatedWarm = warmNanos(generatedMoshi());
+
+        System.out.println(String.format(Locale.US,
+                "Search page decode (24 items)%n"
+                        + "  reflective: cold %.3f ms, warm %.3f ms%n"
+                        + "  generated:  cold %.3f ms, warm %.3f ms",
+                reflectiveCold / 1e6, reflectiveWarm / 1e6, generatedCold / 1e6, generatedWarm / 1e6));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long coldNanos(boolean generated) throws Exception {
+        URL[] classPath = classPath();
+        long[] runs = new long[COLD_RUNS];
+        for (int i = 0; i < COLD_RUNS; i++) {
+            // Nothing but the JDK is shared with this test's classes
+            try (URLClassLoader loader = new URLClassLoader(classPath, ClassLoader.getPlatformClassLoader())) {
+                Class<?> type = Class.forName(FirstDecode.class.getName(), true, loader);
+                BiFunction<String, Boolean, Long> firstDecode =
+                        (BiFunction<String, Boolean, Long>) type.getConstructor().newInstance();
+                runs[i] = firstDecode.apply(json, generated);
+            }
+        }
+        Arrays.sort(runs);
+        return runs[COLD_RUNS / 2];
+    }
+
+    private static URL[] classPath() throws IOException {
+        String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+        URL[] urls = new URL[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            urls[i] = new File(entries[i]).toURI().toURL();
+        }
+        return urls;
+    }
+
+    private static long warmNanos(Moshi moshi) throws IOException {
+        JsonAdapter<NetworkWallhavenWallpapersResponse> adapter = moshi.adapter(NetworkWallhavenWallpapersResponse.class);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            adapter.fromJson(new Buffer().writeUtf8(json));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < WARM_RUNS; i++) {
+            adapter.fromJson(new Buffer().writeUtf8(json));
+        }
+        return (System.nanoTime() - start) / WARM_RUNS;
+    }
+
+    private static NetworkWallhavenWallpapersResponse decode(Moshi moshi, String json) throws IOException {
+        return moshi.adapter(NetworkWallhavenWallpapersResponse.class).fromJson(new Buffer().writeUtf8(json));
+    }
+
+    private static Moshi reflectiveMoshi() {
+        return new Moshi.Builder()
+                .add(new InstantJsonAdapter())
+                .add(new NetworkWallhavenMetaQuerySerializer())
+                .build();
+    }
+
+    private static Moshi generatedMoshi() {
+        return new Moshi.Builder()
+                .add(new NetworkWallhavenJsonAdapterFactory())
+                .add(new InstantJsonAdapter())
+                .add(new NetworkWallhavenMetaQuerySerializer())
+                .build();
+    }
+
+    /**
+     * Runs inside a fresh class loader and times the first decode there.
+     */
+    public static class FirstDecode implements BiFunction<String, Boolean, Long> {
+        @Override
+        public Long apply(String json, Boolean generated) {
+            try {
+                // Loads Moshi and its reader, but none of the models or their adapters
+                new Moshi.Builder().build().adapter(Object.class).fromJson(json);
+
+                long start = System.nanoTime();
+                decode(generated ? generatedMoshi() : reflectiveMoshi(), json);
+                return System.nanoTime() - start;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.wallpaper.data.network.model.serializer;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.example.wallpaper.data.network.model.TagNetworkWallhavenMetaQuery;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import okio.Buffer;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that NetworkWallhavenJsonAdapterFactory decodes a 24-item search page the
+ * same as Moshi's reflective ClassJsonAdapter, and that its output reads back.
+ * The decode cost of both is measured by {@link NetworkWallhavenJsonAdapterBenchmark}.
+ */
+public class NetworkWallhavenJsonAdapterTest {
+
+    private static final String FIXTURE = "wallhaven_search_page.json";
+
+    private static String json;
+
+    @BeforeClass
+    public static void loadFixture() throws IOException {
+        try (InputStream in = NetworkWallhavenJsonAdapterTest.class.getClassLoader().getResourceAsStream(FIXTURE)) {
+            assertNotNull("Missing fixture " + FIXTURE, in);
+            json = Okio.buffer(Okio.source(in)).readString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void adaptersDecodeSameAsReflection() throws IOException {
+        NetworkWallhavenWallpapersResponse reflective = decode(reflectiveMoshi());
+        NetworkWallhavenWallpapersResponse generated = decode(generatedMoshi());
+
+        assertEquals(24, generated.getData().size());
+        assertEquals(reflective.getData().size(), generated.getData().size());
+        for (int i = 0; i < reflective.getData().size(); i++) {
+            NetworkWallhavenWallpaper expected = reflective.getData().get(i);
+            NetworkWallhavenWallpaper actual = generated.getData().get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getSourceUrl(), actual.getSourceUrl());
+            assertEquals(expected.getDimensionX(), actual.getDimensionX());
+            assertEquals(expected.getRatio(), actual.getRatio(), 0f);
+            assertEquals(expected.getFileSize(), actual.getFileSize());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+            assertEquals(expected.getColors(), actual.getColors());
+            assertEquals(expected.getThumbs().getLarge(), actual.getThumbs().getLarge());
+            assertEquals(expected.getUploader().getAvatar(), actual.getUploader().getAvatar());
+            assertEquals(expected.getTags().size(), actual.getTags().size());
+            for (int t = 0; t < expected.getTags().size(); t++) {
+                assertEquals(expected.getTags().get(t).getId(), actual.getTags().get(t).getId());
+                assertEquals(expected.getTags().get(t).getCreatedAt(), actual.getTags().get(t).getCreatedAt());
+            }
+        }
+
+        assertEquals(reflective.getMeta().getPerPage(), generated.getMeta().getPerPage());
+        assertEquals(reflective.getMeta().getLastPage(), generated.getMeta().getLastPage());
+        assertTrue(generated.getMeta().getQuery() instanceof TagNetworkWallhavenMetaQuery);
+        assertEquals("nature", ((TagNetworkWallhavenMetaQuery) generated.getMeta().getQuery()).getTag());
+    }
+
+    @Test
+    public void adaptersRoundTrip() throws IOException {
+        JsonAdapter<NetworkWallhavenWallpapersResponse> adapter =
+                generatedMoshi().adapter(NetworkWallhavenWallpapersResponse.class);
+        NetworkWallhavenWallpapersResponse decoded = adapter.fromJson(json);
+        NetworkWallhavenWallpapersResponse again = adapter.fromJson(adapter.toJson(decoded));
+
+        assertEquals(decoded.getData().size(), again.getData().size());
+        assertEquals(decoded.getData().get(0).getSourceUrl(), again.getData().get(0).getSourceUrl());
+        assertNotNull(decoded.getData().get(0).getCreatedAt());
+        assertEquals(decoded.getData().get(0).getCreatedAt(), again.getData().get(0).getCreatedAt());
+        assertEquals(decoded.getData().get(0).getTags().get(0).getCreatedAt(),
+                again.getData().get(0).getTags().get(0).getCreatedAt());
+        assertEquals(decoded.getMeta().getTotal(), again.getMeta().getTotal());
+    }
+
+    @Test
+    public void instantsReadBothFormats() {
+        InstantJsonAdapter adapter = new InstantJsonAdapter();
+        Instant instant = Instant.parse("2025-06-08T12:50:35Z");
+
+        // Wallhaven's own format, and ISO-8601 as written back by toJson
+        assertEquals(instant, adapter.fromJson("2025-06-08 12:50:35"));
+        assertEquals(instant, adapter.fromJson(adapter.toJson(instant)));
+    }
+
+    private static NetworkWallhavenWallpapersResponse decode(Moshi moshi) throws IOException {
+        return moshi.adapter(NetworkWallhavenWallpapersResponse.class).fromJson(new Buffer().writeUtf8(json));
+    }
+
+    private static Moshi reflectiveMoshi() {
+        return new Moshi.Builder()
+                .add(new InstantJsonAdapter())
+                .add(new NetworkWallhavenMetaQuerySerializer())
+                .build();
+    }
+
+    private static Moshi generatedMoshi() {
+        return new Moshi.Builder()
+                .add(new NetworkWallhavenJsonAdapterFactory())
+                .add(new InstantJsonAdapter())
+                .add(new NetworkWallhavenMetaQuerySerializer())
+                .build();
+    }
+}
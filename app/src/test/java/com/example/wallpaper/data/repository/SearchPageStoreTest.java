@@ -0,0 +1,223 @@
+package com.example.wallpaper.data.repository;
+
+import androidx.paging.PagingSource;
+
+import com.example.wallpaper.data.database.dao.FeedDao;
+import com.example.wallpaper.data.database.entity.FeedItemEntity;
+import com.example.wallpaper.data.database.entity.FeedPageEntity;
+import com.example.wallpaper.data.database.entity.FeedStateEntity;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.example.wallpaper.di.NetworkModule;
+import com.example.wallpaper.model.search.WallhavenSearch;
+import com.squareup.moshi.Moshi;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes feeds through SearchPageStore into an in-memory FeedDao and reads them
+ * back the way a restored screen does.
+ */
+public class SearchPageStoreTest {
+
+    private static final String FIXTURE = "wallhaven_search_page.json";
+
+    private static String json;
+
+    private final Moshi moshi = new NetworkModule().provideMoshi();
+    private final FakeFeedDao feedDao = new FakeFeedDao();
+    private final SearchPageStore store = new SearchPageStore(feedDao, moshi);
+    private final WallhavenSearch search = new WallhavenSearch();
+
+    @BeforeClass
+    public static void loadFixture() throws IOException {
+        try (InputStream in = SearchPageStoreTest.class.getClassLoader().getResourceAsStream(FIXTURE)) {
+            assertNotNull("Missing fixture " + FIXTURE, in);
+            json = Okio.buffer(Okio.source(in)).readString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void restoredFeedKeepsItsItems() throws IOException {
+        NetworkWallhavenWallpapersResponse response = response();
+        store.storePage(search, 1, response).blockingAwait();
+        store.saveScrollPosition(search, 5);
+
+        FeedPageEntity last = store.getLastStoredPage(search).blockingGet();
+        assertNotNull(last);
+        assertEquals(1, last.getPage());
+        assertEquals(response.getMeta().getLastPage(), last.getLastPage());
+        assertEquals(5, (int) store.getScrollPosition(search).blockingGet());
+
+        List<FeedItemEntity> rows = feedDao.items(search.toKey(1).getFeed());
+        assertEquals(response.getData().size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertSameWallpaper(response.getData().get(i), store.decode(rows.get(i)));
+        }
+    }
+
+    @Test
+    public void storedItemsDecodeAsWritten() throws IOException {
+        List<NetworkWallhavenWallpaper> wallpapers = response().getData();
+        String feedKey = search.toKey(1).getFeed();
+
+        // A streamed first page lands in batches before the mediator stores it whole
+        store.storeStreamedItems(search, 0, wallpapers.subList(0, 6)).blockingAwait();
+        store.storeStreamedItems(search, 6, wallpapers.subList(6, wallpapers.size())).blockingAwait();
+        List<FeedItemEntity> rows = feedDao.items(feedKey);
+        assertEquals(wallpapers.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertSameWallpaper(wallpapers.get(i), store.decode(rows.get(i)));
+        }
+
+        store.storePage(search, 1, response()).blockingAwait();
+        store.storePage(search, 2, response()).blockingAwait();
+        rows = feedDao.items(feedKey);
+        assertEquals(2 * wallpapers.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertSameWallpaper(wallpapers.get(i % wallpapers.size()), store.decode(rows.get(i)));
+        }
+    }
+
+    @Test
+    public void unreadableRowDecodesToStub() {
+        NetworkWallhavenWallpaper stub = store.decode(new FeedItemEntity("feed", 1, 0, "ujzde8", "{not json"));
+
+        assertEquals("ujzde8", stub.getId());
+        assertNull(stub.getCreatedAt());
+    }
+
+    private NetworkWallhavenWallpapersResponse response() throws IOException {
+        return moshi.adapter(NetworkWallhavenWallpapersResponse.class).fromJson(json);
+    }
+
+    private static void assertSameWallpaper(NetworkWallhavenWallpaper expected, NetworkWallhavenWallpaper actual) {
+        // An unreadable row decodes to a stub with only its id
+        assertNotNull(actual.getCreatedAt());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getPath(), actual.getPath());
+        assertEquals(expected.getDimensionX(), actual.getDimensionX());
+        assertEquals(expected.getDimensionY(), actual.getDimensionY());
+        assertEquals(expected.getPurity(), actual.getPurity());
+        assertEquals(expected.getColors(), actual.getColors());
+        assertEquals(expected.getThumbs().getLarge(), actual.getThumbs().getLarge());
+        assertEquals(expected.getThumbs().getSmall(), actual.getThumbs().getSmall());
+    }
+
+    /**
+     * Keeps rows in maps and runs the default @Transaction methods as they are.
+     */
+    private static class FakeFeedDao implements FeedDao {
+        final Map<String, FeedPageEntity> pages = new HashMap<>();
+        final Map<String, FeedItemEntity> items = new HashMap<>();
+        final Map<String, FeedStateEntity> states = new HashMap<>();
+
+        /**
+         * The feed's items in the order of {@link #pagingSource}.
+         */
+        synchronized List<FeedItemEntity> items(String feedKey) {
+            return items.values().stream()
+                    .filter(item -> item.getFeedKey().equals(feedKey))
+                    .sorted(Comparator.comparingInt(FeedItemEntity::getPage)
+                            .thenComparingInt(FeedItemEntity::getItemIndex))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public PagingSource<Integer, FeedItemEntity> pagingSource(String feedKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized FeedPageEntity getPage(String feedKey, int page) {
+            return pages.get(feedKey + "#" + page);
+        }
+
+        @Override
+        public synchronized FeedPageEntity getLastPage(String feedKey) {
+            return pages.values().stream()
+                    .filter(page -> page.getFeedKey().equals(feedKey))
+                    .max(Comparator.comparingInt(FeedPageEntity::getPage))
+                    .orElse(null);
+        }
+
+        @Override
+        public synchronized List<String> getWallpaperIds(String feedKey, int page) {
+            List<String> ids = new ArrayList<>();
+            for (FeedItemEntity item : items(feedKey)) {
+                if (item.getPage() == page) ids.add(item.getWallpaperId());
+            }
+            return ids;
+        }
+
+        @Override
+        public synchronized FeedStateEntity getState(String feedKey) {
+            return states.get(feedKey);
+        }
+
+        @Override
+        public synchronized void upsertPage(FeedPageEntity page) {
+            pages.put(page.getFeedKey() + "#" + page.getPage(), page);
+        }
+
+        @Override
+        public synchronized void insertItems(List<FeedItemEntity> items) {
+            for (FeedItemEntity item : items) {
+                this.items.put(item.getFeedKey() + "#" + item.getPage() + "#" + item.getItemIndex(), item);
+            }
+        }
+
+        @Override
+        public synchronized void upsertState(FeedStateEntity state) {
+            states.put(state.getFeedKey(), state);
+        }
+
+        @Override
+        public synchronized void extendExpiry(String feedKey, long expiresAt) {
+            for (FeedPageEntity page : pages.values()) {
+                if (page.getFeedKey().equals(feedKey)) page.setExpiresAt(expiresAt);
+            }
+        }
+
+        @Override
+        public synchronized void deletePagesFrom(String feedKey, int fromPage) {
+            pages.values().removeIf(page -> page.getFeedKey().equals(feedKey) && page.getPage() >= fromPage);
+        }
+
+        @Override
+        public synchronized void deleteItemsFrom(String feedKey, int fromPage) {
+            items.values().removeIf(item -> item.getFeedKey().equals(feedKey) && item.getPage() >= fromPage);
+        }
+
+        @Override
+        public synchronized void deleteExpiredPages(long now) {
+            pages.values().removeIf(page -> page.getExpiresAt() <= now);
+        }
+
+        @Override
+        public synchronized void deleteOrphanItems() {
+            items.values().removeIf(item -> getPage(item.getFeedKey(), item.getPage()) == null);
+        }
+
+        @Override
+        public synchronized void deleteOrphanStates() {
+            states.values().removeIf(state -> getLastPage(state.getFeedKey()) == null);
+        }
+    }
+}
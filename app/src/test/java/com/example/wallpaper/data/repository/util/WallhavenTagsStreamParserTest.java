@@ -0,0 +1,124 @@
+package com.example.wallpaper.data.repository.util;
+
+import com.example.wallpaper.data.network.model.NetworkWallhavenTag;
+
+import org.jsoup.Jsoup;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import okio.Buffer;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the streaming popular tags parser against the Jsoup parser on a saved page.
+ */
+public class WallhavenTagsStreamParserTest {
+
+    private static final String FIXTURE = "wallhaven_popular_tags.html";
+
+    private static String html;
+
+    @BeforeClass
+    public static void loadFixture() throws IOException {
+        try (InputStream in = WallhavenTagsStreamParserTest.class.getClassLoader().getResourceAsStream(FIXTURE)) {
+            assertNotNull("Missing fixture " + FIXTURE, in);
+            html = Okio.buffer(Okio.source(in)).readString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void streamParserMatchesDocumentParser() throws IOException {
+        Instant start = Instant.now();
+        List<NetworkWallhavenTag> expected = WallhavenTagsDocumentParser.parsePopularTags(Jsoup.parse(html));
+        List<NetworkWallhavenTag> actual = WallhavenTagsStreamParser.parsePopularTags(new Buffer().writeUtf8(html));
+
+        assertNotNull(actual);
+        assertEquals(5, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            NetworkWallhavenTag e = expected.get(i);
+            NetworkWallhavenTag a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getAlias(), a.getAlias());
+            assertEquals(e.getCategoryId(), a.getCategoryId());
+            assertEquals(e.getCategory(), a.getCategory());
+            assertEquals(e.getPurity(), a.getPurity());
+        }
+
+        // Parseable dates match exactly
+        assertEquals(expected.get(0).getCreatedAt(), actual.get(0).getCreatedAt());
+        assertEquals(expected.get(1).getCreatedAt(), actual.get(1).getCreatedAt());
+        assertEquals(expected.get(2).getCreatedAt(), actual.get(2).getCreatedAt());
+        assertEquals(expected.get(4).getCreatedAt(), actual.get(4).getCreatedAt());
+
+        // The fixture's fourth tag has an unparseable date, both parsers fall back to
+        // the time of parsing, so the two values only agree on not being older than the test
+        assertNotNull(expected.get(3).getCreatedAt());
+        assertNotNull(actual.get(3).getCreatedAt());
+        assertFalse(expected.get(3).getCreatedAt().isBefore(start));
+        assertFalse(actual.get(3).getCreatedAt().isBefore(start));
+    }
+
+    @Test
+    public void extractsFields() throws IOException {
+        List<NetworkWallhavenTag> tags = WallhavenTagsStreamParser.parsePopularTags(new Buffer().writeUtf8(html));
+
+        assertNotNull(tags);
+        NetworkWallhavenTag nature = tags.get(0);
+        assertEquals(37L, nature.getId());
+        assertEquals("nature", nature.getName());
+        assertEquals("Nature", nature.getCategory());
+        assertEquals(5L, nature.getCategoryId());
+        assertEquals("sfw", nature.getPurity());
+        assertEquals(Instant.parse("2014-02-03T18:32:10Z"), nature.getCreatedAt());
+
+        assertEquals("Anime & Manga", tags.get(1).getCategory());
+        assertEquals("sketchy", tags.get(2).getPurity());
+        assertEquals(27L, tags.get(2).getCategoryId());
+        assertEquals("nsfw", tags.get(3).getPurity());
+        assertEquals("digital art – /CG", tags.get(3).getName());
+        assertEquals("", tags.get(4).getCategory());
+        assertEquals(0L, tags.get(4).getCategoryId());
+    }
+
+    @Test
+    public void ignoresTagsOutsideTagList() throws IOException {
+        List<NetworkWallhavenTag> tags = WallhavenTagsStreamParser.parsePopularTags(new Buffer().writeUtf8(html));
+
+        // Neither the script, the comment nor the footer after #taglist contribute tags
+        assertNotNull(tags);
+        for (NetworkWallhavenTag tag : tags) {
+            assertNotEquals(5L, tag.getId());
+        }
+
+        Buffer footerOnly = new Buffer().writeUtf8(html.substring(html.indexOf("</main>")));
+        assertNull(WallhavenTagsStreamParser.parsePopularTags(footerOnly));
+    }
+
+    @Test
+    public void returnsNullWithoutTagList() throws IOException {
+        String page = "<html><body><div id=\"content\">Nothing here</div></body></html>";
+
+        assertNull(WallhavenTagsStreamParser.parsePopularTags(new Buffer().writeUtf8(page)));
+        assertTrue(WallhavenTagsDocumentParser.parsePopularTags(Jsoup.parse(page)).isEmpty());
+    }
+
+    @Test
+    public void parsesIdFromPathLikeUrl() {
+        assertEquals(37L, WallhavenTagsStreamParser.parseIdFromPath("https://wallhaven.cc/tag/37"));
+        assertEquals(27L, WallhavenTagsStreamParser.parseIdFromPath("https://wallhaven.cc/tag-category/27?sort=name"));
+        assertEquals(-1L, WallhavenTagsStreamParser.parseIdFromPath("/tag/999"));
+        assertEquals(-1L, WallhavenTagsStreamParser.parseIdFromPath("https://wallhaven.cc"));
+        assertEquals(-1L, WallhavenTagsStreamParser.parseIdFromPath("https://wallhaven.cc/tags/category"));
+        assertEquals(-1L, WallhavenTagsStreamParser.parseIdFromPath(""));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.wallpaper.data.repository.util;
+
+import com.example.wallpaper.data.database.dao.WallpaperDetailDao;
+import com.example.wallpaper.data.database.entity.WallpaperDetailEntity;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpaper;
+import com.example.wallpaper.data.network.model.NetworkWallhavenWallpapersResponse;
+import com.example.wallpaper.di.NetworkModule;
+import com.squareup.moshi.Moshi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reads details back from the Room tier. The memory tier is always cold here, as
+ * local tests run against a stubbed android.util.LruCache that holds nothing.
+ */
+public class WallpaperDetailCacheTest {
+
+    private static final String FIXTURE = "wallhaven_search_page.json";
+
+    private static NetworkWallhavenWallpaper wallpaper;
+
+    private final Moshi moshi = new NetworkModule().provideMoshi();
+    private final FakeWallpaperDetailDao dao = new FakeWallpaperDetailDao();
+
+    @BeforeClass
+    public static void loadFixture() throws IOException {
+        try (InputStream in = WallpaperDetailCacheTest.class.getClassLoader().getResourceAsStream(FIXTURE)) {
+            assertNotNull("Missing fixture " + FIXTURE, in);
+            String json = Okio.buffer(Okio.source(in)).readString(StandardCharsets.UTF_8);
+            wallpaper = new NetworkModule().provideMoshi()
+                    .adapter(NetworkWallhavenWallpapersResponse.class)
+                    .fromJson(json)
+                    .getData()
+                    .get(0);
+        }
+    }
+
+    @Before
+    public void writeSynchronously() {
+        RxJavaPlugins.setIoSchedulerHandler(scheduler -> Schedulers.trampoline());
+    }
+
+    @After
+    public void resetSchedulers() {
+        RxJavaPlugins.reset();
+    }
+
+    @Test
+    public void fullDetailReadsBackFromRoom() {
+        assertTrue(WallpaperDetailCache.isComplete(wallpaper));
+        assertNotNull(wallpaper.getCreatedAt());
+
+        new WallpaperDetailCache(dao, moshi).put(wallpaper);
+        assertNotNull(dao.rows.get(wallpaper.getId()));
+
+        // A new cache has nothing in memory, so this can only be answered by Room
+        WallpaperDetailCache.Entry entry = new WallpaperDetailCache(dao, moshi)
+                .get(wallpaper.getId())
+                .blockingGet();
+
+        assertNotNull(entry);
+        assertTrue(entry.isFreshAndComplete());
+        NetworkWallhavenWallpaper restored = entry.getWallpaper();
+        assertEquals(wallpaper.getId(), restored.getId());
+        assertEquals(wallpaper.getCreatedAt(), restored.getCreatedAt());
+        assertEquals(wallpaper.getPath(), restored.getPath());
+        assertEquals(wallpaper.getDimensionX(), restored.getDimensionX());
+        assertEquals(wallpaper.getFileSize(), restored.getFileSize());
+        assertEquals(wallpaper.getColors(), restored.getColors());
+        assertEquals(wallpaper.getThumbs().getLarge(), restored.getThumbs().getLarge());
+        assertEquals(wallpaper.getUploader().getUsername(), restored.getUploader().getUsername());
+        assertEquals(wallpaper.getTags().size(), restored.getTags().size());
+        assertEquals(wallpaper.getTags().get(0).getCreatedAt(), restored.getTags().get(0).getCreatedAt());
+    }
+
+    @Test
+    public void missCompletesEmpty() {
+        assertNull(new WallpaperDetailCache(dao, moshi).get("missing").blockingGet());
+    }
+
+    private static class FakeWallpaperDetailDao implements WallpaperDetailDao {
+        final Map<String, WallpaperDetailEntity> rows = new HashMap<>();
+
+        @Override
+        public Maybe<WallpaperDetailEntity> getById(String wallpaperId) {
+            return Maybe.fromCallable(() -> rows.get(wallpaperId));
+        }
+
+        @Override
+        public void upsert(WallpaperDetailEntity detail) {
+            rows.put(detail.getWallpaperId(), detail);
+        }
+
+        @Override
+        public void insertIfAbsent(List<WallpaperDetailEntity> details) {
+            for (WallpaperDetailEntity detail : details) {
+                rows.putIfAbsent(detail.getWallpaperId(), detail);
+            }
+        }
+
+        @Override
+        public void deleteOlderThan(long before) {
+            rows.values().removeIf(detail -> detail.getUpdatedAt() < before);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.wallpaper.model.search;
+
+import com.example.wallpaper.model.Purity;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Equal keys must mean equal requests: whatever the key folds together, the
+ * query string folds together too, and whatever the request tells apart, so does
+ * the key.
+ */
+public class WallhavenSearchKeyTest {
+
+    @Test
+    public void tagOrderCaseAndWhitespaceGiveEqualKeys() {
+        WallhavenSearch a = new WallhavenSearch();
+        a.getFilters().setIncludedTags(new HashSet<>(Arrays.asList("Nature", "  city   lights ")));
+        a.getFilters().setExcludedTags(new HashSet<>(Collections.singletonList("Cars")));
+        WallhavenSearch b = new WallhavenSearch();
+        b.getFilters().setIncludedTags(new HashSet<>(Arrays.asList("city lights", "nature")));
+        b.getFilters().setExcludedTags(new HashSet<>(Collections.singletonList("cars")));
+
+        assertSameRequest(a, b);
+    }
+
+    @Test
+    public void queryPrefixesMatchTheirFilters() {
+        WallhavenSearch byQuery = new WallhavenSearch();
+        byQuery.setQuery("@Alice");
+        WallhavenSearch byFilter = new WallhavenSearch();
+        byFilter.getFilters().setUsername("Alice");
+        assertSameRequest(byQuery, byFilter);
+
+        byQuery.setQuery("like:k7q2y1");
+        byFilter = new WallhavenSearch();
+        byFilter.getFilters().setWallpaperId("k7q2y1");
+        assertSameRequest(byQuery, byFilter);
+    }
+
+    @Test
+    public void usernameAndWallpaperIdAreTrimmed() {
+        WallhavenSearch a = new WallhavenSearch();
+        a.getFilters().setUsername(" alice ");
+        a.getFilters().setWallpaperId(" k7q2y1");
+        WallhavenSearch b = new WallhavenSearch();
+        b.getFilters().setUsername("alice");
+        b.getFilters().setWallpaperId("k7q2y1");
+
+        assertSameRequest(a, b);
+        assertEquals("@alice like:k7q2y1", a.getApiQueryString());
+    }
+
+    @Test
+    public void usernameCaseGivesDifferentKeys() {
+        WallhavenSearch a = new WallhavenSearch();
+        a.getFilters().setUsername("Alice");
+        WallhavenSearch b = new WallhavenSearch();
+        b.getFilters().setUsername("alice");
+
+        assertNotEquals(a.getApiQueryString(), b.getApiQueryString());
+        assertNotEquals(a.toKey(1), b.toKey(1));
+    }
+
+    @Test
+    public void wallpaperIdCaseGivesDifferentKeys() {
+        WallhavenSearch a = new WallhavenSearch();
+        a.getFilters().setWallpaperId("K7Q2Y1");
+        WallhavenSearch b = new WallhavenSearch();
+        b.getFilters().setWallpaperId("k7q2y1");
+
+        assertNotEquals(a.getApiQueryString(), b.getApiQueryString());
+        assertNotEquals(a.toKey(1), b.toKey(1));
+    }
+
+    @Test
+    public void topRangeIsKeyedForEverySorting() {
+        for (WallhavenSorting sorting : WallhavenSorting.values()) {
+            WallhavenSearch a = new WallhavenSearch();
+            a.getFilters().setSorting(sorting);
+            a.getFilters().setTopRange(WallhavenTopRange.ONE_WEEK);
+            WallhavenSearch b = new WallhavenSearch();
+            b.getFilters().setSorting(sorting);
+            b.getFilters().setTopRange(WallhavenTopRange.ONE_YEAR);
+
+            assertNotEquals(sorting.getValue(), a.toKey(1), b.toKey(1));
+        }
+    }
+
+    @Test
+    public void otherFiltersGiveDifferentKeys() {
+        WallhavenSearch base = new WallhavenSearch();
+
+        WallhavenSearch purity = new WallhavenSearch();
+        purity.getFilters().setPurity(new HashSet<>(Arrays.asList(Purity.SFW, Purity.SKETCHY)));
+        assertNotEquals(base.toKey(1), purity.toKey(1));
+
+        WallhavenSearch categories = new WallhavenSearch();
+        categories.getFilters().setCategories(new HashSet<>(Collections.singletonList(WallhavenCategory.ANIME)));
+        assertNotEquals(base.toKey(1), categories.toKey(1));
+
+        WallhavenSearch sorting = new WallhavenSearch();
+        sorting.getFilters().setSorting(WallhavenSorting.TOPLIST);
+        assertNotEquals(base.toKey(1), sorting.toKey(1));
+
+        WallhavenSearch seed = new WallhavenSearch();
+        seed.getFilters().setSeed("abc123");
+        assertNotEquals(base.toKey(1), seed.toKey(1));
+
+        WallhavenSearch tagId = new WallhavenSearch();
+        tagId.getFilters().setTagId(37L);
+        assertNotEquals(base.toKey(1), tagId.toKey(1));
+    }
+
+    @Test
+    public void pagesShareTheFeed() {
+        WallhavenSearch search = new WallhavenSearch();
+        WallhavenSearchKey first = search.toKey(1);
+        WallhavenSearchKey second = search.toKey(2);
+
+        assertNotEquals(first, second);
+        assertEquals(first.getFeed(), second.getFeed());
+        assertEquals(first.getFeedHash(), second.getFeedHash());
+        assertEquals(second, first.withPage(2));
+    }
+
+    private static void assertSameRequest(WallhavenSearch a, WallhavenSearch b) {
+        assertEquals(a.getApiQueryString(), b.getApiQueryString());
+        assertEquals(a.toKey(1), b.toKey(1));
+        assertEquals(a.toKey(1).getHash(), b.toKey(1).getHash());
+    }
+}